@@ -0,0 +1,90 @@
+package com.tetris.bench;
+
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Paths;
+import java.util.HashMap;
+import java.util.Map;
+
+import org.json.JSONArray;
+import org.json.JSONObject;
+
+/**
+ * Compara um resultado JMH (JSON, gerado com {@code -rf json -prof gc}) com a linha de base
+ * versionada e falha se algum benchmark ficou mais lento ou passou a alocar mais.
+ *
+ * Uso: {@code java -cp target/benchmarks.jar com.tetris.bench.BaselineCheck baseline.json atual.json [tolerancia]}
+ * A tolerância é a perda de vazão aceite (padrão 0.10 = 10%).
+ */
+public final class BaselineCheck {
+
+    private static final String ALLOC_METRIC = "gc.alloc.rate.norm";
+    // Folga em bytes/op para ruído do próprio JMH (ex: objetos de Blackhole)
+    private static final double ALLOC_SLACK_BYTES = 16;
+
+    private BaselineCheck() {}
+
+    public static void main(String[] args) throws IOException {
+        if (args.length < 2) {
+            System.err.println("Uso: BaselineCheck <baseline.json> <atual.json> [tolerancia]");
+            System.exit(2);
+        }
+        double tolerance = args.length > 2 ? Double.parseDouble(args[2]) : 0.10;
+        Map<String, JSONObject> baseline = load(args[0]);
+        Map<String, JSONObject> current = load(args[1]);
+
+        int regressions = 0;
+        for (Map.Entry<String, JSONObject> entry : current.entrySet()) {
+            JSONObject base = baseline.get(entry.getKey());
+            if (base == null) {
+                System.out.println("NOVO  " + entry.getKey());
+                continue;
+            }
+            double baseScore = base.getJSONObject("primaryMetric").getDouble("score");
+            double score = entry.getValue().getJSONObject("primaryMetric").getDouble("score");
+            double baseAlloc = alloc(base);
+            double allocNow = alloc(entry.getValue());
+            boolean slower = score < baseScore * (1 - tolerance);
+            boolean heavier = allocNow > baseAlloc + ALLOC_SLACK_BYTES;
+            System.out.printf("%-5s %s: %.3f -> %.3f ops/us, %.1f -> %.1f B/op%n",
+                    slower || heavier ? "FALHA" : "ok", entry.getKey(), baseScore, score, baseAlloc, allocNow);
+            if (slower || heavier) {
+                regressions++;
+            }
+        }
+        if (regressions > 0) {
+            System.err.println(regressions + " regressão(ões) em relação à linha de base.");
+            System.exit(1);
+        }
+    }
+
+    private static Map<String, JSONObject> load(String file) throws IOException {
+        String json = new String(Files.readAllBytes(Paths.get(file)), StandardCharsets.UTF_8);
+        JSONArray results = new JSONArray(json);
+        Map<String, JSONObject> byName = new HashMap<>();
+        for (int i = 0; i < results.length(); i++) {
+            JSONObject result = results.getJSONObject(i);
+            byName.put(key(result), result);
+        }
+        return byName;
+    }
+
+    /** @return O nome do benchmark seguido dos parâmetros, que identifica uma entrada do resultado. */
+    static String key(JSONObject result) {
+        String key = result.getString("benchmark");
+        JSONObject params = result.optJSONObject("params");
+        if (params != null) {
+            key += params.toMap().toString();
+        }
+        return key;
+    }
+
+    private static double alloc(JSONObject result) {
+        JSONObject secondary = result.optJSONObject("secondaryMetrics");
+        if (secondary == null || !secondary.has(ALLOC_METRIC)) {
+            return 0;
+        }
+        return secondary.getJSONObject(ALLOC_METRIC).getDouble("score");
+    }
+}
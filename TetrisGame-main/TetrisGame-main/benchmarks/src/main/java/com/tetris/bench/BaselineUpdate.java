@@ -0,0 +1,102 @@
+package com.tetris.bench;
+
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Paths;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.regex.Pattern;
+
+import org.json.JSONObject;
+
+/**
+ * Atualiza na linha de base só os benchmarks que uma mudança melhorou de propósito. Cada entrada
+ * de um resultado JMH cujo nome (com os parâmetros) contém a expressão substitui a entrada
+ * correspondente de {@code baseline.json}, com o texto tal como o JMH o escreveu; as outras
+ * entradas ficam intactas e na mesma ordem, e as que ainda não existiam vão para o fim. Assim o
+ * diff do commit mostra só os benchmarks que ele mudou.
+ *
+ * Uso: {@code java -cp target/benchmarks.jar com.tetris.bench.BaselineUpdate baseline.json atual.json <expressão>}
+ */
+public final class BaselineUpdate {
+
+    private static final String SEPARATOR = ",\n    ";
+
+    private BaselineUpdate() {}
+
+    public static void main(String[] args) throws IOException {
+        if (args.length != 3) {
+            System.err.println("Uso: BaselineUpdate <baseline.json> <atual.json> <expressão>");
+            System.exit(2);
+        }
+        Pattern pattern = Pattern.compile(args[2]);
+        List<String> baseline = entries(read(args[0]));
+        Map<String, Integer> positions = new HashMap<>();
+        for (int i = 0; i < baseline.size(); i++) {
+            positions.put(BaselineCheck.key(new JSONObject(baseline.get(i))), i);
+        }
+
+        int updated = 0;
+        for (String entry : entries(read(args[1]))) {
+            String key = BaselineCheck.key(new JSONObject(entry));
+            if (!pattern.matcher(key).find()) {
+                continue;
+            }
+            Integer position = positions.get(key);
+            if (position != null) {
+                baseline.set(position, entry);
+                System.out.println("atualizado " + key);
+            } else {
+                positions.put(key, baseline.size());
+                baseline.add(entry);
+                System.out.println("novo       " + key);
+            }
+            updated++;
+        }
+        if (updated == 0) {
+            System.err.println("Nenhum benchmark de " + args[1] + " corresponde a " + args[2]);
+            System.exit(1);
+        }
+        // O mesmo formato que o JMH escreve com -rf json
+        String json = "[\n    " + String.join(SEPARATOR, baseline) + "\n]\n\n\n";
+        Files.write(Paths.get(args[0]), json.getBytes(StandardCharsets.UTF_8));
+    }
+
+    private static String read(String file) throws IOException {
+        return new String(Files.readAllBytes(Paths.get(file)), StandardCharsets.UTF_8);
+    }
+
+    /** @return O texto de cada objeto do vetor de resultados, de "{" até ao "}" correspondente. */
+    private static List<String> entries(String json) {
+        List<String> entries = new ArrayList<>();
+        int depth = 0;
+        int start = -1;
+        boolean inString = false;
+        for (int i = 0; i < json.length(); i++) {
+            char c = json.charAt(i);
+            if (inString) {
+                if (c == '\\') {
+                    i++;
+                } else if (c == '"') {
+                    inString = false;
+                }
+            } else if (c == '"') {
+                inString = true;
+            } else if (c == '{' || c == '[') {
+                if (c == '{' && depth == 1) {
+                    start = i;
+                }
+                depth++;
+            } else if (c == '}' || c == ']') {
+                depth--;
+                if (c == '}' && depth == 1) {
+                    entries.add(json.substring(start, i + 1));
+                }
+            }
+        }
+        return entries;
+    }
+}
@@ -0,0 +1,129 @@
+package com.tetris.bench;
+
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.infra.Blackhole;
+
+import com.tetris.core.Board;
+import com.tetris.core.BoardFeatures;
+import com.tetris.core.tetromino.Orientation;
+import com.tetris.core.tetromino.PieceType;
+
+/**
+ * Colisão, fixação, eliminação de linhas e características do {@link Board}.
+ */
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class BoardBenchmark {
+
+    @State(Scope.Thread)
+    public static class Collision {
+        // 60 colunas já ocupam duas palavras por linha: mede o custo das peças que atravessam a fronteira
+        @Param({"10", "60"})
+        int width;
+
+        Board board;
+
+        @Setup
+        public void setup() {
+            board = Boards.stack(width, Board.DEFAULT_HEIGHT, 0, 8, 42);
+        }
+    }
+
+    /** Varre todas as colunas e linhas com uma T, como faz uma busca de posições. */
+    @Benchmark
+    public void isValidPositionSweep(Collision s, Blackhole bh) {
+        for (int rotation = 0; rotation < 4; rotation++) {
+            Orientation shape = PieceType.T.getOrientation(rotation);
+            for (int x = -2; x < s.board.getWidth(); x++) {
+                for (int y = 0; y < s.board.getHeight(); y++) {
+                    bh.consume(s.board.isValidPosition(shape, x, y));
+                }
+            }
+        }
+    }
+
+    /** Uma consulta isolada numa posição livre (o caso da gravidade). */
+    @Benchmark
+    public boolean isValidPositionSingle(Collision s) {
+        return s.board.isValidPosition(PieceType.T.getOrientation(0), 3, 2);
+    }
+
+    @State(Scope.Thread)
+    public static class Placement {
+        Board board;
+
+        @Setup
+        public void setup() {
+            board = Boards.stack(0, 4, 7);
+        }
+    }
+
+    /** Fixar a mesma peça no mesmo lugar é idempotente, então o tabuleiro não precisa ser refeito. */
+    @Benchmark
+    public Board placePiece(Placement s) {
+        s.board.placePiece(PieceType.J.getOrientation(0), 3, 6, PieceType.J.getPaletteIndex());
+        return s.board;
+    }
+
+    @State(Scope.Thread)
+    public static class Features {
+        Board board;
+        int[] features;
+
+        @Setup
+        public void setup() {
+            board = Boards.stack(0, 8, 42);
+            features = new int[BoardFeatures.size(board.getWidth())];
+        }
+    }
+
+    /** A fixação invalida as características: mede o recálculo sobre uma pilha de 8 linhas, como na avaliação do bot. */
+    @Benchmark
+    public int[] features(Features s) {
+        s.board.placePiece(PieceType.J.getOrientation(0), 3, 6, PieceType.J.getPaletteIndex());
+        s.board.copyFeatures(s.features);
+        return s.features;
+    }
+
+    @State(Scope.Thread)
+    public static class Clearing {
+        @Param({"0", "1", "2", "3", "4"})
+        int lines;
+
+        Board board;
+        long[] pattern;
+
+        @Setup(Level.Trial)
+        public void create() {
+            board = new Board();
+            pattern = Boards.pattern(Board.DEFAULT_WIDTH, lines, 12, 1234);
+        }
+
+        // Cada chamada de clearLines destrói o padrão, por isso ele é refeito fora da medição
+        @Setup(Level.Invocation)
+        public void refill() {
+            Boards.fill(board, pattern);
+        }
+    }
+
+    @Benchmark
+    public int clearLines(Clearing s) {
+        return s.board.clearLines();
+    }
+}
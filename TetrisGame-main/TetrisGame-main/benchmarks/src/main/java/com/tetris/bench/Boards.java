@@ -0,0 +1,71 @@
+package com.tetris.bench;
+
+import java.util.SplittableRandom;
+
+import com.tetris.core.Board;
+import com.tetris.core.tetromino.Orientation;
+
+/**
+ * Tabuleiros de teste com padrões de preenchimento realistas (pilha irregular com buracos),
+ * sempre gerados a partir de uma semente fixa para que as medições sejam reprodutíveis.
+ */
+final class Boards {
+
+    /** Forma de um só bloco, usada para desenhar padrões célula a célula. */
+    private static final Orientation CELL = Orientation.rotationsOf(new int[][]{{1}})[0];
+
+    private Boards() {}
+
+    /**
+     * Cria um tabuleiro com {@code fullRows} linhas completas no fundo e, por cima,
+     * uma pilha irregular (cerca de 70% de ocupação) sem linhas completas.
+     */
+    static Board stack(int fullRows, int stackHeight, long seed) {
+        return stack(Board.DEFAULT_WIDTH, Board.DEFAULT_HEIGHT, fullRows, stackHeight, seed);
+    }
+
+    /** Igual a {@link #stack(int, int, long)}, num tabuleiro de até 64 colunas. */
+    static Board stack(int width, int height, int fullRows, int stackHeight, long seed) {
+        Board board = new Board(width, height);
+        fill(board, pattern(width, fullRows, stackHeight, seed));
+        return board;
+    }
+
+    /**
+     * Gera o padrão de ocupação (uma máscara por linha, de baixo para cima) uma única vez,
+     * para que ele possa ser reaplicado dentro de um benchmark sem alocar.
+     */
+    static long[] pattern(int width, int fullRows, int stackHeight, long seed) {
+        SplittableRandom random = new SplittableRandom(seed);
+        long[] rows = new long[stackHeight];
+        for (int i = 0; i < stackHeight; i++) {
+            if (i < fullRows) {
+                rows[i] = -1L >>> (64 - width);
+                continue;
+            }
+            // Cada linha parcial deixa pelo menos uma coluna livre
+            int gap = random.nextInt(width);
+            for (int x = 0; x < width; x++) {
+                if (x != gap && random.nextInt(10) < 7) {
+                    rows[i] |= 1L << x;
+                }
+            }
+        }
+        return rows;
+    }
+
+    static void fill(Board board, long[] pattern) {
+        board.clear();
+        for (int i = 0; i < pattern.length; i++) {
+            for (int x = 0; x < board.getWidth(); x++) {
+                if ((pattern[i] & (1L << x)) != 0) {
+                    set(board, x, board.getHeight() - 1 - i);
+                }
+            }
+        }
+    }
+
+    private static void set(Board board, int x, int y) {
+        board.placePiece(CELL, x, y, 1);
+    }
+}
@@ -0,0 +1,75 @@
+package com.tetris.bench;
+
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import com.tetris.core.Board;
+import com.tetris.core.GameCore;
+import com.tetris.core.GameState;
+import com.tetris.core.Input;
+import com.tetris.core.tetromino.Orientation;
+import com.tetris.core.tetromino.PieceType;
+
+/**
+ * Queda rápida e cálculo da sombra (ghost) da peça.
+ */
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class DropBenchmark {
+
+    @State(Scope.Thread)
+    public static class Game {
+        GameCore core;
+
+        @Setup
+        public void setup() {
+            core = new GameCore();
+            core.start();
+        }
+    }
+
+    /**
+     * Queda rápida completa pelo núcleo: descida linha a linha, fixação, eliminação
+     * e sorteio da próxima peça. Ao fim de partida o jogo é reiniciado.
+     */
+    @Benchmark
+    public int hardDrop(Game s) {
+        GameCore core = s.core;
+        if (core.getState() == GameState.GAME_OVER) {
+            core.start();
+        }
+        core.applyInput(Input.HARD_DROP);
+        return core.getScore();
+    }
+
+    @State(Scope.Thread)
+    public static class Ghost {
+        Board board;
+        Orientation shape;
+
+        @Setup
+        public void setup() {
+            board = Boards.stack(0, 6, 99);
+            shape = PieceType.S.getOrientation(1);
+        }
+    }
+
+    /** Sombra da peça: distância de queda pelo perfil de alturas do tabuleiro. */
+    @Benchmark
+    public int ghost(Ghost s) {
+        return s.board.dropDistance(s.shape, 4, 0);
+    }
+}
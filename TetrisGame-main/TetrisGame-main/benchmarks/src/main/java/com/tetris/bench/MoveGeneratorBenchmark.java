@@ -0,0 +1,54 @@
+package com.tetris.bench;
+
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import com.tetris.core.Board;
+import com.tetris.core.bot.MoveGenerator;
+import com.tetris.core.tetromino.PieceType;
+
+/**
+ * Geração de todas as posições de fixação de uma peça (pesquisa em largura do
+ * {@link MoveGenerator}), num tabuleiro vazio e sobre uma pilha irregular com buracos.
+ */
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class MoveGeneratorBenchmark {
+
+    @State(Scope.Thread)
+    public static class Generation {
+        @Param({"0", "8"})
+        int stackHeight;
+
+        Board board;
+        MoveGenerator generator;
+        int piece;
+
+        @Setup
+        public void setup() {
+            board = Boards.stack(0, stackHeight, 99);
+            generator = new MoveGenerator();
+        }
+    }
+
+    /** Todas as posições de uma peça, alternando os sete tipos; devolve quantas foram. */
+    @Benchmark
+    public int generate(Generation s) {
+        s.piece = (s.piece + 1) % 7;
+        return s.generator.generate(s.board, PieceType.of(s.piece));
+    }
+}
@@ -0,0 +1,46 @@
+package com.tetris.bench;
+
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import com.tetris.core.random.Randomizer;
+import com.tetris.core.random.RandomizerType;
+import com.tetris.core.tetromino.PieceType;
+
+/**
+ * Sorteio da próxima peça, em cada modo; não deve alocar.
+ */
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+@State(Scope.Thread)
+public class RandomizerBenchmark {
+
+    @Param({"BAG_7", "BAG_14", "CLASSIC", "UNIFORM"})
+    RandomizerType type;
+
+    private Randomizer randomizer;
+
+    @Setup
+    public void setup() {
+        randomizer = type.create(2024);
+    }
+
+    @Benchmark
+    public PieceType nextPiece() {
+        return PieceType.of(randomizer.next());
+    }
+}
@@ -0,0 +1,78 @@
+package com.tetris.bench;
+
+import java.util.SplittableRandom;
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import com.tetris.core.GameCore;
+import com.tetris.core.GameState;
+import com.tetris.core.Input;
+import com.tetris.core.replay.Replay;
+import com.tetris.core.replay.ReplayPlayer;
+import com.tetris.core.replay.ReplayRecorder;
+
+/**
+ * Reprodução sem ecrã de uma partida gravada: um passo lógico por operação ({@code advance};
+ * em ops/us, a velocidade em relação ao tempo real é {@code score * 1e6 / 240}) ou um salto
+ * para um passo qualquer a partir da keyframe mais próxima ({@code seek}).
+ */
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+@State(Scope.Thread)
+public class ReplayBenchmark {
+
+    // Keyframes a cada segundo, para a partida curta da gravação ter várias
+    private static final int KEYFRAME_INTERVAL = GameCore.TICKS_PER_SECOND;
+
+    private GameCore core;
+    private ReplayPlayer player;
+    private long endTick;
+    private long seekTarget;
+
+    @Setup
+    public void setup() {
+        // Grava uma partida com um comando a cada ~20 passos (uns 12 por segundo)
+        GameCore recorded = new GameCore();
+        ReplayRecorder recorder = new ReplayRecorder(recorded, KEYFRAME_INTERVAL);
+        recorded.addTickListener(recorder);
+        SplittableRandom random = new SplittableRandom(2024);
+        recorded.start(2024);
+        while (recorded.getState() == GameState.PLAYING) {
+            recorded.step(random.nextInt(20) == 0 ? 1 << random.nextInt(5) : Input.NONE);
+        }
+        Replay replay = recorder.toReplay();
+        core = new GameCore();
+        player = new ReplayPlayer(replay);
+        player.start(core);
+        endTick = replay.getEndTick();
+    }
+
+    @Benchmark
+    public long advance() {
+        if (!player.advance(core)) {
+            player.start(core);
+        }
+        return core.getTick();
+    }
+
+    /** Salta para passos espalhados pela partida, para a frente e para trás. */
+    @Benchmark
+    public long seek() {
+        seekTarget = (seekTarget + 7919) % (endTick + 1);
+        player.seek(core, seekTarget);
+        return core.getTick();
+    }
+}
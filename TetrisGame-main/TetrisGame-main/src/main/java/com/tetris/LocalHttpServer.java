@@ -3,26 +3,58 @@ package com.tetris;
 import com.sun.net.httpserver.HttpServer;
 import com.sun.net.httpserver.HttpExchange;
 import com.sun.net.httpserver.HttpHandler;
+import com.tetris.core.replay.ChallengeResult;
+import com.tetris.core.replay.ChallengeSubmission;
+import com.tetris.core.replay.ChallengeVerifier;
+import com.tetris.core.replay.DailyChallenge;
+import com.tetris.core.replay.Replay;
 import com.tetris.model.DBManager;
+import com.tetris.model.LocalStorageManager;
+import com.tetris.model.ReplayArchive;
 import java.io.IOException;
+import java.io.InputStream;
 import java.io.OutputStream;
 import java.net.InetSocketAddress;
+import java.net.URLDecoder;
+import java.nio.ByteBuffer;
 import java.nio.charset.StandardCharsets;
+import java.time.LocalDate;
+import java.time.format.DateTimeParseException;
+import java.util.ArrayList;
+import java.util.HashMap;
 import java.util.List;
+import java.util.Map;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.Executors;
+import java.util.concurrent.LinkedBlockingQueue;
+import org.json.JSONObject;
 
 public class LocalHttpServer {
     private HttpServer server;
+    // Partilhada pelos pedidos: as simulações correm no pool de roubo de trabalho do verificador
+    private final VerificationQueue verification = new VerificationQueue(new ChallengeVerifier());
 
     public void start(int port) throws IOException {
         server = HttpServer.create(new InetSocketAddress(port), 0);
         server.createContext("/jogadores", new JogadoresHandler());
         server.createContext("/partidas", new PartidasHandler());
         server.createContext("/ranking", new RankingHandler());
-        server.setExecutor(null); // default executor
+        server.createContext("/desafio", new DesafioHandler(verification));
+        server.createContext("/partida", new PartidaHandler(verification));
+        verification.start();
+        // Vários pedidos ao mesmo tempo: cada envio espera pela sua verificação
+        server.setExecutor(Executors.newCachedThreadPool());
         server.start();
         System.out.println("Servidor HTTP iniciado em http://localhost:" + port);
     }
 
+    /** Arranca o servidor sozinho, sem o jogo. Uso: {@code LocalHttpServer [porta]} (por omissão 8080). */
+    public static void main(String[] args) throws IOException {
+        new LocalHttpServer().start(args.length > 0 ? Integer.parseInt(args[0]) : 8080);
+    }
+
     static class JogadoresHandler implements HttpHandler {
         @Override
         public void handle(HttpExchange exchange) throws IOException {
@@ -50,10 +82,251 @@ public class LocalHttpServer {
         }
     }
 
+    /**
+     * POST /desafio?jogador=Nome&score=123[&dia=AAAA-MM-DD] com a gravação da partida no corpo.
+     * A pontuação só é registada (e a gravação arquivada) se a simulação a reproduzir; os
+     * clientes não registam pontuações do desafio, enviam-nas para aqui. Só são
+     * aceites partidas do desafio de hoje ou de ontem (UTC), para quem jogou à meia-noite.
+     */
+    static class DesafioHandler extends EnvioHandler {
+        DesafioHandler(VerificationQueue verification) {
+            super(verification);
+        }
+
+        @Override
+        LocalDate dia(Map<String, String> query) {
+            LocalDate hoje = DailyChallenge.today();
+            LocalDate dia = query.containsKey("dia") ? LocalDate.parse(query.get("dia")) : hoje;
+            if (dia.isAfter(hoje) || dia.isBefore(hoje.minusDays(1))) {
+                throw new IllegalArgumentException("Desafio fechado");
+            }
+            return dia;
+        }
+    }
+
+    /**
+     * POST /partida?jogador=Nome&score=123 com a gravação de uma partida normal no corpo. Como no
+     * desafio, a pontuação só é registada se a simulação a reproduzir: os clientes também não
+     * registam as pontuações das partidas normais.
+     */
+    static class PartidaHandler extends EnvioHandler {
+        PartidaHandler(VerificationQueue verification) {
+            super(verification);
+        }
+
+        @Override
+        LocalDate dia(Map<String, String> query) {
+            return null;
+        }
+    }
+
+    /** Recebe um envio (jogador, pontuação e gravação), põe-no na fila de verificação e responde. */
+    abstract static class EnvioHandler implements HttpHandler {
+        private final VerificationQueue verification;
+
+        EnvioHandler(VerificationQueue verification) {
+            this.verification = verification;
+        }
+
+        /**
+         * @return O dia do desafio do envio, ou null numa partida normal.
+         * @throws IllegalArgumentException Se o envio não pertence a um desafio aberto.
+         */
+        abstract LocalDate dia(Map<String, String> query);
+
+        @Override
+        public void handle(HttpExchange exchange) throws IOException {
+            if (!"POST".equals(exchange.getRequestMethod())) {
+                sendResponse(exchange, 405, new JSONObject().put("erro", "Use POST").toString());
+                return;
+            }
+            Map<String, String> query = parseQuery(exchange.getRequestURI().getRawQuery());
+            String jogador = query.get("jogador");
+            LocalDate dia;
+            int score;
+            try {
+                score = Integer.parseInt(query.getOrDefault("score", ""));
+                dia = dia(query);
+            } catch (DateTimeParseException | NumberFormatException ex) {
+                sendResponse(exchange, 400, new JSONObject().put("erro", "Parâmetros inválidos").toString());
+                return;
+            } catch (IllegalArgumentException ex) {
+                sendResponse(exchange, 400, new JSONObject().put("erro", ex.getMessage()).toString());
+                return;
+            }
+            if (jogador == null || jogador.isEmpty()) {
+                sendResponse(exchange, 400, new JSONObject().put("erro", "Jogador em falta").toString());
+                return;
+            }
+            // O corpo é lido com um limite: um envio não pode obrigar o servidor a guardar mais do
+            // que uma gravação válida ocupa
+            Replay replay;
+            try (InputStream body = exchange.getRequestBody()) {
+                byte[] bytes = body.readNBytes(DailyChallenge.MAX_REPLAY_BYTES + 1);
+                if (bytes.length > DailyChallenge.MAX_REPLAY_BYTES) {
+                    sendResponse(exchange, 413, new JSONObject().put("erro", "Gravação demasiado grande").toString());
+                    return;
+                }
+                replay = Replay.read(ByteBuffer.wrap(bytes));
+            } catch (IOException ex) {
+                sendResponse(exchange, 400, new JSONObject().put("erro", ex.getMessage()).toString());
+                return;
+            }
+            Envio envio;
+            try {
+                envio = verification.submit(new ChallengeSubmission(jogador, dia, score, replay));
+            } catch (InterruptedException ex) {
+                Thread.currentThread().interrupt();
+                sendResponse(exchange, 503, new JSONObject().put("erro", "Servidor a terminar").toString());
+                return;
+            } catch (ExecutionException ex) {
+                sendResponse(exchange, 500, new JSONObject().put("erro", "Falha na verificação").toString());
+                return;
+            }
+            ChallengeResult result = envio.result;
+            JSONObject resposta = new JSONObject()
+                    .put("aceite", result.isAccepted())
+                    .put("registada", envio.registada)
+                    .put("estado", result.getStatus().name())
+                    .put("scoreSimulado", result.getSimulatedScore())
+                    .put("passos", result.getTicks())
+                    .put("passosPorSegundo", Math.round(result.getTicksPerSecond()));
+            if (result.isAccepted() && !envio.registada) {
+                resposta.put("erro", "Partida já registada");
+            }
+            sendResponse(exchange, !result.isAccepted() ? 422 : envio.registada ? 200 : 409, resposta.toString());
+        }
+    }
+
+    /** Um envio na fila de verificação e, depois de verificado, o seu resultado. */
+    static final class Envio {
+        final ChallengeSubmission submission;
+        final CompletableFuture<Envio> feito = new CompletableFuture<>();
+        ChallengeResult result;
+        // false se foi rejeitado, ou se a mesma partida já estava registada
+        boolean registada;
+
+        Envio(ChallengeSubmission submission) {
+            this.submission = submission;
+        }
+    }
+
+    /**
+     * Fila dos envios à espera de verificação. Cada pedido HTTP põe o seu envio na fila e espera;
+     * uma só thread tira da fila tudo o que lá estiver (até {@value #MAX_BATCH} envios) e
+     * verifica-o num só lote, por isso com muitos envios ao mesmo tempo o {@link ChallengeVerifier}
+     * reparte lotes reais pelos seus trabalhadores. A mesma thread regista os aceites, um de cada
+     * vez: uma partida cuja gravação já está arquivada em nome do mesmo jogador não é registada
+     * outra vez, por isso reenviar uma partida aceite não soma outra pontuação. A gravação inclui a
+     * semente, e com ela o dia do desafio, por isso a mesma partida nunca conta em dois dias.
+     */
+    static final class VerificationQueue {
+        private static final int MAX_BATCH = 256;
+
+        private final ChallengeVerifier verifier;
+        private final BlockingQueue<Envio> fila = new LinkedBlockingQueue<>();
+
+        VerificationQueue(ChallengeVerifier verifier) {
+            this.verifier = verifier;
+        }
+
+        void start() {
+            Thread thread = new Thread(this::run, "tetris-verificacao");
+            thread.setDaemon(true);
+            thread.start();
+        }
+
+        /** Põe o envio na fila e espera que seja verificado (e registado, se for aceite). */
+        Envio submit(ChallengeSubmission submission) throws InterruptedException, ExecutionException {
+            Envio envio = new Envio(submission);
+            fila.add(envio);
+            return envio.feito.get();
+        }
+
+        private void run() {
+            List<Envio> lote = new ArrayList<>();
+            List<ChallengeSubmission> submissions = new ArrayList<>();
+            while (true) {
+                try {
+                    lote.add(fila.take());
+                } catch (InterruptedException ex) {
+                    return;
+                }
+                fila.drainTo(lote, MAX_BATCH - 1);
+                try {
+                    for (Envio envio : lote) {
+                        submissions.add(envio.submission);
+                    }
+                    List<ChallengeResult> results = verifier.verifyAll(submissions);
+                    for (int i = 0; i < lote.size(); i++) {
+                        Envio envio = lote.get(i);
+                        envio.result = results.get(i);
+                        envio.registada = envio.result.isAccepted() && registrar(envio.result);
+                        envio.feito.complete(envio);
+                    }
+                } catch (RuntimeException ex) {
+                    for (Envio envio : lote) {
+                        envio.feito.completeExceptionally(ex);
+                    }
+                }
+                lote.clear();
+                submissions.clear();
+            }
+        }
+
+        /**
+         * Arquiva a gravação e regista a pontuação simulada de um envio aceite, se a gravação
+         * ainda não estiver arquivada em nome do jogador.
+         * @return false se a partida já estava registada.
+         */
+        private static boolean registrar(ChallengeResult result) {
+            ChallengeSubmission submission = result.getSubmission();
+            try {
+                ReplayArchive archive = LocalStorageManager.getReplayArchive();
+                if (archive.contains(submission.getPlayer(), submission.getReplay())) {
+                    return false;
+                }
+                archive.append(submission.getPlayer(), result.getSimulatedScore(), System.currentTimeMillis(),
+                        submission.getReplay());
+            } catch (IOException ex) {
+                System.err.println("Falha ao arquivar a gravação: " + ex.getMessage());
+            }
+            registrarPontuacao(submission.getPlayer(), result.getSimulatedScore());
+            return true;
+        }
+    }
+
+    private static void registrarPontuacao(String jogador, int score) {
+        try {
+            new com.tetris.model.dao.SqlServerPlayerDAO().addPlayer(new com.tetris.model.Player(jogador, score));
+        } catch (Exception ex) {
+            System.err.println("Falha ao registrar pontuação: " + ex.getMessage());
+        }
+    }
+
+    private static Map<String, String> parseQuery(String rawQuery) {
+        Map<String, String> query = new HashMap<>();
+        if (rawQuery == null) {
+            return query;
+        }
+        for (String pair : rawQuery.split("&")) {
+            int eq = pair.indexOf('=');
+            if (eq > 0) {
+                query.put(URLDecoder.decode(pair.substring(0, eq), StandardCharsets.UTF_8),
+                        URLDecoder.decode(pair.substring(eq + 1), StandardCharsets.UTF_8));
+            }
+        }
+        return query;
+    }
+
     private static void sendResponse(HttpExchange exchange, String response) throws IOException {
+        sendResponse(exchange, 200, response);
+    }
+
+    private static void sendResponse(HttpExchange exchange, int status, String response) throws IOException {
         exchange.getResponseHeaders().set("Content-Type", "application/json; charset=UTF-8");
         byte[] bytes = response.getBytes(StandardCharsets.UTF_8);
-        exchange.sendResponseHeaders(200, bytes.length);
+        exchange.sendResponseHeaders(status, bytes.length);
         try (OutputStream os = exchange.getResponseBody()) {
             os.write(bytes);
         }
@@ -7,6 +7,7 @@ import com.tetris.model.Player;
 import com.tetris.model.dao.SqlServerPlayerDAO;
 import com.tetris.view.GamePanel;
 import com.tetris.view.InfoPanel;
+import com.tetris.view.ReplayBar;
 import com.tetris.view.Theme;
 
 import javafx.application.Application;
@@ -54,7 +55,19 @@ public class MainApp extends Application {
         });
 
         String escolha = startDialog.showAndWait().orElse("");
-        if ("novo".equals(escolha)) {
+        com.tetris.model.SavedGame partidaGuardada = null;
+        if ("continuar".equals(escolha)) {
+            partidaGuardada = com.tetris.model.LocalStorageManager.loadGame();
+            if (partidaGuardada == null) {
+                javafx.scene.control.Alert alert = new javafx.scene.control.Alert(javafx.scene.control.Alert.AlertType.INFORMATION);
+                alert.setTitle("Continuar Partida");
+                alert.setHeaderText(null);
+                alert.setContentText("Nenhuma partida guardada. Vai começar uma partida nova.");
+                alert.showAndWait();
+            } else {
+                nomeSelecionado = partidaGuardada.getPlayer();
+            }
+        } else if ("novo".equals(escolha)) {
             javafx.scene.control.TextInputDialog dialog = new javafx.scene.control.TextInputDialog();
             dialog.setTitle("Adicionar Jogador");
             dialog.setHeaderText("Novo Jogador");
@@ -101,6 +114,8 @@ public class MainApp extends Application {
 
         root.setCenter(gamePanel);
         root.setRight(infoPanel);
+        // Só aparece durante a reprodução de uma partida gravada
+        root.setBottom(new ReplayBar(gameEngine, gamePanel));
 
         // Menu sanduíche (hambúrguer) no topo esquerdo
         javafx.scene.control.Button menuButton = new javafx.scene.control.Button("☰");
@@ -111,7 +126,15 @@ public class MainApp extends Application {
         javafx.scene.control.MenuItem listarJogadores = new javafx.scene.control.MenuItem("Listar Jogadores");
         javafx.scene.control.MenuItem listarPartidas = new javafx.scene.control.MenuItem("Histórico de Partidas");
         javafx.scene.control.MenuItem verRanking = new javafx.scene.control.MenuItem("Ver Ranking");
-        menuPopup.getItems().addAll(addJogador, listarJogadores, listarPartidas, verRanking);
+        javafx.scene.control.MenuItem verReplay = new javafx.scene.control.MenuItem("Ver Último Replay");
+        javafx.scene.control.MenuItem melhoresReplays = new javafx.scene.control.MenuItem("Melhores Replays");
+        javafx.scene.control.MenuItem desafioDiario = new javafx.scene.control.MenuItem("Desafio Diário");
+        javafx.scene.control.MenuItem modoTreino = new javafx.scene.control.MenuItem("Modo Treino");
+        javafx.scene.control.MenuItem tempoTeclas = new javafx.scene.control.MenuItem("Tempo das Teclas (DAS/ARR)");
+        javafx.scene.control.MenuItem latencia = new javafx.scene.control.MenuItem("Latência das Teclas");
+        javafx.scene.control.MenuItem modoAutomatico = new javafx.scene.control.MenuItem("Modo Automático");
+        javafx.scene.control.MenuItem desempenhoBot = new javafx.scene.control.MenuItem("Desempenho do Bot");
+        menuPopup.getItems().addAll(addJogador, listarJogadores, listarPartidas, verRanking, verReplay, melhoresReplays, desafioDiario, modoTreino, tempoTeclas, latencia, modoAutomatico, desempenhoBot);
 
         menuButton.setOnAction(e -> {
             menuPopup.show(menuButton, javafx.geometry.Side.BOTTOM, 0, 0);
@@ -179,6 +202,104 @@ public class MainApp extends Application {
                 ex.printStackTrace();
             }
         });
+        verReplay.setOnAction(e -> {
+            // Reproduz no tabuleiro a última partida gravada; "Reiniciar" volta ao jogo normal
+            com.tetris.core.replay.Replay replay = com.tetris.model.LocalStorageManager.loadLastReplay();
+            if (replay == null) {
+                javafx.scene.control.Alert alert = new javafx.scene.control.Alert(javafx.scene.control.Alert.AlertType.INFORMATION);
+                alert.setTitle("Replay");
+                alert.setHeaderText("Nenhum replay gravado.");
+                alert.showAndWait();
+                return;
+            }
+            gameEngine.startReplay(replay);
+            gamePanel.requestFocus();
+        });
+        melhoresReplays.setOnAction(e -> {
+            // As 100 melhores partidas arquivadas do jogador atual (consulta ao índice do arquivo)
+            try {
+                com.tetris.model.ReplayArchive archive = com.tetris.model.LocalStorageManager.getReplayArchive();
+                java.util.List<com.tetris.model.ArchivedReplay> melhores = archive.topByPlayer(nomeSelecionado, 100);
+                if (melhores.isEmpty()) {
+                    javafx.scene.control.Alert alert = new javafx.scene.control.Alert(javafx.scene.control.Alert.AlertType.INFORMATION);
+                    alert.setTitle("Replays");
+                    alert.setHeaderText("Nenhum replay gravado para " + nomeSelecionado + ".");
+                    alert.showAndWait();
+                    return;
+                }
+                javafx.scene.control.ChoiceDialog<com.tetris.model.ArchivedReplay> dialog = new javafx.scene.control.ChoiceDialog<>(melhores.get(0), melhores);
+                dialog.setTitle("Replays");
+                dialog.setHeaderText("Melhores partidas de " + nomeSelecionado);
+                dialog.setContentText("Partida:");
+                java.util.Optional<com.tetris.model.ArchivedReplay> escolhida = dialog.showAndWait();
+                if (escolhida.isPresent()) {
+                    gameEngine.startReplay(archive.load(escolhida.get().getOffset()));
+                    gamePanel.requestFocus();
+                }
+            } catch (java.io.IOException ex) {
+                ex.printStackTrace();
+            }
+        });
+        desafioDiario.setOnAction(e -> {
+            // Mesma sequência de peças para todos hoje; "Restart" volta ao jogo normal
+            gameEngine.startDailyChallenge();
+            gamePanel.requestFocus();
+        });
+
+        modoTreino.setOnAction(e -> {
+            // Backspace desfaz a última peça, R recua dois segundos; "Restart" volta ao jogo normal
+            gameEngine.startPractice();
+            gamePanel.requestFocus();
+        });
+
+        tempoTeclas.setOnAction(e -> {
+            com.tetris.core.InputHandler atual = gameEngine.getInputTiming();
+            javafx.scene.control.TextInputDialog dialog = new javafx.scene.control.TextInputDialog(
+                    Math.round(atual.getDasTicks() * 1000f / com.tetris.core.GameCore.TICKS_PER_SECOND) + ", "
+                    + Math.round(atual.getArrTicks() * 1000f / com.tetris.core.GameCore.TICKS_PER_SECOND) + ", "
+                    + atual.getSoftDropFactor());
+            dialog.setTitle("Tempo das Teclas");
+            dialog.setHeaderText("DAS (ms), ARR (ms; 0 = até à parede) e fator da queda suave");
+            dialog.setContentText("DAS, ARR, SDF:");
+            dialog.showAndWait().ifPresent(texto -> {
+                try {
+                    String[] partes = texto.split(",");
+                    gameEngine.setInputTiming(Integer.parseInt(partes[0].trim()),
+                            Integer.parseInt(partes[1].trim()), Integer.parseInt(partes[2].trim()));
+                } catch (RuntimeException ex) {
+                    javafx.scene.control.Alert alert = new javafx.scene.control.Alert(javafx.scene.control.Alert.AlertType.ERROR);
+                    alert.setTitle("Tempo das Teclas");
+                    alert.setHeaderText("Valores inválidos");
+                    alert.setContentText("Use três números separados por vírgulas, por exemplo 167, 33, 20.");
+                    alert.showAndWait();
+                }
+            });
+            gamePanel.requestFocus();
+        });
+
+        latencia.setOnAction(e -> {
+            javafx.scene.control.Alert alert = new javafx.scene.control.Alert(javafx.scene.control.Alert.AlertType.INFORMATION);
+            alert.setTitle("Latência das Teclas");
+            alert.setHeaderText("Da tecla premida até chegar ao jogo");
+            alert.setContentText(gameEngine.getInputLatency().toString());
+            alert.showAndWait();
+            gamePanel.requestFocus();
+        });
+
+        modoAutomatico.setOnAction(e -> {
+            // O bot joga sozinho até ao fim de jogo; "Restart" volta ao jogo normal
+            gameEngine.startAutoPlay();
+            gamePanel.requestFocus();
+        });
+
+        desempenhoBot.setOnAction(e -> {
+            javafx.scene.control.Alert alert = new javafx.scene.control.Alert(javafx.scene.control.Alert.AlertType.INFORMATION);
+            alert.setTitle("Desempenho do Bot");
+            alert.setHeaderText("Tabuleiros avaliados pela pesquisa do modo automático");
+            alert.setContentText(gameEngine.getBot().toString());
+            alert.showAndWait();
+            gamePanel.requestFocus();
+        });
 
         // Top bar: título centralizado + botão de alternância de tema (direita)
         HBox topBar = new HBox();
@@ -241,17 +362,34 @@ public class MainApp extends Application {
             // 2. CONSOME O EVENTO para que o JavaFX não mude o foco
             event.consume();
         });
+        // As teclas seguras repetem-se no relógio do jogo até serem soltas
+        scene.setOnKeyReleased(event -> {
+            gameEngine.handleKeyRelease(event.getCode());
+            event.consume();
+        });
 
         // 4. Configurar e exibir a janela principal
         primaryStage.setTitle("TetrisFX");
         primaryStage.setScene(scene);
         primaryStage.setResizable(false);
+        // Guarda a partida em curso para o "Continuar Partida" da próxima vez
+        primaryStage.setOnCloseRequest(e -> gameEngine.shutdown());
+        // Sem foco a janela não recebe as teclas soltas: não deixa nenhuma presa
+        primaryStage.focusedProperty().addListener((obs, antes, agora) -> {
+            if (!agora) {
+                gameEngine.releaseAllKeys();
+            }
+        });
 
         gamePanel.requestFocus();
         primaryStage.show();
 
-        // 5. Iniciar o jogo
-        gameEngine.start();
+        // 5. Iniciar o jogo (ou retomar a partida guardada, em pausa)
+        if (partidaGuardada != null) {
+            gameEngine.continueSavedGame(partidaGuardada);
+        } else {
+            gameEngine.start();
+        }
     }
 
     public static void main(String[] args) {
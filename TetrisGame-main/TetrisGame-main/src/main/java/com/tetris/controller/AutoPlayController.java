@@ -0,0 +1,54 @@
+package com.tetris.controller;
+
+import com.tetris.core.GameCore;
+import com.tetris.core.bot.Bot;
+import com.tetris.core.bot.BotPlayer;
+import com.tetris.core.random.RandomizerType;
+
+/**
+ * Partida jogada pelo bot, do princípio ao fim de jogo: um {@link BotPlayer} ocupa o lugar das
+ * teclas, e a cada peça o {@link Bot} pesquisa em paralelo as posições da peça atual e da
+ * seguinte e envia o caminho escolhido ao núcleo. A partida não é registada nem guardada.
+ */
+class AutoPlayController implements GameMode {
+
+    // Um comando do bot a cada 50 ms, para se ver a peça a mexer
+    private static final int TICKS_PER_MOVE = GameCore.TICKS_PER_SECOND / 20;
+
+    private final RandomizerType randomizerType;
+    // Pesquisa com um trabalhador por núcleo, partilhada por todas as partidas do bot
+    private final Bot bot = new Bot();
+    // Só existe (e só é assinante do núcleo) enquanto o modo está ativo
+    private BotPlayer player;
+
+    AutoPlayController(RandomizerType randomizerType) {
+        this.randomizerType = randomizerType;
+    }
+
+    @Override
+    public void begin(GameCore core) {
+        player = new BotPlayer(bot, TICKS_PER_MOVE);
+        core.addTickListener(player);
+        core.setRandomizerType(randomizerType);
+        core.start();
+    }
+
+    @Override
+    public void end(GameCore core) {
+        core.removeTickListener(player);
+        player = null;
+    }
+
+    @Override
+    public boolean usesKeyboard() {
+        return false;
+    }
+
+    @Override
+    public void step(GameCore core, KeyboardController keyboard) {
+        player.step(core);
+    }
+
+    /** @return A pesquisa do bot, com a vazão (tabuleiros por segundo) desde o arranque. */
+    Bot getBot() { return bot; }
+}
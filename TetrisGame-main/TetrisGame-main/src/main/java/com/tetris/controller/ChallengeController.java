@@ -0,0 +1,55 @@
+package com.tetris.controller;
+
+import java.time.LocalDate;
+
+import com.tetris.core.GameCore;
+import com.tetris.core.replay.DailyChallenge;
+import com.tetris.core.replay.Replay;
+import com.tetris.core.replay.ReplayRecorder;
+import com.tetris.model.ChallengeClient;
+
+/**
+ * Partida do desafio diário: a mesma sequência de peças para todos os jogadores no mesmo dia.
+ * No fim de jogo a gravação é enviada ao servidor ({@link ChallengeClient}), que a simula de
+ * novo e só regista a pontuação se ela se reproduzir. Não é guardada na pausa.
+ */
+class ChallengeController implements GameMode {
+
+    private final LocalDate day;
+    private final ReplayRecorder recorder;
+    private final PersistenceController persistence;
+
+    ChallengeController(LocalDate day, ReplayRecorder recorder, PersistenceController persistence) {
+        this.day = day;
+        this.recorder = recorder;
+        this.persistence = persistence;
+    }
+
+    @Override
+    public void begin(GameCore core) {
+        core.setRandomizerType(DailyChallenge.RANDOMIZER);
+        core.start(DailyChallenge.seedFor(day));
+    }
+
+    @Override
+    public void gameOver(int score, String player) {
+        Replay replay = recorder.isRecording() ? recorder.toReplay() : null;
+        persistence.execute(() -> registrarDesafio(player, score, replay));
+    }
+
+    /** Envia a partida do desafio ao servidor, que a verifica e regista; aqui só se mostra a resposta. */
+    private void registrarDesafio(String nome, int scoreFinal, Replay replay) {
+        if (replay == null) {
+            System.err.println("Partida do desafio sem gravação: pontuação não enviada");
+            return;
+        }
+        try {
+            org.json.JSONObject resposta = ChallengeClient.submit(nome, day, scoreFinal, replay);
+            if (!resposta.optBoolean("registada")) {
+                System.err.println("Pontuação do desafio não registada pelo servidor: " + resposta);
+            }
+        } catch (java.io.IOException ex) {
+            System.err.println("Falha ao enviar a partida do desafio: " + ex.getMessage());
+        }
+    }
+}
@@ -1,9 +1,28 @@
 package com.tetris.controller;
 
-import com.tetris.model.Board;
-import com.tetris.model.GameState;
-import com.tetris.model.tetromino.Tetromino;
-import com.tetris.model.tetromino.TetrominoFactory;
+import java.util.List;
+import java.util.Queue;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.atomic.AtomicReference;
+import java.util.concurrent.locks.LockSupport;
+
+import com.tetris.core.Board;
+import com.tetris.core.GameCore;
+import com.tetris.core.BatchingTickListener;
+import com.tetris.core.GameSnapshot;
+import com.tetris.core.GameState;
+import com.tetris.core.Input;
+import com.tetris.core.InputHandler;
+import com.tetris.core.LatencyHistogram;
+import com.tetris.core.TickListener;
+import com.tetris.core.TickResult;
+import com.tetris.core.bot.Bot;
+import com.tetris.core.random.RandomizerType;
+import com.tetris.core.replay.DailyChallenge;
+import com.tetris.core.replay.Replay;
+import com.tetris.core.replay.ReplayRecorder;
+import com.tetris.model.SavedGame;
 
 import javafx.animation.AnimationTimer;
 import javafx.beans.property.IntegerProperty;
@@ -14,203 +33,449 @@ import javafx.scene.input.KeyCode;
 
 /**
  * Motor do Jogo (GameEngine).
- * Classe central que coordena toda a lógica, o estado e o loop principal do jogo.
- * Conecta o modelo (Board, Tetromino) com a visão (GamePanel, InfoPanel).
+ * Adaptador JavaFX sobre o {@link GameCore}: traduz teclas em comandos e expõe o estado
+ * do núcleo como propriedades observáveis para a visão (GamePanel, InfoPanel), além de tocar os sons.
+ *
+ * A simulação corre numa thread própria, em passos fixos ({@link GameCore#TICKS_PER_SECOND})
+ * agendados pelo relógio do sistema e recuperados se a thread atrasar. Depois de cada passo
+ * o estado é publicado como um {@link GameSnapshot} imutável numa referência atómica; a
+ * interface só lê a fotografia mais recente, por isso um ecrã lento não atrasa a gravidade
+ * nem os comandos, e a simulação nunca espera pela renderização. As teclas chegam à
+ * simulação pelo {@link KeyboardController}; uma tecla nova acorda a simulação e atua logo.
+ * As mudanças de estado (início, pausa) chegam por uma fila sem bloqueio, executada entre passos.
+ *
+ * Os acontecimentos do núcleo chegam à interface agrupados: um {@link BatchingTickListener}
+ * junta os resumos de todos os passos de um quadro, e a cada pulso a UI recebe um só
+ * {@link TickResult} (sons do {@link SoundController}, animações e os assinantes de
+ * {@link #addUiListener(TickListener)}).
+ *
+ * Cada partida é gravada por um {@link ReplayRecorder}. O resto depende do modo de jogo
+ * ({@link GameMode}), que o motor troca entre passos: a partida normal ({@link NormalGameController}),
+ * guardada na pausa e ao sair ({@link SavedGameController}) e enviada ao servidor no fim de
+ * jogo ({@link PersistenceController}); o desafio diário ({@link ChallengeController}); o treino com
+ * recuos ({@link PracticeController}); o bot ({@link AutoPlayController}); e a reprodução de uma
+ * gravação ({@link ReplayController}). O motor só liga o modo ativo ao núcleo, à thread da
+ * simulação e à interface.
  */
 public class GameEngine {
 
-    private final Board board;
-    private Tetromino currentPiece;
-    private Tetromino nextPiece;
+    private static final long NANOS_PER_SECOND = 1_000_000_000L;
+    // Atraso máximo recuperado de uma vez (após suspensão ou thread parada muito tempo)
+    private static final long MAX_CATCH_UP_NANOS = 250_000_000L;
+    // Salto das setas durante uma reprodução: cinco segundos de jogo
+    private static final long REPLAY_SEEK_TICKS = 5L * GameCore.TICKS_PER_SECOND;
+
+    private final GameCore core;
 
     // Propriedades JavaFX para notificar a UI sobre mudanças (Padrão Observer)
     private final IntegerProperty score = new SimpleIntegerProperty(0);
     private final IntegerProperty level = new SimpleIntegerProperty(1);
     private final IntegerProperty linesCleared = new SimpleIntegerProperty(0);
     private final ObjectProperty<GameState> gameState = new SimpleObjectProperty<>(GameState.PLAYING);
-    private final ObjectProperty<Tetromino> nextPieceProperty = new SimpleObjectProperty<>();
+    // Fotografia em que a próxima peça mudou (para a pré-visualização)
+    private final ObjectProperty<GameSnapshot> nextPieceProperty = new SimpleObjectProperty<>();
+
+    // Última fotografia publicada pela simulação
+    private final AtomicReference<GameSnapshot> snapshot = new AtomicReference<>();
+    private final KeyboardController keyboard = new KeyboardController();
+    // Mudanças de estado pedidas pela UI, executadas pela thread da simulação
+    private final Queue<Runnable> commands = new ConcurrentLinkedQueue<>();
+    // Registo das partidas na base de dados, fora das threads do jogo e da UI
+    private final PersistenceController persistence = new PersistenceController();
+    private final SavedGameController savedGames = new SavedGameController(persistence);
+
+    // Acontecimentos acumulados pela simulação até o próximo pulso da UI
+    private final BatchingTickListener uiEvents = new BatchingTickListener();
+    // Lote do quadro atual, reaproveitado a cada pulso
+    private final TickResult frameEvents = new TickResult();
+    private final List<TickListener> uiListeners = new CopyOnWriteArrayList<>();
+    private final ReplayRecorder recorder;
+    // Os modos que guardam memória entre partidas: o histórico do treino e a pesquisa do bot
+    private final PracticeController practice;
+    private final AutoPlayController autoPlay;
+
+    private final Thread simulationThread;
+    private final AnimationTimer uiSync;
+    private GameSnapshot lastSynced;
+    private final SoundController sounds = new SoundController();
 
-    private final AnimationTimer gameLoop;
-    private long lastDropTime;
+    // Estado do relógio, usado só pela thread da simulação: o passo k está agendado
+    // para clockOrigin + k * NANOS_PER_SECOND / TICKS_PER_SECOND (sem acumular arredondamentos)
+    private long clockOrigin;
+    private long ticksSinceOrigin;
+    // Sorteio das partidas normais, de treino e do bot
+    private final RandomizerType randomizerType;
+    // Modo da partida em curso (só a thread da simulação lê e escreve)
+    private GameMode mode;
+    // O último modo pedido pela UI, que ela lê para saber o que fazem as teclas
+    private volatile GameMode selectedMode;
+    // Lido pela barra de reprodução, que mostra a duração
+    private volatile long replayEndTick;
 
-    private String nomeJogador = "Jogador";
+    // Escrito pela UI e lido pela simulação no fim da partida
+    private volatile String nomeJogador = "Jogador";
 
     public GameEngine() {
-        this.board = new Board();
-        this.gameLoop = createGameLoop();
+        this(Board.DEFAULT_WIDTH, Board.DEFAULT_HEIGHT);
+    }
+
+    /** Cria o motor com um tabuleiro de dimensões próprias; o GamePanel ajusta-se a elas. */
+    public GameEngine(int boardWidth, int boardHeight) {
+        this.core = new GameCore(boardWidth, boardHeight);
+        this.randomizerType = core.getRandomizerType();
+        this.core.addTickListener(uiEvents);
+        this.recorder = new ReplayRecorder(core);
+        this.core.addTickListener(recorder);
+        this.practice = new PracticeController(core, randomizerType);
+        this.autoPlay = new AutoPlayController(randomizerType);
+        this.mode = normalGame(null);
+        this.selectedMode = mode;
+        // O registo da partida não pode esperar pela UI: é pedido na própria thread da simulação
+        this.core.addTickListener(result -> {
+            if (result.has(TickResult.GAME_OVER)) {
+                mode.gameOver(result.getScore(), nomeJogador);
+            }
+        });
+        snapshot.set(core.snapshot(null, System.nanoTime()));
+        this.simulationThread = new Thread(this::runSimulation, "tetris-simulation");
+        this.simulationThread.setDaemon(true);
+        this.uiSync = createUiSync();
+    }
+
+    private void runSimulation() {
+        while (!Thread.currentThread().isInterrupted()) {
+            boolean changed = runCommands();
+            long now = System.nanoTime();
+            if (core.getState() != GameState.PLAYING) {
+                if (changed) {
+                    publish(now);
+                }
+                // Parado até chegar um comando (ver submit)
+                LockSupport.park(this);
+                continue;
+            }
+            if (now - scheduledTime(ticksSinceOrigin) > MAX_CATCH_UP_NANOS) {
+                resetClock(now);
+            }
+            if (mode.usesKeyboard() && keyboard.applyPressed(core)) {
+                changed = true;
+            }
+            while (core.getState() == GameState.PLAYING && now - scheduledTime(ticksSinceOrigin) >= 0) {
+                mode.step(core, keyboard);
+                ticksSinceOrigin++;
+                changed = true;
+            }
+            if (changed) {
+                publish(scheduledTime(ticksSinceOrigin - 1));
+            }
+            LockSupport.parkNanos(this, scheduledTime(ticksSinceOrigin) - System.nanoTime());
+        }
+    }
+
+    private boolean runCommands() {
+        boolean ran = false;
+        Runnable command;
+        while ((command = commands.poll()) != null) {
+            command.run();
+            ran = true;
+        }
+        return ran;
     }
 
-    private AnimationTimer createGameLoop() {
+    private long scheduledTime(long tick) {
+        return clockOrigin + tick * NANOS_PER_SECOND / GameCore.TICKS_PER_SECOND;
+    }
+
+    private void resetClock(long now) {
+        clockOrigin = now;
+        ticksSinceOrigin = 0;
+    }
+
+    private void publish(long timestamp) {
+        snapshot.set(core.snapshot(snapshot.get(), timestamp));
+    }
+
+    /** Entrega uma mudança de estado à thread da simulação e acorda-a se estiver parada. */
+    private void submit(Runnable command) {
+        commands.add(command);
+        LockSupport.unpark(simulationThread);
+    }
+
+    /**
+     * A cada pulso da UI, entrega o lote de acontecimentos do quadro e passa a fotografia
+     * mais recente para as propriedades observáveis.
+     */
+    private AnimationTimer createUiSync() {
         return new AnimationTimer() {
             @Override
             public void handle(long now) {
-                if (gameState.get() == GameState.PLAYING) {
-                    if (now - lastDropTime >= getDropInterval()) {
-                        moveDown();
-                        lastDropTime = now;
+                if (uiEvents.drainTo(frameEvents)) {
+                    sounds.play(frameEvents);
+                    for (TickListener uiListener : uiListeners) {
+                        uiListener.onTick(frameEvents);
                     }
                 }
+                GameSnapshot current = snapshot.get();
+                if (current == lastSynced) {
+                    return;
+                }
+                if (lastSynced == null || current.getNextShape() != lastSynced.getNextShape()) {
+                    nextPieceProperty.set(current);
+                }
+                linesCleared.set(current.getLinesCleared());
+                score.set(current.getScore());
+                level.set(current.getLevel());
+                gameState.set(current.getState());
+                lastSynced = current;
             }
         };
     }
 
     public void start() {
-        board.clear();
-        score.set(0);
-        level.set(1);
-        linesCleared.set(0);
-        currentPiece = TetrominoFactory.getRandomTetromino();
-        nextPiece = TetrominoFactory.getRandomTetromino();
-        nextPieceProperty.set(nextPiece);
-        gameState.set(GameState.PLAYING);
-        lastDropTime = System.nanoTime();
-        gameLoop.start();
+        switchTo(normalGame(null));
     }
 
+    /**
+     * Retoma uma partida guardada, em pausa no ponto em que foi guardada, em nome do jogador
+     * que a jogava. Se ela não servir para este tabuleiro, começa uma partida nova.
+     */
+    public void continueSavedGame(SavedGame game) {
+        nomeJogador = game.getPlayer();
+        switchTo(normalGame(game));
+    }
 
-    public void handleKeyPress(KeyCode code) {
-        if (gameState.get() != GameState.PLAYING) {
-            return;
-        }
-        switch (code) {
-            case LEFT:  moveLeft(); break;
-            case RIGHT: moveRight(); break;
-            case DOWN:  moveDown(); com.tetris.sound.SoundManager.getInstance().playSoftDrop(); break;
-            case UP:    rotate(); break;
-            case SPACE: hardDrop(); break;
-        }
+    /**
+     * Começa uma partida de treino: {@link #undoPiece()} (tecla Backspace) desfaz a última peça e
+     * {@link #rewindPractice()} (tecla R) recua dois segundos, também depois do fim de jogo.
+     * A pontuação não é registada.
+     */
+    public void startPractice() {
+        switchTo(practice);
     }
 
-    public void togglePause() {
-        if (gameState.get() == GameState.PLAYING) {
-            gameState.set(GameState.PAUSED);
-            gameLoop.stop();
-            com.tetris.sound.SoundManager.getInstance().playPause();
-        } else if (gameState.get() == GameState.PAUSED) {
-            gameState.set(GameState.PLAYING);
-            lastDropTime = System.nanoTime();
-            gameLoop.start();
-            com.tetris.sound.SoundManager.getInstance().playPause();
-        }
+    /**
+     * Começa uma partida jogada pelo bot, do princípio ao fim de jogo; o teclado é ignorado.
+     * A pontuação não é registada e a partida não é guardada. O desempenho da pesquisa fica em {@link #getBot()}.
+     */
+    public void startAutoPlay() {
+        switchTo(autoPlay);
     }
 
-    private void move(int dx, int dy) {
-        currentPiece.setX(currentPiece.getX() + dx);
-        currentPiece.setY(currentPiece.getY() + dy);
-        if (!board.isValidPosition(currentPiece)) {
-            // Reverte o movimento se for inválido
-            currentPiece.setX(currentPiece.getX() - dx);
-            currentPiece.setY(currentPiece.getY() - dy);
-            // Se o movimento inválido foi para baixo, a peça travou
-            if (dy > 0) {
-                lockPiece();
+    /** No modo de treino, desfaz a última peça fixada (volta ao momento em que ela entrou). */
+    public void undoPiece() {
+        submit(() -> {
+            if (mode == practice && practice.undoPiece(core)) {
+                keyboard.reset();
+                resetClock(System.nanoTime());
             }
-        }
+        });
     }
 
-    private void moveLeft() { move(-1, 0); }
-    private void moveRight() { move(1, 0); }
-    private void moveDown() { move(0, 1); }
+    /** No modo de treino, recua dois segundos de jogo. */
+    public void rewindPractice() {
+        submit(() -> {
+            if (mode == practice && practice.rewind(core)) {
+                keyboard.reset();
+                resetClock(System.nanoTime());
+            }
+        });
+    }
 
-    private void hardDrop() {
-        while (board.isValidPosition(currentPiece)) {
-            currentPiece.setY(currentPiece.getY() + 1);
-        }
-        currentPiece.setY(currentPiece.getY() - 1); // Volta uma posição
-        // reproduce som de hard drop e tranca a peça
-        com.tetris.sound.SoundManager.getInstance().playHardDrop();
-        lockPiece();
-    }
-
-    private void rotate() {
-        currentPiece.rotate();
-        // som de rotação
-        com.tetris.sound.SoundManager.getInstance().playRotate();
-        if (!board.isValidPosition(currentPiece)) {
-            // Tenta "chutar" a peça para uma posição válida (wall kick simplificado)
-            move(1, 0); if (board.isValidPosition(currentPiece)) return; move(-2, 0);
-            if (board.isValidPosition(currentPiece)) return; move(1, 0);
-
-            // Se não for possível, reverte a rotação
-            currentPiece.rotate(); currentPiece.rotate(); currentPiece.rotate();
+    /**
+     * Começa a partida do desafio diário: a mesma sequência de peças para todos os jogadores
+     * no mesmo dia. A pontuação é verificada antes de ser registada.
+     * @throws IllegalStateException Se o tabuleiro do motor não tem as dimensões padrão.
+     */
+    public void startDailyChallenge() {
+        if (core.getBoard().getWidth() != Board.DEFAULT_WIDTH || core.getBoard().getHeight() != Board.DEFAULT_HEIGHT) {
+            throw new IllegalStateException("O desafio diário usa o tabuleiro padrão");
         }
+        switchTo(new ChallengeController(DailyChallenge.today(), recorder, persistence));
     }
 
-    private void lockPiece() {
-        board.placePiece(currentPiece);
-        // som de encaixe
-        com.tetris.sound.SoundManager.getInstance().playLock();
-        int cleared = board.clearLines();
-        if (cleared > 0) {
-            updateScore(cleared);
-            // som de clear baseado em quantas linhas
-            com.tetris.sound.SoundManager.getInstance().playClear(cleared);
-        }
-        spawnNewPiece();
-    }
-
-    private void spawnNewPiece() {
-        currentPiece = nextPiece;
-        nextPiece = TetrominoFactory.getRandomTetromino();
-        nextPieceProperty.set(nextPiece);
-
-        if (!board.isValidPosition(currentPiece)) {
-            gameState.set(GameState.GAME_OVER);
-            gameLoop.stop();
-            com.tetris.sound.SoundManager.getInstance().playGameOver();
-
-            // Registro automático da partida no banco
-            try {
-                int scoreFinal = score.get();
-                com.tetris.model.dao.SqlServerPlayerDAO playerDAO = new com.tetris.model.dao.SqlServerPlayerDAO();
-                playerDAO.addPlayer(new com.tetris.model.Player(nomeJogador, scoreFinal));
-            } catch (Exception ex) {
-                System.err.println("Falha ao registrar partida: " + ex.getMessage());
+    /**
+     * Reproduz uma partida gravada no ecrã, ao ritmo normal do jogo. Até ao próximo
+     * {@link #start()} as setas esquerda e direita recuam e avançam cinco segundos (ver
+     * {@link #seekReplay(long)}), as outras teclas são ignoradas e a partida reproduzida não é registada.
+     * @throws IllegalArgumentException Se a gravação foi feita num tabuleiro de outras dimensões.
+     */
+    public void startReplay(Replay replay) {
+        ReplayController controller = new ReplayController(replay, core.getBoard().getWidth(), core.getBoard().getHeight());
+        replayEndTick = controller.getEndTick();
+        switchTo(controller);
+    }
+
+    /**
+     * Salta a reprodução em curso para o passo {@code tick} (para a frente ou para trás), a
+     * partir da keyframe mais próxima. Os passos saltados não tocam sons; se a reprodução
+     * estava em pausa, continua em pausa no novo ponto.
+     */
+    public void seekReplay(long tick) {
+        submit(() -> {
+            if (!(mode instanceof ReplayController)) {
+                return;
             }
+            core.removeTickListener(uiEvents);
+            ((ReplayController) mode).seek(core, tick);
+            core.addTickListener(uiEvents);
+            resetClock(System.nanoTime());
+        });
+    }
+
+    private GameMode normalGame(SavedGame resume) {
+        return new NormalGameController(randomizerType, recorder, savedGames, persistence, resume);
+    }
+
+    /** Na thread da simulação, troca o modo ativo por {@code next} e começa a partida dele. */
+    private void switchTo(GameMode next) {
+        selectedMode = next;
+        submit(() -> {
+            mode.end(core);
+            mode = next;
+            next.begin(core);
+            keyboard.reset();
+            resetClock(System.nanoTime());
+        });
+        startThreads();
+    }
+
+    private void startThreads() {
+        if (simulationThread.getState() == Thread.State.NEW) {
+            simulationThread.start();
+            uiSync.start();
         }
     }
 
-    private void updateScore(int cleared) {
-        linesCleared.set(linesCleared.get() + cleared);
-        int points;
-        switch (cleared) {
-            case 1: points = 40; break;
-            case 2: points = 100; break;
-            case 3: points = 300; break;
-            case 4: points = 1200; break;
-            default: points = 0;
+    public void handleKeyPress(KeyCode code) {
+        GameMode selected = selectedMode;
+        if (selected instanceof ReplayController) {
+            if (code == KeyCode.LEFT) {
+                seekReplay(snapshot.get().getTick() - REPLAY_SEEK_TICKS);
+            } else if (code == KeyCode.RIGHT) {
+                seekReplay(snapshot.get().getTick() + REPLAY_SEEK_TICKS);
+            }
+            return;
+        }
+        if (!selected.usesKeyboard()) {
+            // O bot joga sozinho; o botão de pausa continua a funcionar
+            return;
+        }
+        // Só fazem algo no modo de treino; funcionam também em pausa e depois do fim de jogo
+        if (code == KeyCode.BACK_SPACE) {
+            undoPiece();
+            return;
+        }
+        if (code == KeyCode.R) {
+            rewindPractice();
+            return;
+        }
+        int key = keyboard.press(code, snapshot.get().getState() == GameState.PLAYING);
+        if (key != Input.NONE) {
+            sounds.keyPressed(key);
+            // Atua já, sem esperar pelo próximo passo
+            LockSupport.unpark(simulationThread);
         }
-        score.set(score.get() + points * level.get());
-        updateLevel();
     }
 
-    private void updateLevel() {
-        level.set((linesCleared.get() / 10) + 1);
+    /** A tecla deixou de estar premida: as suas repetições param no próximo passo. */
+    public void handleKeyRelease(KeyCode code) {
+        keyboard.release(code);
     }
 
-    private long getDropInterval() {
-        int currentLevel = level.get();
-        double seconds;
-        if (currentLevel <= 3) {
-            seconds = 1.0;
-        } else if (currentLevel <= 6) {
-            seconds = 0.7;
+    /** Dá todas as teclas por soltas (a janela perdeu o foco e não vai receber as teclas soltas). */
+    public void releaseAllKeys() {
+        keyboard.releaseAll();
+    }
+
+    /**
+     * Muda o DAS e o ARR (em milissegundos) e o fator da queda suave; vale a partir do próximo passo.
+     * @throws IllegalArgumentException Se algum valor for inválido (ver {@link InputHandler}).
+     */
+    public void setInputTiming(int dasMillis, int arrMillis, int softDropFactor) {
+        InputHandler handler = InputHandler.ofMillis(dasMillis, arrMillis, softDropFactor);
+        submit(() -> keyboard.setTiming(handler));
+    }
+
+    /** @return Os tempos das teclas em uso (DAS e ARR em passos de {@link GameCore#TICKS_PER_SECOND}). */
+    public InputHandler getInputTiming() { return keyboard.getTiming(); }
+
+    /**
+     * @return O histograma do tempo entre cada tecla premida e a sua aplicação ao jogo,
+     *         desde o arranque; pode ser lido a qualquer momento.
+     */
+    public LatencyHistogram getInputLatency() { return keyboard.getLatency(); }
+
+    /** @return A pesquisa do modo automático, com a vazão (tabuleiros por segundo) desde o arranque. */
+    public Bot getBot() { return autoPlay.getBot(); }
+
+    public void togglePause() {
+        submit(() -> {
+            if (core.getState() == GameState.PLAYING) {
+                core.pause();
+                mode.paused(core, nomeJogador);
+            } else if (core.getState() == GameState.PAUSED) {
+                core.resume();
+                keyboard.reset();
+                resetClock(System.nanoTime());
+            }
+        });
+    }
+
+    /**
+     * Põe a partida em pausa, guarda-a e espera que o registo em disco termine. Chamado ao
+     * fechar a janela.
+     */
+    public void shutdown() {
+        if (simulationThread.getState() != Thread.State.NEW) {
+            submit(() -> {
+                if (core.getState() == GameState.PLAYING) {
+                    core.pause();
+                }
+                if (core.getState() == GameState.PAUSED) {
+                    mode.paused(core, nomeJogador);
+                }
+                // Só depois de o pedido de gravação estar na fila
+                persistence.shutdown();
+            });
         } else {
-            seconds = 0.4;
+            persistence.shutdown();
         }
-        return (long) (seconds * 1_000_000_000L); // em nanossegundos
+        persistence.awaitTermination();
+    }
+
+    /**
+     * Deslocamento vertical (em linhas, de 0 a 1) com que a peça da fotografia deve ser
+     * desenhada no instante {@code now}, interpolando entre o passo fotografado e o seguinte.
+     */
+    public double getRenderOffsetY(GameSnapshot frame, long now) {
+        double alpha = (double) (now - frame.getTimestamp()) * GameCore.TICKS_PER_SECOND / NANOS_PER_SECOND;
+        return frame.fallOffset(Math.max(0, Math.min(alpha, 1.0)));
     }
 
+    /**
+     * Regista um assinante que recebe, na thread da UI, um único resumo por quadro com tudo
+     * o que aconteceu na simulação desde o quadro anterior.
+     */
+    public void addUiListener(TickListener listener) {
+        uiListeners.add(listener);
+    }
+
+    /** @return A fotografia mais recente publicada pela simulação (nunca null). */
+    public GameSnapshot getSnapshot() { return snapshot.get(); }
+
     // Getters para as propriedades, para a UI poder observá-las
-    public Board getBoard() { return board; }
-    public Tetromino getCurrentPiece() { return currentPiece; }
     public IntegerProperty scoreProperty() { return score; }
     public IntegerProperty levelProperty() { return level; }
     public IntegerProperty linesClearedProperty() { return linesCleared; }
     public ObjectProperty<GameState> gameStateProperty() { return gameState; }
-    public ObjectProperty<Tetromino> nextPieceProperty() { return nextPieceProperty; }
+    public ObjectProperty<GameSnapshot> nextPieceProperty() { return nextPieceProperty; }
+
+    /** @return true enquanto uma partida gravada está a ser reproduzida. */
+    public boolean isReplaying() { return selectedMode instanceof ReplayController; }
+    /** @return O último passo da reprodução em curso (ou da última reproduzida). */
+    public long getReplayEndTick() { return replayEndTick; }
 
     public void setNomeJogador(String nome) {
         this.nomeJogador = nome;
     }
-}
\ No newline at end of file
+}
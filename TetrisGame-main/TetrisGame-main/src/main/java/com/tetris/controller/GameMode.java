@@ -0,0 +1,33 @@
+package com.tetris.controller;
+
+import com.tetris.core.GameCore;
+
+/**
+ * Um modo de jogo do {@link GameEngine}: como começa a partida, quem comanda a peça a cada passo
+ * e o que acontece à partida na pausa e no fim de jogo. O motor tem um modo ativo de cada vez e
+ * chama estes métodos só na thread da simulação.
+ */
+interface GameMode {
+
+    /** Prepara {@code core} e começa a partida do modo. */
+    void begin(GameCore core);
+
+    /** O modo deixa de estar ativo: larga o que tinha registado no núcleo. */
+    default void end(GameCore core) {}
+
+    /** @return true se o teclado comanda a peça (as teclas premidas são aplicadas logo). */
+    default boolean usesKeyboard() {
+        return true;
+    }
+
+    /** Executa um passo da simulação; por omissão com as teclas seguras do jogador. */
+    default void step(GameCore core, KeyboardController keyboard) {
+        keyboard.step(core);
+    }
+
+    /** A partida ficou em pausa (ou a aplicação vai fechar com ela em pausa). */
+    default void paused(GameCore core, String player) {}
+
+    /** A partida acabou com {@code score} pontos. */
+    default void gameOver(int score, String player) {}
+}
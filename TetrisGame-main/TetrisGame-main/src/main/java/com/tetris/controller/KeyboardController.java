@@ -0,0 +1,133 @@
+package com.tetris.controller;
+
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+
+import com.tetris.core.GameCore;
+import com.tetris.core.Input;
+import com.tetris.core.InputHandler;
+import com.tetris.core.LatencyHistogram;
+
+import javafx.scene.input.KeyCode;
+
+/**
+ * Teclas do jogador, da thread da UI para a da simulação, por dois inteiros atómicos (as
+ * acabadas de premir e as premidas neste momento): uma tecla nova atua logo que a simulação a
+ * vê, e as teclas seguras repetem-se no relógio da simulação com o DAS, o ARR e a queda suave
+ * do {@link InputHandler}, não com a repetição do sistema operativo. O tempo entre a tecla e a
+ * sua aplicação fica em {@link #getLatency()}.
+ */
+class KeyboardController {
+
+    // Teclas (bits de Input) premidas desde a última vez que a simulação as viu, e as
+    // premidas neste momento; escritas pela UI
+    private final AtomicInteger pressedKeys = new AtomicInteger();
+    private final AtomicInteger heldKeys = new AtomicInteger();
+    // Instante (System.nanoTime) da tecla mais antiga ainda por aplicar, 0 se não há nenhuma
+    private final AtomicLong pressTime = new AtomicLong();
+    private final LatencyHistogram latency = new LatencyHistogram();
+    // Substituído por setTiming na thread da simulação; lido pela UI só para mostrar os tempos
+    private volatile InputHandler inputHandler = InputHandler.ofMillis(InputHandler.DEFAULT_DAS_MILLIS,
+            InputHandler.DEFAULT_ARR_MILLIS, InputHandler.DEFAULT_SOFT_DROP_FACTOR);
+
+    /**
+     * Na UI: a tecla {@code code} foi premida. Só é entregue à simulação durante o jogo
+     * ({@code playing}), mas conta sempre como segura.
+     * @return O comando (bits de {@link Input}) entregue à simulação, ou {@link Input#NONE} se a
+     *         tecla não tem função, é uma repetição do sistema operativo ou o jogo não está a correr.
+     */
+    int press(KeyCode code, boolean playing) {
+        int key = keyInput(code);
+        if (key == Input.NONE || (heldKeys.get() & key) != 0) {
+            return Input.NONE;
+        }
+        long now = System.nanoTime();
+        setBits(heldKeys, key);
+        if (!playing) {
+            return Input.NONE;
+        }
+        pressTime.compareAndSet(0, now);
+        setBits(pressedKeys, key);
+        return key;
+    }
+
+    /** Na UI: a tecla deixou de estar premida; as suas repetições param no próximo passo. */
+    void release(KeyCode code) {
+        int key = keyInput(code);
+        if (key != Input.NONE) {
+            clearBits(heldKeys, key);
+        }
+    }
+
+    /** Dá todas as teclas por soltas. */
+    void releaseAll() {
+        heldKeys.set(Input.NONE);
+    }
+
+    /**
+     * Na simulação: aplica já as teclas acabadas de premir, sem esperar pelo próximo passo, e
+     * mede a latência.
+     * @return false se não havia nenhuma.
+     */
+    boolean applyPressed(GameCore core) {
+        int pressed = pressedKeys.getAndSet(Input.NONE);
+        if (pressed == Input.NONE) {
+            return false;
+        }
+        inputHandler.press(core, pressed, heldKeys.get());
+        long pressedAt = pressTime.getAndSet(0);
+        if (pressedAt != 0) {
+            latency.record(System.nanoTime() - pressedAt);
+        }
+        return true;
+    }
+
+    /** Na simulação: executa um passo com as teclas seguras (repetições e queda suave). */
+    void step(GameCore core) {
+        inputHandler.step(core, heldKeys.get());
+    }
+
+    /** Na simulação: descarta teclas por aplicar e as repetições em curso. */
+    void reset() {
+        pressedKeys.set(Input.NONE);
+        pressTime.set(0);
+        inputHandler.reset();
+    }
+
+    /** Na simulação: passa a usar os tempos de {@code handler} a partir do próximo passo. */
+    void setTiming(InputHandler handler) {
+        inputHandler = handler;
+    }
+
+    InputHandler getTiming() { return inputHandler; }
+
+    LatencyHistogram getLatency() { return latency; }
+
+    private static int keyInput(KeyCode code) {
+        switch (code) {
+            case LEFT:  return Input.LEFT;
+            case RIGHT: return Input.RIGHT;
+            case DOWN:  return Input.SOFT_DROP;
+            case UP:
+            case X:     return Input.ROTATE;
+            case Z:
+            case CONTROL: return Input.ROTATE_CCW;
+            case SPACE: return Input.HARD_DROP;
+            default:    return Input.NONE;
+        }
+    }
+
+    private static void setBits(AtomicInteger target, int bits) {
+        int current;
+        do {
+            current = target.get();
+        } while (!target.compareAndSet(current, current | bits));
+    }
+
+    private static void clearBits(AtomicInteger target, int bits) {
+        int current;
+        do {
+            current = target.get();
+        } while (!target.compareAndSet(current, current & ~bits));
+    }
+}
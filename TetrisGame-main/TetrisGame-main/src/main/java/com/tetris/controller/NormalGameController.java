@@ -0,0 +1,52 @@
+package com.tetris.controller;
+
+import com.tetris.core.GameCore;
+import com.tetris.core.random.RandomizerType;
+import com.tetris.core.replay.Replay;
+import com.tetris.core.replay.ReplayRecorder;
+import com.tetris.model.SavedGame;
+
+/**
+ * Partida normal, jogada com o teclado: guardada sempre que é posta em pausa, e no fim de jogo
+ * arquivada e enviada ao servidor, que verifica a pontuação antes de a registar. Pode começar do
+ * zero ou retomar uma partida guardada.
+ */
+class NormalGameController implements GameMode {
+
+    private final RandomizerType randomizerType;
+    private final ReplayRecorder recorder;
+    private final SavedGameController savedGames;
+    private final PersistenceController persistence;
+    // Partida a retomar em begin (null para começar do zero)
+    private final SavedGame resume;
+
+    NormalGameController(RandomizerType randomizerType, ReplayRecorder recorder,
+                         SavedGameController savedGames, PersistenceController persistence, SavedGame resume) {
+        this.randomizerType = randomizerType;
+        this.recorder = recorder;
+        this.savedGames = savedGames;
+        this.persistence = persistence;
+        this.resume = resume;
+    }
+
+    @Override
+    public void begin(GameCore core) {
+        if (resume == null || !savedGames.restore(resume, core)) {
+            core.setRandomizerType(randomizerType);
+            core.start();
+        }
+    }
+
+    @Override
+    public void paused(GameCore core, String player) {
+        savedGames.save(core, player);
+    }
+
+    @Override
+    public void gameOver(int score, String player) {
+        // Uma partida retomada de um estado guardado já não tem gravação completa
+        Replay replay = recorder.isRecording() ? recorder.toReplay() : null;
+        persistence.registrarPartida(player, score, replay);
+        savedGames.discard();
+    }
+}
@@ -0,0 +1,64 @@
+package com.tetris.controller;
+
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+
+import com.tetris.core.replay.Replay;
+import com.tetris.model.ChallengeClient;
+import com.tetris.model.LocalStorageManager;
+
+/**
+ * Escritas em disco e na base de dados pedidas pelos modos de jogo, numa thread própria para
+ * não atrasarem a simulação nem a UI. As tarefas correm pela ordem em que foram pedidas.
+ */
+class PersistenceController {
+
+    private final ExecutorService executor = Executors.newSingleThreadExecutor(r -> {
+        Thread t = new Thread(r, "tetris-persistence");
+        t.setDaemon(true);
+        return t;
+    });
+
+    /** Corre {@code task} na thread de persistência, depois das tarefas já pedidas. */
+    void execute(Runnable task) {
+        executor.execute(task);
+    }
+
+    /**
+     * Arquiva a gravação da partida e envia-a ao servidor ({@link ChallengeClient}), que a simula
+     * de novo e só regista a pontuação se ela se reproduzir; fora da simulação. Uma partida sem
+     * gravação completa (retomada de uma partida guardada) não pode ser verificada e não é enviada.
+     */
+    void registrarPartida(String nome, int scoreFinal, Replay replay) {
+        executor.execute(() -> {
+            if (replay == null) {
+                System.err.println("Partida sem gravação completa: pontuação não enviada");
+                return;
+            }
+            LocalStorageManager.saveReplay(nome, replay);
+            try {
+                org.json.JSONObject resposta = ChallengeClient.submitGame(nome, scoreFinal, replay);
+                if (!resposta.optBoolean("registada")) {
+                    System.err.println("Pontuação não registada pelo servidor: " + resposta);
+                }
+            } catch (java.io.IOException ex) {
+                System.err.println("Falha ao registrar partida: " + ex.getMessage());
+            }
+        });
+    }
+
+    /** Deixa de aceitar tarefas; as já pedidas ainda correm. */
+    void shutdown() {
+        executor.shutdown();
+    }
+
+    /** Espera (no máximo dois segundos) que as tarefas pedidas antes de {@link #shutdown()} terminem. */
+    void awaitTermination() {
+        try {
+            executor.awaitTermination(2, TimeUnit.SECONDS);
+        } catch (InterruptedException ex) {
+            Thread.currentThread().interrupt();
+        }
+    }
+}
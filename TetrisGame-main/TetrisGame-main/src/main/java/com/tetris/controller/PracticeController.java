@@ -0,0 +1,70 @@
+package com.tetris.controller;
+
+import com.tetris.core.GameCore;
+import com.tetris.core.GameState;
+import com.tetris.core.RewindBuffer;
+import com.tetris.core.random.RandomizerType;
+
+/**
+ * Partida de treino: um {@link RewindBuffer} acompanha a partida e o jogador pode desfazer a
+ * última peça ou recuar alguns segundos, também em pausa e depois do fim de jogo. Estas
+ * partidas não são registadas nem guardadas.
+ */
+class PracticeController implements GameMode {
+
+    // Histórico: 600 estados (cerca de 100 KB num tabuleiro 10x20), que cobrem pelo menos um
+    // minuto de jogo; cada recuo volta dois segundos atrás
+    private static final int HISTORY = 600;
+    private static final long REWIND_TICKS = 2L * GameCore.TICKS_PER_SECOND;
+
+    private final RandomizerType randomizerType;
+    // Só é assinante do núcleo enquanto o treino está ativo
+    private final RewindBuffer rewindBuffer;
+
+    PracticeController(GameCore core, RandomizerType randomizerType) {
+        this.randomizerType = randomizerType;
+        this.rewindBuffer = new RewindBuffer(core, HISTORY, RewindBuffer.DEFAULT_INTERVAL);
+    }
+
+    @Override
+    public void begin(GameCore core) {
+        core.addTickListener(rewindBuffer);
+        core.setRandomizerType(randomizerType);
+        core.start();
+    }
+
+    @Override
+    public void end(GameCore core) {
+        core.removeTickListener(rewindBuffer);
+        rewindBuffer.clear();
+    }
+
+    @Override
+    public void step(GameCore core, KeyboardController keyboard) {
+        keyboard.step(core);
+        rewindBuffer.afterStep();
+    }
+
+    /**
+     * Desfaz a última peça fixada (volta ao momento em que ela entrou); se a partida estava em
+     * pausa, continua em pausa.
+     * @return false se não há nada para desfazer.
+     */
+    boolean undoPiece(GameCore core) {
+        boolean paused = core.getState() == GameState.PAUSED;
+        return afterRestore(core, paused, rewindBuffer.undo(1));
+    }
+
+    /** Recua dois segundos de jogo, mantendo a pausa; false se não há histórico. */
+    boolean rewind(GameCore core) {
+        boolean paused = core.getState() == GameState.PAUSED;
+        return afterRestore(core, paused, rewindBuffer.rewind(REWIND_TICKS));
+    }
+
+    private static boolean afterRestore(GameCore core, boolean paused, boolean restored) {
+        if (restored && paused) {
+            core.pause();
+        }
+        return restored;
+    }
+}
@@ -0,0 +1,58 @@
+package com.tetris.controller;
+
+import com.tetris.core.GameCore;
+import com.tetris.core.GameState;
+import com.tetris.core.replay.Replay;
+import com.tetris.core.replay.ReplayPlayer;
+
+/**
+ * Reprodução de uma partida gravada: a simulação é alimentada pela gravação em vez do teclado,
+ * ao ritmo normal do jogo, e pode saltar para qualquer ponto dela. A partida reproduzida não é
+ * registada nem guardada.
+ */
+class ReplayController implements GameMode {
+
+    private final ReplayPlayer player;
+
+    /** @throws IllegalArgumentException Se a gravação foi feita num tabuleiro de outras dimensões. */
+    ReplayController(Replay replay, int boardWidth, int boardHeight) {
+        if (replay.getBoardWidth() != boardWidth || replay.getBoardHeight() != boardHeight) {
+            throw new IllegalArgumentException("O replay foi gravado num tabuleiro "
+                    + replay.getBoardWidth() + "x" + replay.getBoardHeight());
+        }
+        this.player = new ReplayPlayer(replay);
+    }
+
+    @Override
+    public void begin(GameCore core) {
+        player.start(core);
+    }
+
+    @Override
+    public boolean usesKeyboard() {
+        return false;
+    }
+
+    @Override
+    public void step(GameCore core, KeyboardController keyboard) {
+        if (!player.advance(core)) {
+            // Gravação interrompida antes do fim de jogo: fica parada no último passo
+            core.pause();
+        }
+    }
+
+    /**
+     * Salta para o passo {@code tick} (para a frente ou para trás), a partir da keyframe mais
+     * próxima; se a reprodução estava em pausa, continua em pausa no novo ponto.
+     */
+    void seek(GameCore core, long tick) {
+        boolean paused = core.getState() == GameState.PAUSED;
+        player.seek(core, tick);
+        if (paused) {
+            core.pause();
+        }
+    }
+
+    /** @return O último passo da gravação. */
+    long getEndTick() { return player.getReplay().getEndTick(); }
+}
@@ -0,0 +1,43 @@
+package com.tetris.controller;
+
+import com.tetris.core.GameCore;
+import com.tetris.model.LocalStorageManager;
+import com.tetris.model.SavedGame;
+
+/**
+ * Partida normal guardada para "Continuar Partida": fotografada na thread da simulação
+ * (microssegundos) e escrita ou apagada em disco na thread de persistência.
+ */
+class SavedGameController {
+
+    private final PersistenceController persistence;
+
+    SavedGameController(PersistenceController persistence) {
+        this.persistence = persistence;
+    }
+
+    /** Guarda a partida de {@code core}, em pausa, em nome de {@code player}. */
+    void save(GameCore core, String player) {
+        SavedGame game = SavedGame.capture(player, core);
+        persistence.execute(() -> LocalStorageManager.saveGame(game));
+    }
+
+    /**
+     * Retoma {@code game} em {@code core}, em pausa no ponto em que foi guardada.
+     * @return false se ela não serve para este tabuleiro (e {@code core} ficou como estava).
+     */
+    boolean restore(SavedGame game, GameCore core) {
+        try {
+            game.restore(core);
+            return true;
+        } catch (IllegalArgumentException ex) {
+            System.err.println("Partida guardada ignorada: " + ex.getMessage());
+            return false;
+        }
+    }
+
+    /** A partida acabou: "Continuar Partida" já não tem nada para retomar. */
+    void discard() {
+        persistence.execute(LocalStorageManager::deleteSavedGame);
+    }
+}
@@ -0,0 +1,48 @@
+package com.tetris.controller;
+
+import com.tetris.core.Input;
+import com.tetris.core.TickResult;
+
+/**
+ * Sons dos acontecimentos do jogo, tocados na thread da UI a partir do lote de cada quadro.
+ */
+class SoundController {
+
+    // Som da queda suave só quando a tecla é premida, não a cada linha (só a UI lê e escreve)
+    private boolean softDropSound;
+
+    /** A tecla {@code key} (bits de {@link Input}) acabou de ser entregue à simulação. */
+    void keyPressed(int key) {
+        if (key == Input.SOFT_DROP) {
+            softDropSound = true;
+        }
+    }
+
+    /** Um som por tipo de acontecimento do lote, mesmo que ele se tenha repetido no quadro. */
+    void play(TickResult events) {
+        com.tetris.sound.SoundManager sounds = com.tetris.sound.SoundManager.getInstance();
+        if (events.has(TickResult.ROTATE)) {
+            sounds.playRotate();
+        }
+        if (events.has(TickResult.SOFT_DROP) && softDropSound) {
+            softDropSound = false;
+            sounds.playSoftDrop();
+        }
+        if (events.has(TickResult.HARD_DROP)) {
+            sounds.playHardDrop();
+        }
+        if (events.has(TickResult.LOCK)) {
+            sounds.playLock();
+        }
+        if (events.has(TickResult.LINES_CLEARED)) {
+            // som de clear baseado em quantas linhas
+            sounds.playClear(events.getLargestClear());
+        }
+        if (events.has(TickResult.GAME_OVER)) {
+            sounds.playGameOver();
+        } else if (events.has(TickResult.STATE_CHANGED) && !events.has(TickResult.NEW_GAME)) {
+            // pausa ou retoma
+            sounds.playPause();
+        }
+    }
+}
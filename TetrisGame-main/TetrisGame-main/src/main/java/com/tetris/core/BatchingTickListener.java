@@ -0,0 +1,31 @@
+package com.tetris.core;
+
+/**
+ * Assinante que junta os resumos de vários passos num só, para serem consumidos
+ * de uma vez por outra thread (a interface, a cada quadro; métricas, a cada segundo...).
+ * A thread do núcleo só acumula; o consumidor chama {@link #drainTo(TickResult)} quando
+ * lhe convier e recebe um único resumo com tudo o que aconteceu desde a última vez.
+ */
+public class BatchingTickListener implements TickListener {
+
+    private final TickResult pending = new TickResult();
+
+    @Override
+    public synchronized void onTick(TickResult result) {
+        pending.mergeFrom(result);
+    }
+
+    /**
+     * Copia para {@code target} tudo o que foi acumulado e esvazia o lote.
+     * @return false se nada aconteceu desde a última chamada ({@code target} fica vazio).
+     */
+    public synchronized boolean drainTo(TickResult target) {
+        target.clear();
+        if (pending.isEmpty()) {
+            return false;
+        }
+        target.mergeFrom(pending);
+        pending.clear();
+        return true;
+    }
+}
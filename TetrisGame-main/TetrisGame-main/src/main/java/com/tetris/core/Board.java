@@ -0,0 +1,736 @@
+package com.tetris.core;
+
+import java.util.Arrays;
+import java.util.SplittableRandom;
+
+import com.tetris.core.tetromino.Orientation;
+
+/**
+ * Representa o tabuleiro (grelha) do jogo.
+ * Responsável por gerir o estado dos blocos fixos, detetar colisões
+ * e processar a eliminação de linhas completas.
+ *
+ * As dimensões são definidas por instância (o padrão é 10x20). A ocupação é guardada como
+ * uma máscara de bits por linha (bitboard) de um ou mais {@code long}: a coluna x ocupa o bit
+ * {@code x + WALL_BITS} da linha e todos os bits fora do tabuleiro ficam ligados, funcionando
+ * como paredes. A colisão de uma linha da peça toca no máximo duas palavras, qualquer que seja
+ * a largura, e uma linha completa é uma linha com todos os bits ligados.
+ * As cores ficam num vetor à parte (índices de paleta, 0 = vazio), usado apenas pela renderização.
+ * Cada linha lógica aponta para uma linha física através de {@code rowSlot}, e é a linha física
+ * que guarda a máscara, as cores, a assinatura de Zobrist e as transições da linha; por isso
+ * eliminar linhas só reordena os índices das linhas da pilha e nunca copia máscaras nem cores.
+ *
+ * O tabuleiro mantém também o perfil de alturas das colunas, atualizado a cada fixação
+ * e eliminação, o que permite calcular a distância de queda de uma peça sem descê-la linha a linha.
+ * As alturas guardadas estão {@code heightShift} acima das reais: uma eliminação baixa todas as
+ * colunas de uma vez, e só as colunas cujo bloco do topo foi eliminado são procuradas de novo.
+ *
+ * Mantém ainda um hash de Zobrist da ocupação ({@link #getHash()}), linha a linha: cada linha
+ * tem a sua assinatura, o XOR das chaves aleatórias das colunas ocupadas, e contribui para o hash
+ * com a assinatura misturada (SplitMix64) com a chave aleatória da sua posição; o hash é o XOR
+ * das contribuições. Fixar uma peça só volta a misturar as linhas que ela toca, e uma linha que
+ * desce numa eliminação leva a assinatura consigo e só é misturada de novo com a chave da
+ * posição nova, sem voltar a percorrer as células. Como as chaves das posições são
+ * independentes, duas linhas iguais em posições diferentes nunca se anulam, qualquer que seja a
+ * altura do tabuleiro. As chaves vêm de uma semente fixa, por isso tabuleiros com as mesmas
+ * dimensões e os mesmos blocos têm o mesmo hash (as cores não contam).
+ *
+ * As características usadas pelos bots e pelas análises (buracos, transições, poços, etc.; ver
+ * {@link BoardFeatures}) são somas mantidas a cada mudança, e lê-las não percorre o tabuleiro.
+ * Uma fixação só recalcula as transições das linhas que a peça toca (com operações de bits sobre
+ * as máscaras) e as alturas, poços e diferenças das suas colunas e das vizinhas; uma eliminação
+ * só refaz as transições à volta das linhas eliminadas e as colunas que perderam o bloco do topo.
+ * Os buracos saem das alturas e do número de blocos, sem contagem própria.
+ */
+public class Board {
+    public static final int DEFAULT_WIDTH = 10;
+    public static final int DEFAULT_HEIGHT = 20;
+
+    // Bits de parede à esquerda da coluna 0 (uma peça pode estar até aqui à esquerda)
+    private static final int WALL_BITS = 8;
+    // Folga de parede à direita; nenhuma máscara de linha de peça é mais larga do que isto,
+    // por isso só uma máscara que começa depois do bit 64 - RIGHT_WALL_BITS chega à palavra seguinte
+    private static final int RIGHT_WALL_BITS = 8;
+    private static final long ZOBRIST_SEED = 0x5A0B_1257_7E75_15L;
+
+    private final int width;
+    private final int height;
+    private final int wordsPerRow;
+
+    // Ocupação de cada linha física, wordsPerRow palavras por linha
+    private final long[] rows;
+    // Linha vazia (só paredes), usada também para as linhas acima do topo
+    private final long[] emptyRow;
+    // Linha cheia, que faz de fundo
+    private final long[] fullRow;
+    // Linha física usada por cada linha lógica (0 = topo)
+    private final int[] rowSlot;
+    // Cores de todas as linhas físicas, width bytes por linha
+    private final byte[] colors;
+    // Altura de cada coluna (height - linha do bloco mais alto, 0 = coluna vazia) mais heightShift
+    private final int[] heights;
+    private int heightShift;
+    // Altura da coluna mais alta (a pilha ocupa as linhas height - maxHeight até o fundo)
+    private int maxHeight;
+    // Faixa de linhas tocadas desde a última eliminação: só elas podem ter ficado completas
+    private int dirtyTop;
+    private int dirtyBottom;
+    // Chave de Zobrist de cada coluna e de cada posição de linha, a assinatura de cada linha
+    // física (o XOR das chaves das colunas ocupadas) e o hash (o XOR das contribuições das linhas)
+    private final long[] columnKeys;
+    private final long[] positionKeys;
+    private final long[] rowKeys;
+    private long hash;
+    // Hash do tabuleiro vazio (as linhas vazias também contribuem, com a chave da sua posição)
+    private final long emptyHash;
+    // Características (ver BoardFeatures): as transições de cada linha física, a profundidade do
+    // poço de cada coluna e as somas, mantidas a cada fixação e eliminação
+    private final int[] rowTransitions;
+    private final int emptyRowTransitions;
+    private final int[] wells;
+    private int filledCells;
+    private int aggregateHeight;
+    private int rowTransitionSum;
+    private int columnTransitionSum;
+    private int bumpiness;
+    private int wellSum;
+    // Máscaras por palavra: as células do tabuleiro, e os bits i em que se compara a célula i com
+    // a i + 1 (da parede esquerda até à última coluna)
+    private final long[] cellMask;
+    private final long[] transitionMask;
+    // Numa eliminação: as colunas sem blocos acima das linhas eliminadas, e essas mais as vizinhas
+    private final long[] exposed;
+    private final long[] affected;
+
+    public Board() {
+        this(DEFAULT_WIDTH, DEFAULT_HEIGHT);
+    }
+
+    public Board(int width, int height) {
+        if (width < 4 || height < 4) {
+            throw new IllegalArgumentException("Tabuleiro muito pequeno: " + width + "x" + height);
+        }
+        this.width = width;
+        this.height = height;
+        this.wordsPerRow = (WALL_BITS + width + RIGHT_WALL_BITS + 63) >>> 6;
+        rows = new long[height * wordsPerRow];
+        emptyRow = new long[wordsPerRow];
+        Arrays.fill(emptyRow, -1L);
+        for (int x = 0; x < width; x++) {
+            int bit = WALL_BITS + x;
+            emptyRow[bit >>> 6] &= ~(1L << bit);
+        }
+        fullRow = new long[wordsPerRow];
+        Arrays.fill(fullRow, -1L);
+        rowSlot = new int[height];
+        colors = new byte[height * width];
+        heights = new int[width];
+        columnKeys = new long[width];
+        positionKeys = new long[height];
+        rowKeys = new long[height];
+        rowTransitions = new int[height];
+        wells = new int[width];
+        cellMask = new long[wordsPerRow];
+        transitionMask = new long[wordsPerRow];
+        exposed = new long[wordsPerRow];
+        affected = new long[wordsPerRow];
+        for (int w = 0; w < wordsPerRow; w++) {
+            cellMask[w] = ~emptyRow[w];
+        }
+        for (int bit = WALL_BITS - 1; bit < WALL_BITS + width; bit++) {
+            transitionMask[bit >>> 6] |= 1L << bit;
+        }
+        emptyRowTransitions = countRowTransitions(emptyRow, 0);
+        SplittableRandom random = new SplittableRandom(ZOBRIST_SEED);
+        for (int x = 0; x < width; x++) {
+            columnKeys[x] = random.nextLong();
+        }
+        for (int y = 0; y < height; y++) {
+            positionKeys[y] = random.nextLong();
+        }
+        // As linhas começam na sua própria posição física, todas com assinatura 0
+        for (int y = 0; y < height; y++) {
+            rowSlot[y] = y;
+        }
+        emptyHash = rangeHash(0, height - 1);
+        clear();
+    }
+
+    /**
+     * Verifica se uma peça com a orientação {@code shape} cabe na posição (x, y).
+     * Uma posição é válida se não estiver fora das bordas e não colidir com blocos já fixados.
+     * @return true se a posição for válida, false caso contrário.
+     */
+    public boolean isValidPosition(Orientation shape, int x, int y) {
+        // Fora desta faixa nenhuma célula da peça cabe no tabuleiro (e o shift sairia da linha)
+        if (x < -WALL_BITS || x >= width) {
+            return false;
+        }
+        int position = x + WALL_BITS;
+        int word = position >>> 6;
+        int bit = position & 63;
+        for (int r = 0; r < shape.getHeight(); r++) {
+            long mask = shape.getRowMask(r);
+            if (mask == 0) {
+                continue;
+            }
+            int boardY = y + r;
+            if (boardY >= height) {
+                return false;
+            }
+            // Acima do topo só as paredes laterais contam
+            long[] source = rows;
+            int base = word;
+            if (boardY < 0) {
+                source = emptyRow;
+            } else {
+                base += rowSlot[boardY] * wordsPerRow;
+            }
+            if ((source[base] & (mask << bit)) != 0) {
+                return false;
+            }
+            // Parte da máscara que atravessa para a palavra seguinte (só em tabuleiros largos)
+            if (bit > 64 - RIGHT_WALL_BITS && (source[base + 1] & ((mask >>> 1) >>> (63 - bit))) != 0) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    /**
+     * Calcula quantas linhas uma peça pode descer a partir da posição (x, y), que deve ser válida.
+     * Quando cada coluna da peça está acima do topo da respectiva coluna do tabuleiro,
+     * a resposta sai direto do perfil de alturas; só uma peça encaixada por baixo de uma
+     * saliência precisa de testar a descida linha a linha.
+     * @return O número de linhas livres abaixo da peça (0 se ela já está apoiada).
+     */
+    public int dropDistance(Orientation shape, int x, int y) {
+        int distance = height;
+        for (int c = 0; c < shape.getWidth(); c++) {
+            int bottom = shape.getColumnBottom(c);
+            if (bottom < 0) {
+                continue;
+            }
+            // Linhas livres entre o bloco mais baixo desta coluna da peça e o topo da coluna
+            int free = height - getColumnHeight(x + c) - 1 - (y + bottom);
+            if (free < 0) {
+                return probeDropDistance(shape, x, y);
+            }
+            distance = Math.min(distance, free);
+        }
+        return distance;
+    }
+
+    private int probeDropDistance(Orientation shape, int x, int y) {
+        int distance = 0;
+        while (isValidPosition(shape, x, y + distance + 1)) {
+            distance++;
+        }
+        return distance;
+    }
+
+    /**
+     * Fixa uma peça no tabuleiro, transferindo o índice da sua cor para a grelha.
+     * A posição deve ser válida ({@link #isValidPosition}); os blocos acima do topo são descartados.
+     * @param shape A orientação da peça.
+     * @param x Coluna do canto superior esquerdo da matriz da peça.
+     * @param y Linha do canto superior esquerdo da matriz da peça.
+     * @param paletteIndex O índice da cor da peça.
+     */
+    public void placePiece(Orientation shape, int x, int y, int paletteIndex) {
+        // Linhas do tabuleiro tocadas pela peça
+        int top = height;
+        int bottom = -1;
+        for (int r = 0; r < shape.getHeight(); r++) {
+            if (shape.getRowMask(r) != 0 && y + r >= 0) {
+                top = Math.min(top, y + r);
+                bottom = y + r;
+            }
+        }
+        if (bottom < 0) {
+            return;
+        }
+        // Colunas da peça e as vizinhas, cujos poços e diferenças de altura podem mudar
+        int left = Math.max(0, x - 1);
+        int right = Math.min(width - 1, x + shape.getWidth());
+        // As contribuições antigas saem do hash e das características; as novas entram no fim
+        hash ^= rangeHash(top, bottom);
+        subtractRowFeatures(top, bottom);
+        subtractColumnFeatures(left, right);
+
+        int position = x + WALL_BITS;
+        int word = position >>> 6;
+        int bit = position & 63;
+        for (int r = 0; r < shape.getHeight(); r++) {
+            long mask = shape.getRowMask(r);
+            int boardY = y + r;
+            if (mask != 0 && boardY >= 0) {
+                int base = rowSlot[boardY] * wordsPerRow + word;
+                rows[base] |= mask << bit;
+                if (bit > 64 - RIGHT_WALL_BITS) {
+                    rows[base + 1] |= (mask >>> 1) >>> (63 - bit);
+                }
+            }
+        }
+        dirtyTop = Math.min(dirtyTop, top);
+        dirtyBottom = Math.max(dirtyBottom, bottom);
+        byte color = (byte) paletteIndex;
+        for (int i = 0; i < shape.getCellCount(); i++) {
+            int boardX = x + shape.getCellX(i);
+            int boardY = y + shape.getCellY(i);
+            if (boardY >= 0) {
+                colors[rowSlot[boardY] * width + boardX] = color;
+                rowKeys[rowSlot[boardY]] ^= columnKeys[boardX];
+                filledCells++;
+                int columnHeight = height - boardY;
+                int current = getColumnHeight(boardX);
+                if (columnHeight > current) {
+                    aggregateHeight += columnHeight - current;
+                    heights[boardX] = columnHeight + heightShift;
+                    maxHeight = Math.max(maxHeight, columnHeight);
+                }
+            }
+        }
+
+        addRowFeatures(top, bottom);
+        addColumnFeatures(left, right);
+        hash ^= rangeHash(top, bottom);
+    }
+
+    /**
+     * Verifica e remove todas as linhas completas do tabuleiro.
+     * Só as linhas tocadas desde a última chamada são testadas. Ao remover, apenas as linhas
+     * da pilha acima da linha completa mais baixa descem (as linhas vazias acima da pilha são
+     * todas iguais e ficam onde estão), trocando só os índices das linhas físicas, sem copiar
+     * máscaras nem cores e sem alocar.
+     * @return O número de linhas que foram removidas.
+     */
+    public int clearLines() {
+        int lowestFull = -1;
+        for (int y = dirtyBottom; y >= dirtyTop; y--) {
+            if (isFull(y)) {
+                lowestFull = y;
+                break;
+            }
+        }
+        dirtyTop = height;
+        dirtyBottom = -1;
+        if (lowestFull < 0) {
+            return 0;
+        }
+
+        int stackTop = height - maxHeight;
+        // As linhas da pilha até à completa mais baixa vão mudar de posição: saem do hash e voltam no fim
+        hash ^= rangeHash(stackTop, lowestFull);
+        // Antes de mover: cada bloco de linhas completas [blockTop, blockBottom] deixa as linhas à
+        // sua volta encostadas, e as colunas sem blocos acima do bloco mais alto perdem o topo
+        int linesCleared = 0;
+        Arrays.fill(exposed, 0L);
+        int y = lowestFull;
+        while (y >= stackTop) {
+            if (!isFull(y)) {
+                int base = rowSlot[y] * wordsPerRow;
+                for (int w = 0; w < wordsPerRow; w++) {
+                    exposed[w] |= rows[base + w];
+                }
+                y--;
+                continue;
+            }
+            int blockBottom = y;
+            while (y >= stackTop && isFull(y)) {
+                y--;
+            }
+            int blockTop = y + 1;
+            linesCleared += blockBottom - blockTop + 1;
+            columnTransitionSum -= columnTransitions(blockTop) + columnTransitions(blockBottom + 1);
+            columnTransitionSum += transitionsBetween(blockTop - 1, blockBottom + 1);
+            // Só contam os blocos acima do bloco mais alto
+            Arrays.fill(exposed, 0L);
+        }
+        boolean allExposed = true;
+        for (int w = 0; w < wordsPerRow; w++) {
+            exposed[w] = ~exposed[w] & cellMask[w];
+            allExposed &= exposed[w] == cellMask[w];
+        }
+        // Os poços e as diferenças de altura só mudam à volta dessas colunas
+        for (int w = 0; w < wordsPerRow; w++) {
+            long carry = (w > 0 ? exposed[w - 1] >>> 63 : 0L) | (w + 1 < wordsPerRow ? exposed[w + 1] << 63 : 0L);
+            affected[w] = (exposed[w] | exposed[w] << 1 | exposed[w] >>> 1 | carry) & cellMask[w];
+        }
+        subtractColumnFeatures(affected);
+
+        int moved = 0;
+        for (y = lowestFull; y >= stackTop; y--) {
+            if (isFull(y)) {
+                moved++;
+                continue;
+            }
+            if (moved > 0) {
+                // Desce a linha; a posição antiga recebe a linha descartada
+                int target = y + moved;
+                int slot = rowSlot[y];
+                rowSlot[y] = rowSlot[target];
+                rowSlot[target] = slot;
+            }
+        }
+        // As linhas descartadas terminaram no topo da pilha: basta esvaziá-las
+        for (y = stackTop; y < stackTop + linesCleared; y++) {
+            int slot = rowSlot[y];
+            System.arraycopy(emptyRow, 0, rows, slot * wordsPerRow, wordsPerRow);
+            Arrays.fill(colors, slot * width, slot * width + width, (byte) 0);
+            rowKeys[slot] = 0;
+            rowTransitionSum += emptyRowTransitions - rowTransitions[slot];
+            rowTransitions[slot] = emptyRowTransitions;
+        }
+
+        // Cada linha completa ocupa todas as colunas, por isso cada coluna perde exatamente
+        // linesCleared de altura; só as que perderam o bloco do topo descem até ao próximo bloco
+        heightShift += linesCleared;
+        filledCells -= linesCleared * width;
+        aggregateHeight -= linesCleared * width;
+        maxHeight -= linesCleared;
+        int exposedMax = 0;
+        for (int w = 0; w < wordsPerRow; w++) {
+            for (long bits = exposed[w]; bits != 0; bits &= bits - 1) {
+                int x = (w << 6) + Long.numberOfTrailingZeros(bits) - WALL_BITS;
+                int shifted = getColumnHeight(x);
+                int columnHeight = shifted;
+                while (columnHeight > 0 && !isOccupied(x, height - columnHeight)) {
+                    columnHeight--;
+                }
+                heights[x] = columnHeight + heightShift;
+                aggregateHeight -= shifted - columnHeight;
+                exposedMax = Math.max(exposedMax, columnHeight);
+            }
+        }
+        if (allExposed) {
+            maxHeight = exposedMax;
+        }
+        addColumnFeatures(affected);
+        hash ^= rangeHash(stackTop, lowestFull);
+        return linesCleared;
+    }
+
+    /** @return A contribuição para o hash das linhas {@code top} a {@code bottom}. */
+    private long rangeHash(int top, int bottom) {
+        long result = 0;
+        for (int y = top; y <= bottom; y++) {
+            result ^= rowHash(y);
+        }
+        return result;
+    }
+
+    /** @return A contribuição da linha y: a sua assinatura misturada com a chave da posição (finalizador do SplitMix64). */
+    private long rowHash(int y) {
+        long z = rowKeys[rowSlot[y]] ^ positionKeys[y];
+        z = (z ^ (z >>> 30)) * 0xBF58476D1CE4E5B9L;
+        z = (z ^ (z >>> 27)) * 0x94D049BB133111EBL;
+        return z ^ (z >>> 31);
+    }
+
+    private boolean isFull(int y) {
+        if (wordsPerRow == 1) {
+            return rows[rowSlot[y]] == -1L;
+        }
+        int base = rowSlot[y] * wordsPerRow;
+        for (int w = 0; w < wordsPerRow; w++) {
+            if (rows[base + w] != -1L) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    /** Tira das somas as transições das linhas {@code top} a {@code bottom} e as das colunas entre elas e à sua volta. */
+    private void subtractRowFeatures(int top, int bottom) {
+        for (int y = top; y <= bottom; y++) {
+            rowTransitionSum -= rowTransitions[rowSlot[y]];
+            columnTransitionSum -= columnTransitions(y);
+        }
+        columnTransitionSum -= columnTransitions(bottom + 1);
+    }
+
+    /** Recalcula as transições das linhas {@code top} a {@code bottom} e junta-as às somas, como {@link #subtractRowFeatures}. */
+    private void addRowFeatures(int top, int bottom) {
+        for (int y = top; y <= bottom; y++) {
+            int slot = rowSlot[y];
+            rowTransitions[slot] = countRowTransitions(rows, slot * wordsPerRow);
+            rowTransitionSum += rowTransitions[slot];
+            columnTransitionSum += columnTransitions(y);
+        }
+        columnTransitionSum += columnTransitions(bottom + 1);
+    }
+
+    /** @return As transições ao longo da linha em {@code source[base]}, com as paredes a contar como cheias. */
+    private int countRowTransitions(long[] source, int base) {
+        int count = 0;
+        for (int w = 0; w < wordsPerRow; w++) {
+            long row = source[base + w];
+            // Cada bit comparado com o seguinte, que pode estar na palavra seguinte
+            long next = (row >>> 1) | (w + 1 < wordsPerRow ? source[base + w + 1] << 63 : 0L);
+            count += Long.bitCount((row ^ next) & transitionMask[w]);
+        }
+        return count;
+    }
+
+    /** @return As transições verticais entre a linha y - 1 e a linha y (0 a height: acima do topo é vazio, o fundo é cheio). */
+    private int columnTransitions(int y) {
+        return transitionsBetween(y - 1, y);
+    }
+
+    /** @return As células em que as linhas {@code upper} e {@code lower} diferem (-1 é vazia, height é o fundo cheio). */
+    private int transitionsBetween(int upper, int lower) {
+        long[] upperRow = rows;
+        int upperBase = 0;
+        if (upper < 0) {
+            upperRow = emptyRow;
+        } else {
+            upperBase = rowSlot[upper] * wordsPerRow;
+        }
+        long[] lowerRow = rows;
+        int lowerBase = 0;
+        if (lower >= height) {
+            lowerRow = fullRow;
+        } else {
+            lowerBase = rowSlot[lower] * wordsPerRow;
+        }
+        int count = 0;
+        for (int w = 0; w < wordsPerRow; w++) {
+            count += Long.bitCount((upperRow[upperBase + w] ^ lowerRow[lowerBase + w]) & cellMask[w]);
+        }
+        return count;
+    }
+
+    /** Tira das somas os poços das colunas {@code left} a {@code right} e as suas diferenças para a coluna à esquerda. */
+    private void subtractColumnFeatures(int left, int right) {
+        for (int x = left; x <= right; x++) {
+            subtractColumnFeatures(x);
+        }
+    }
+
+    /** Recalcula os poços e as diferenças das colunas {@code left} a {@code right}, como {@link #subtractColumnFeatures(int, int)}. */
+    private void addColumnFeatures(int left, int right) {
+        for (int x = left; x <= right; x++) {
+            addColumnFeatures(x);
+        }
+    }
+
+    /** Igual a {@link #subtractColumnFeatures(int, int)}, para as colunas marcadas numa máscara de linha. */
+    private void subtractColumnFeatures(long[] columns) {
+        for (int w = 0; w < wordsPerRow; w++) {
+            for (long bits = columns[w]; bits != 0; bits &= bits - 1) {
+                subtractColumnFeatures((w << 6) + Long.numberOfTrailingZeros(bits) - WALL_BITS);
+            }
+        }
+    }
+
+    /** Igual a {@link #addColumnFeatures(int, int)}, para as colunas marcadas numa máscara de linha. */
+    private void addColumnFeatures(long[] columns) {
+        for (int w = 0; w < wordsPerRow; w++) {
+            for (long bits = columns[w]; bits != 0; bits &= bits - 1) {
+                addColumnFeatures((w << 6) + Long.numberOfTrailingZeros(bits) - WALL_BITS);
+            }
+        }
+    }
+
+    private void subtractColumnFeatures(int x) {
+        wellSum -= wells[x];
+        if (x > 0) {
+            bumpiness -= Math.abs(getColumnHeight(x) - getColumnHeight(x - 1));
+        }
+    }
+
+    private void addColumnFeatures(int x) {
+        int columnHeight = getColumnHeight(x);
+        int left = x > 0 ? getColumnHeight(x - 1) : height;
+        int right = x + 1 < width ? getColumnHeight(x + 1) : height;
+        wells[x] = Math.max(0, Math.min(left, right) - columnHeight);
+        wellSum += wells[x];
+        if (x > 0) {
+            bumpiness += Math.abs(columnHeight - left);
+        }
+    }
+
+    /** Limpa o tabuleiro completamente para um novo jogo. */
+    public void clear() {
+        for (int y = 0; y < height; y++) {
+            System.arraycopy(emptyRow, 0, rows, y * wordsPerRow, wordsPerRow);
+            rowSlot[y] = y;
+        }
+        Arrays.fill(colors, (byte) 0);
+        Arrays.fill(heights, 0);
+        Arrays.fill(rowKeys, 0L);
+        heightShift = 0;
+        maxHeight = 0;
+        dirtyTop = height;
+        dirtyBottom = -1;
+        hash = emptyHash;
+        rebuildFeatures();
+    }
+
+    /** Recalcula todas as características a partir das máscaras e das alturas. */
+    private void rebuildFeatures() {
+        filledCells = 0;
+        aggregateHeight = 0;
+        rowTransitionSum = 0;
+        columnTransitionSum = 0;
+        bumpiness = 0;
+        wellSum = 0;
+        for (int y = 0; y < height; y++) {
+            int slot = rowSlot[y];
+            rowTransitions[slot] = countRowTransitions(rows, slot * wordsPerRow);
+            rowTransitionSum += rowTransitions[slot];
+            for (int w = 0; w < wordsPerRow; w++) {
+                filledCells += Long.bitCount(rows[slot * wordsPerRow + w] & cellMask[w]);
+            }
+        }
+        for (int y = 0; y <= height; y++) {
+            columnTransitionSum += columnTransitions(y);
+        }
+        for (int x = 0; x < width; x++) {
+            aggregateHeight += getColumnHeight(x);
+            addColumnFeatures(x);
+        }
+    }
+
+    /**
+     * Torna este tabuleiro uma cópia de {@code source} (ocupação, cores, alturas e
+     * características), sem alocar; usado para experimentar jogadas sem tocar no tabuleiro da partida.
+     * @throws IllegalArgumentException Se os tabuleiros têm dimensões diferentes.
+     */
+    public void copyFrom(Board source) {
+        if (source.width != width || source.height != height) {
+            throw new IllegalArgumentException("Tabuleiro " + source.width + "x" + source.height
+                    + " não cabe num de " + width + "x" + height);
+        }
+        System.arraycopy(source.rows, 0, rows, 0, rows.length);
+        System.arraycopy(source.rowSlot, 0, rowSlot, 0, height);
+        System.arraycopy(source.colors, 0, colors, 0, colors.length);
+        System.arraycopy(source.heights, 0, heights, 0, width);
+        System.arraycopy(source.rowKeys, 0, rowKeys, 0, height);
+        System.arraycopy(source.rowTransitions, 0, rowTransitions, 0, height);
+        System.arraycopy(source.wells, 0, wells, 0, width);
+        heightShift = source.heightShift;
+        maxHeight = source.maxHeight;
+        dirtyTop = source.dirtyTop;
+        dirtyBottom = source.dirtyBottom;
+        hash = source.hash;
+        filledCells = source.filledCells;
+        aggregateHeight = source.aggregateHeight;
+        rowTransitionSum = source.rowTransitionSum;
+        columnTransitionSum = source.columnTransitionSum;
+        bumpiness = source.bumpiness;
+        wellSum = source.wellSum;
+    }
+
+    public int getWidth() {
+        return width;
+    }
+
+    public int getHeight() {
+        return height;
+    }
+
+    /** @return true se a célula (x, y) tem um bloco fixado. */
+    public boolean isOccupied(int x, int y) {
+        int bit = WALL_BITS + x;
+        return (rows[rowSlot[y] * wordsPerRow + (bit >>> 6)] & (1L << bit)) != 0;
+    }
+
+    /**
+     * @return O hash de Zobrist da ocupação: igual para tabuleiros das mesmas dimensões com os
+     *         mesmos blocos, qualquer que seja a ordem em que foram fixados.
+     */
+    public long getHash() {
+        return hash;
+    }
+
+    /** @return A característica {@code feature} (um índice de {@link BoardFeatures}) do tabuleiro atual. */
+    public int getFeature(int feature) {
+        switch (feature) {
+            case BoardFeatures.AGGREGATE_HEIGHT:
+                return aggregateHeight;
+            case BoardFeatures.MAX_HEIGHT:
+                return maxHeight;
+            case BoardFeatures.HOLES:
+                // Cada coluna tem tantas células até ao topo quanto a sua altura; as que não têm bloco são buracos
+                return aggregateHeight - filledCells;
+            case BoardFeatures.ROW_TRANSITIONS:
+                return rowTransitionSum;
+            case BoardFeatures.COLUMN_TRANSITIONS:
+                return columnTransitionSum;
+            case BoardFeatures.BUMPINESS:
+                return bumpiness;
+            case BoardFeatures.WELL_SUM:
+                return wellSum;
+            default:
+                int column = feature - BoardFeatures.columnHeight(0);
+                return column < width ? getColumnHeight(column) : wells[column - width];
+        }
+    }
+
+    /** Copia o vetor de características para {@code target}, com pelo menos {@link BoardFeatures#size(int)} posições. */
+    public void copyFeatures(int[] target) {
+        for (int i = 0; i < BoardFeatures.size(width); i++) {
+            target[i] = getFeature(i);
+        }
+    }
+
+    /** Igual a {@link #copyFeatures(int[])}, para vetores de pesos em vírgula flutuante. */
+    public void copyFeatures(double[] target) {
+        for (int i = 0; i < BoardFeatures.size(width); i++) {
+            target[i] = getFeature(i);
+        }
+    }
+
+    /** @return A altura da coluna x (0 se vazia). */
+    public int getColumnHeight(int x) {
+        return heights[x] - heightShift;
+    }
+
+    /**
+     * Copia as cores de todas as células para {@code target}, linha a linha de cima para baixo
+     * ({@code target[y * width + x]}).
+     */
+    public void copyCells(byte[] target) {
+        for (int y = 0; y < height; y++) {
+            System.arraycopy(colors, rowSlot[y] * width, target, y * width, width);
+        }
+    }
+
+    /**
+     * Substitui todo o conteúdo do tabuleiro pelas cores de {@code source}, no formato de
+     * {@link #copyCells(byte[])} (0 = célula vazia), reconstruindo máscaras, alturas e características.
+     */
+    public void loadCells(byte[] source) {
+        clear();
+        // Depois de clear() cada linha lógica está na linha física com o mesmo índice
+        for (int y = 0; y < height; y++) {
+            int base = y * wordsPerRow;
+            for (int x = 0; x < width; x++) {
+                byte color = source[y * width + x];
+                if (color == 0) {
+                    continue;
+                }
+                int bit = WALL_BITS + x;
+                rows[base + (bit >>> 6)] |= 1L << bit;
+                colors[y * width + x] = color;
+                rowKeys[y] ^= columnKeys[x];
+                if (heights[x] == 0) {
+                    heights[x] = height - y;
+                    maxHeight = Math.max(maxHeight, heights[x]);
+                }
+            }
+        }
+        // Qualquer linha da pilha carregada pode estar completa
+        dirtyTop = height - maxHeight;
+        dirtyBottom = height - 1;
+        hash = rangeHash(0, height - 1);
+        rebuildFeatures();
+    }
+
+    /** @return O índice de paleta da célula (x, y), ou 0 se estiver vazia. */
+    public int getCell(int x, int y) {
+        return colors[rowSlot[y] * width + x];
+    }
+}
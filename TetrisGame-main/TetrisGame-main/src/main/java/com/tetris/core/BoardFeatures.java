@@ -0,0 +1,47 @@
+package com.tetris.core;
+
+/**
+ * Disposição do vetor de características de um {@link Board} ({@link Board#copyFeatures(int[])},
+ * {@link Board#getFeature(int)}): primeiro os valores de todo o tabuleiro, nos índices abaixo,
+ * depois a altura de cada coluna ({@link #columnHeight}) e a profundidade do poço de cada coluna
+ * ({@link #wellDepth}). As paredes e o fundo contam como blocos; acima do topo está vazio.
+ */
+public final class BoardFeatures {
+
+    /** Soma das alturas das colunas. */
+    public static final int AGGREGATE_HEIGHT = 0;
+    /** Altura da coluna mais alta. */
+    public static final int MAX_HEIGHT = 1;
+    /** Células vazias com algum bloco por cima na mesma coluna. */
+    public static final int HOLES = 2;
+    /** Mudanças entre cheio e vazio ao percorrer cada linha, paredes incluídas (2 numa linha vazia). */
+    public static final int ROW_TRANSITIONS = 3;
+    /** Mudanças entre cheio e vazio ao descer cada coluna, do topo vazio até ao fundo cheio. */
+    public static final int COLUMN_TRANSITIONS = 4;
+    /** Soma das diferenças de altura entre colunas vizinhas. */
+    public static final int BUMPINESS = 5;
+    /** Soma das profundidades dos poços. */
+    public static final int WELL_SUM = 6;
+
+    private static final int COLUMNS = 7;
+
+    private BoardFeatures() {}
+
+    /** @return O tamanho do vetor para um tabuleiro com {@code width} colunas. */
+    public static int size(int width) {
+        return COLUMNS + 2 * width;
+    }
+
+    /** @return O índice da altura da coluna {@code x}. */
+    public static int columnHeight(int x) {
+        return COLUMNS + x;
+    }
+
+    /**
+     * @return O índice da profundidade do poço da coluna {@code x}: quanto ela está abaixo da
+     *         mais baixa das duas vizinhas (0 se não está abaixo de ambas).
+     */
+    public static int wellDepth(int width, int x) {
+        return COLUMNS + width + x;
+    }
+}
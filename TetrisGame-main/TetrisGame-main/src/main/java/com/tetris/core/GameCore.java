@@ -0,0 +1,466 @@
+package com.tetris.core;
+
+import java.nio.ByteBuffer;
+import java.util.Arrays;
+import java.util.concurrent.ThreadLocalRandom;
+
+import com.tetris.core.random.Randomizer;
+import com.tetris.core.random.RandomizerType;
+import com.tetris.core.tetromino.Orientation;
+import com.tetris.core.tetromino.PieceType;
+
+/**
+ * Núcleo do jogo, sem qualquer dependência de JavaFX.
+ * Reúne o tabuleiro, as peças, o sorteio e a pontuação, e avança a simulação
+ * em passos discretos através de {@link #step(int)}. Pode ser executado sem ecrã
+ * (simulações em lote, servidores) ou adaptado para a interface pela GameEngine.
+ * O que acontece em cada passo é entregue de uma só vez aos {@link TickListener} registados.
+ */
+public class GameCore {
+
+    /** Frequência fixa dos passos lógicos; a gravidade e os tempos do jogo são medidos nela. */
+    public static final int TICKS_PER_SECOND = 240;
+    /** Uma linha de gravidade em ponto fixo (32 bits de fração). */
+    public static final long GRAVITY_UNIT = 1L << 32;
+
+    // values() devolve uma cópia nova a cada chamada; loadState usa estas
+    private static final RandomizerType[] RANDOMIZER_TYPES = RandomizerType.values();
+    private static final GameState[] STATES = GameState.values();
+    // Bytes do estado guardado fora o sorteador e as células (ver saveState)
+    private static final int STATE_HEADER_BYTES = 2 + 2 + 1 + 8 + 8 + 4 + 4 + 4 + 1 + 8 + 1 + 1 + 2 + 2 + 1;
+
+    private final Board board;
+    private RandomizerType randomizerType = RandomizerType.BAG_7;
+    // Semente da partida atual: com o mesmo tipo de sorteio, reproduz a mesma sequência de peças
+    private long seed;
+    private Randomizer randomizer;
+    // Peça em jogo: só o tipo (definição partilhada), a rotação e a posição da matriz
+    private PieceType pieceType;
+    private int rotation;
+    private int pieceX;
+    private int pieceY;
+    private PieceType nextType;
+
+    private int score;
+    private int level = 1;
+    private int linesCleared;
+    private GameState state = GameState.PLAYING;
+    // Fração de linha já acumulada pela gravidade (em GRAVITY_UNIT)
+    private long gravityProgress;
+    // Marca que a peça atual foi fixada durante o passo corrente
+    private boolean pieceLocked;
+    // Passos lógicos executados desde o início da partida
+    private long tick;
+    // Muda sempre que o tabuleiro muda (fixação de peça ou nova partida)
+    private int boardVersion;
+    // Linha onde a peça atual vai pousar (sombra); recalculada só quando x, rotação ou tabuleiro mudam
+    private int ghostY;
+
+    // Células do tabuleiro ao guardar ou retomar o estado (criado no primeiro uso)
+    private byte[] stateCells;
+
+    // Resumo do passo em curso, reaproveitado a cada passo
+    private final TickResult tickResult = new TickResult();
+    // Cópia em escrita: registar é raro, entregar acontece a cada passo
+    private volatile TickListener[] tickListeners = new TickListener[0];
+
+    public GameCore() {
+        this(Board.DEFAULT_WIDTH, Board.DEFAULT_HEIGHT);
+    }
+
+    /** Cria um núcleo com um tabuleiro de dimensões próprias (modos largos, cooperativos, etc.). */
+    public GameCore(int width, int height) {
+        this.board = new Board(width, height);
+    }
+
+    /** Reinicia o tabuleiro, os contadores e sorteia as primeiras peças, com uma semente nova. */
+    public void start() {
+        start(ThreadLocalRandom.current().nextLong());
+    }
+
+    /**
+     * Começa uma partida cuja sequência de peças é determinada por {@code seed}
+     * (e pelo tipo de sorteio em uso).
+     */
+    public void start(long seed) {
+        this.seed = seed;
+        this.randomizer = randomizerType.create(seed);
+        board.clear();
+        boardVersion++;
+        tick = 0;
+        tickResult.begin(tick, this);
+        tickResult.add(TickResult.NEW_GAME);
+        score = 0;
+        level = 1;
+        linesCleared = 0;
+        gravityProgress = 0;
+        pieceType = PieceType.of(randomizer.next());
+        nextType = PieceType.of(randomizer.next());
+        moveToSpawn();
+        updateGhost();
+        tickResult.setScore(score, level, linesCleared);
+        tickResult.add(TickResult.SPAWN);
+        setState(GameState.PLAYING);
+        dispatch();
+    }
+
+    /**
+     * Avança a simulação um passo lógico: aplica os comandos e depois a gravidade.
+     * A gravidade acumula-se em ponto fixo, por isso pode ser mais lenta do que um passo
+     * por linha ou descer várias linhas no mesmo passo (parando quando a peça é fixada).
+     * @param input Combinação de bits de {@link Input} (ou {@link Input#NONE}).
+     */
+    public void step(int input) {
+        tick++;
+        tickResult.begin(tick, this);
+        tickResult.markStep();
+        handleInput(input);
+        if (state == GameState.PLAYING) {
+            pieceLocked = false;
+            gravityProgress += getGravity();
+            while (gravityProgress >= GRAVITY_UNIT && !pieceLocked && state == GameState.PLAYING) {
+                gravityProgress -= GRAVITY_UNIT;
+                moveDown();
+            }
+        }
+        dispatch();
+    }
+
+    /**
+     * Aplica comandos do jogador sem avançar o relógio da gravidade.
+     * A ordem é fixa (rotação, deslocamentos, queda suave, queda rápida) e os comandos
+     * restantes são descartados assim que a peça é fixada.
+     * @param input Combinação de bits de {@link Input}.
+     */
+    public void applyInput(int input) {
+        tickResult.begin(tick, this);
+        handleInput(input);
+        dispatch();
+    }
+
+    private void handleInput(int input) {
+        if (state != GameState.PLAYING || input == Input.NONE) {
+            return;
+        }
+        tickResult.addInput(input);
+        pieceLocked = false;
+        if ((input & Input.ROTATE) != 0) {
+            rotate(true);
+        } else if ((input & Input.ROTATE_CCW) != 0) {
+            rotate(false);
+        }
+        if ((input & Input.LEFT) != 0 && !pieceLocked) {
+            move(-1, 0);
+        }
+        if ((input & Input.RIGHT) != 0 && !pieceLocked) {
+            move(1, 0);
+        }
+        if ((input & Input.SOFT_DROP) != 0 && !pieceLocked) {
+            moveDown();
+            tickResult.add(TickResult.SOFT_DROP);
+        }
+        if ((input & Input.HARD_DROP) != 0 && !pieceLocked) {
+            hardDrop();
+        }
+    }
+
+    public void pause() {
+        if (state == GameState.PLAYING) {
+            tickResult.begin(tick, this);
+            setState(GameState.PAUSED);
+            dispatch();
+        }
+    }
+
+    public void resume() {
+        if (state == GameState.PAUSED) {
+            tickResult.begin(tick, this);
+            setState(GameState.PLAYING);
+            dispatch();
+        }
+    }
+
+    private void move(int dx, int dy) {
+        if (board.isValidPosition(getPieceShape(), pieceX + dx, pieceY + dy)) {
+            pieceX += dx;
+            pieceY += dy;
+            if (dx != 0) {
+                updateGhost();
+            }
+        } else if (dy > 0) {
+            // Se o movimento inválido foi para baixo, a peça travou
+            lockPiece();
+        }
+    }
+
+    private void moveDown() { move(0, 1); }
+
+    private void hardDrop() {
+        // A sombra já guarda a linha de pouso
+        pieceY = ghostY;
+        tickResult.add(TickResult.HARD_DROP);
+        lockPiece();
+    }
+
+    /**
+     * Rotação SRS: testa a orientação nova em cada deslocamento da tabela da peça, por ordem,
+     * e só altera a peça no primeiro que cabe; se nenhum couber, a rotação não acontece.
+     */
+    private void rotate(boolean clockwise) {
+        tickResult.add(TickResult.ROTATE);
+        int newRotation = clockwise ? pieceType.rotateClockwise(rotation) : pieceType.rotateCounterClockwise(rotation);
+        Orientation shape = pieceType.getOrientation(newRotation);
+        for (int test = 0; test < PieceType.KICK_TESTS; test++) {
+            int x = pieceX + pieceType.getKickX(rotation, clockwise, test);
+            int y = pieceY + pieceType.getKickY(rotation, clockwise, test);
+            if (board.isValidPosition(shape, x, y)) {
+                rotation = newRotation;
+                pieceX = x;
+                pieceY = y;
+                updateGhost();
+                return;
+            }
+        }
+    }
+
+    private void lockPiece() {
+        pieceLocked = true;
+        board.placePiece(getPieceShape(), pieceX, pieceY, pieceType.getPaletteIndex());
+        boardVersion++;
+        tickResult.add(TickResult.LOCK);
+        int cleared = board.clearLines();
+        if (cleared > 0) {
+            tickResult.addLines(cleared);
+            updateScore(cleared);
+        }
+        spawnNewPiece();
+    }
+
+    private void spawnNewPiece() {
+        pieceType = nextType;
+        nextType = PieceType.of(randomizer.next());
+        tickResult.add(TickResult.SPAWN);
+        moveToSpawn();
+        gravityProgress = 0;
+
+        if (!board.isValidPosition(getPieceShape(), pieceX, pieceY)) {
+            ghostY = pieceY;
+            setState(GameState.GAME_OVER);
+        } else {
+            updateGhost();
+        }
+    }
+
+    /** Coloca a peça na orientação inicial, no topo e centrada na largura do tabuleiro. */
+    private void moveToSpawn() {
+        rotation = 0;
+        pieceX = pieceType.spawnX(board.getWidth());
+        pieceY = pieceType.spawnY();
+    }
+
+    private void updateGhost() {
+        ghostY = pieceY + board.dropDistance(getPieceShape(), pieceX, pieceY);
+    }
+
+    private void updateScore(int cleared) {
+        linesCleared += cleared;
+        score += SistemaPontuacao.calcularPontuacao(cleared, level - 1);
+        level = (linesCleared / 10) + 1;
+        tickResult.setScore(score, level, linesCleared);
+    }
+
+    private void setState(GameState newState) {
+        state = newState;
+        tickResult.setState(newState);
+    }
+
+    /** Entrega o resumo do passo aos assinantes, se algo aconteceu. */
+    private void dispatch() {
+        if (tickResult.isEmpty()) {
+            return;
+        }
+        for (TickListener tickListener : tickListeners) {
+            tickListener.onTick(tickResult);
+        }
+    }
+
+    /** @return Quantos bytes {@link #saveState(ByteBuffer)} escreve para a partida atual. */
+    public int getStateSize() {
+        return STATE_HEADER_BYTES + randomizer.getStateSize() + (board.getWidth() * board.getHeight() + 1) / 2;
+    }
+
+    /**
+     * Escreve em {@code out} o estado completo da partida: dimensões, sorteio (tipo, semente e
+     * posição na sequência), passo, pontuação, peças e as células do tabuleiro (4 bits por
+     * célula: o índice de cor, 0 se vazia). Com {@link #loadState(ByteBuffer)} a simulação
+     * continua exatamente como continuaria a partir daqui.
+     * @throws IllegalStateException Se nenhuma partida foi começada.
+     */
+    public void saveState(ByteBuffer out) {
+        if (randomizer == null) {
+            throw new IllegalStateException("Nenhuma partida em curso");
+        }
+        out.putShort((short) board.getWidth());
+        out.putShort((short) board.getHeight());
+        out.put((byte) randomizerType.ordinal());
+        out.putLong(seed);
+        out.putLong(tick);
+        out.putInt(score);
+        out.putInt(level);
+        out.putInt(linesCleared);
+        out.put((byte) state.ordinal());
+        out.putLong(gravityProgress);
+        out.put((byte) pieceType.ordinal());
+        out.put((byte) rotation);
+        out.putShort((short) pieceX);
+        out.putShort((short) pieceY);
+        out.put((byte) nextType.ordinal());
+        randomizer.saveState(out);
+        byte[] cells = cellsBuffer();
+        board.copyCells(cells);
+        for (int i = 0; i < cells.length; i += 2) {
+            int high = i + 1 < cells.length ? cells[i + 1] : 0;
+            out.put((byte) (cells[i] | high << 4));
+        }
+    }
+
+    /**
+     * Substitui a partida atual por um estado escrito por {@link #saveState(ByteBuffer)} e
+     * entrega um resumo com {@link TickResult#STATE_LOADED}. O modo de sorteio passa a ser o do estado.
+     * @throws IllegalArgumentException Se o estado foi guardado num tabuleiro de outras dimensões.
+     */
+    public void loadState(ByteBuffer in) {
+        int width = in.getShort();
+        int height = in.getShort();
+        if (width != board.getWidth() || height != board.getHeight()) {
+            throw new IllegalArgumentException("O estado foi guardado num tabuleiro " + width + "x" + height);
+        }
+        RandomizerType type = RANDOMIZER_TYPES[in.get()];
+        long stateSeed = in.getLong();
+        if (randomizer == null || type != randomizerType || stateSeed != seed) {
+            randomizerType = type;
+            seed = stateSeed;
+            randomizer = type.create(stateSeed);
+        }
+        tick = in.getLong();
+        score = in.getInt();
+        level = in.getInt();
+        linesCleared = in.getInt();
+        state = STATES[in.get()];
+        gravityProgress = in.getLong();
+        pieceType = PieceType.of(in.get());
+        rotation = in.get();
+        pieceX = in.getShort();
+        pieceY = in.getShort();
+        nextType = PieceType.of(in.get());
+        randomizer.loadState(in);
+        byte[] cells = cellsBuffer();
+        for (int i = 0; i < cells.length; i += 2) {
+            byte packed = in.get();
+            cells[i] = (byte) (packed & 0x0F);
+            if (i + 1 < cells.length) {
+                cells[i + 1] = (byte) ((packed >>> 4) & 0x0F);
+            }
+        }
+        board.loadCells(cells);
+        boardVersion++;
+        pieceLocked = false;
+        if (state == GameState.GAME_OVER) {
+            ghostY = pieceY;
+        } else {
+            updateGhost();
+        }
+        tickResult.begin(tick, this);
+        tickResult.add(TickResult.STATE_LOADED | TickResult.SPAWN | TickResult.SCORE_CHANGED);
+        dispatch();
+    }
+
+    private byte[] cellsBuffer() {
+        if (stateCells == null) {
+            stateCells = new byte[board.getWidth() * board.getHeight()];
+        }
+        return stateCells;
+    }
+
+    /** @return Quanto a peça desce por passo no nível atual, em {@link #GRAVITY_UNIT} por passo. */
+    public long getGravity() {
+        double seconds;
+        if (level <= 3) {
+            seconds = 1.0;
+        } else if (level <= 6) {
+            seconds = 0.7;
+        } else {
+            seconds = 0.4;
+        }
+        // Arredonda para cima para a linha cair exatamente no passo esperado, sem atrasar um passo
+        return (long) Math.ceil(GRAVITY_UNIT / (seconds * TICKS_PER_SECOND));
+    }
+
+    /**
+     * @return Fração (0 a 1) da próxima linha já percorrida pela gravidade, para a interface
+     *         poder desenhar a descida de forma contínua entre dois passos.
+     */
+    public double getGravityProgress() {
+        return (double) gravityProgress / GRAVITY_UNIT;
+    }
+
+    /**
+     * Tira uma fotografia imutável do estado atual, reaproveitando as células de
+     * {@code previous} se o tabuleiro não mudou desde então.
+     * @param previous A fotografia anterior (ou null).
+     * @param timestamp Instante associado ao passo, devolvido por {@link GameSnapshot#getTimestamp()}.
+     */
+    public GameSnapshot snapshot(GameSnapshot previous, long timestamp) {
+        return new GameSnapshot(this, previous, timestamp);
+    }
+
+    /** Define o modo de sorteio usado a partir da próxima partida. */
+    public void setRandomizerType(RandomizerType randomizerType) {
+        this.randomizerType = randomizerType;
+    }
+
+    public RandomizerType getRandomizerType() { return randomizerType; }
+    /** @return A semente da partida atual. */
+    public long getSeed() { return seed; }
+    public long getTick() { return tick; }
+    public int getBoardVersion() { return boardVersion; }
+    public Board getBoard() { return board; }
+    /** @return O tipo da peça em jogo, ou null antes da primeira partida. */
+    public PieceType getPieceType() { return pieceType; }
+    public int getRotation() { return rotation; }
+    public int getPieceX() { return pieceX; }
+    public int getPieceY() { return pieceY; }
+    /** @return A orientação atual da peça em jogo. */
+    public Orientation getPieceShape() { return pieceType.getOrientation(rotation); }
+    public PieceType getNextType() { return nextType; }
+    /** @return A linha (y) onde a peça atual pousaria numa queda rápida. */
+    public int getGhostY() { return ghostY; }
+    public int getScore() { return score; }
+    public int getLevel() { return level; }
+    public int getLinesCleared() { return linesCleared; }
+    public GameState getState() { return state; }
+
+    /**
+     * Regista um assinante dos resumos de cada passo. As entregas são feitas na thread
+     * que executa o núcleo.
+     */
+    public void addTickListener(TickListener tickListener) {
+        TickListener[] current = tickListeners;
+        TickListener[] updated = Arrays.copyOf(current, current.length + 1);
+        updated[current.length] = tickListener;
+        tickListeners = updated;
+    }
+
+    public void removeTickListener(TickListener tickListener) {
+        TickListener[] current = tickListeners;
+        for (int i = 0; i < current.length; i++) {
+            if (current[i] == tickListener) {
+                TickListener[] updated = new TickListener[current.length - 1];
+                System.arraycopy(current, 0, updated, 0, i);
+                System.arraycopy(current, i + 1, updated, i, current.length - i - 1);
+                tickListeners = updated;
+                return;
+            }
+        }
+    }
+}
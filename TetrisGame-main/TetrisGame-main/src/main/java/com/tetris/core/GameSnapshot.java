@@ -0,0 +1,101 @@
+package com.tetris.core;
+
+import com.tetris.core.tetromino.Orientation;
+import com.tetris.core.tetromino.PieceType;
+
+/**
+ * Fotografia imutável do estado do jogo num passo lógico.
+ * É publicada pela thread da simulação e lida pela interface sem sincronização:
+ * nenhum campo muda depois da construção e as células do tabuleiro são uma cópia,
+ * partilhada entre fotografias consecutivas enquanto o tabuleiro não muda.
+ */
+public final class GameSnapshot {
+
+    private final int boardWidth;
+    private final int boardHeight;
+    private final byte[] cells;
+    private final int boardVersion;
+
+    private final Orientation pieceShape;
+    private final int pieceX;
+    private final int pieceY;
+    private final int piecePalette;
+    private final int ghostY;
+    private final Orientation nextShape;
+    private final int nextPalette;
+
+    private final int score;
+    private final int level;
+    private final int linesCleared;
+    private final GameState state;
+    private final long tick;
+    private final double gravityProgress;
+    private final double gravity;
+    private final long timestamp;
+
+    GameSnapshot(GameCore core, GameSnapshot previous, long timestamp) {
+        Board board = core.getBoard();
+        this.boardWidth = board.getWidth();
+        this.boardHeight = board.getHeight();
+        this.boardVersion = core.getBoardVersion();
+        if (previous != null && previous.boardVersion == boardVersion && previous.boardWidth == boardWidth) {
+            this.cells = previous.cells;
+        } else {
+            this.cells = new byte[boardWidth * boardHeight];
+            board.copyCells(cells);
+        }
+
+        PieceType piece = core.getPieceType();
+        this.pieceShape = piece != null ? piece.getOrientation(core.getRotation()) : null;
+        this.pieceX = core.getPieceX();
+        this.pieceY = core.getPieceY();
+        this.piecePalette = piece != null ? piece.getPaletteIndex() : 0;
+        this.ghostY = core.getGhostY();
+        PieceType next = core.getNextType();
+        this.nextShape = next != null ? next.getOrientation(0) : null;
+        this.nextPalette = next != null ? next.getPaletteIndex() : 0;
+
+        this.score = core.getScore();
+        this.level = core.getLevel();
+        this.linesCleared = core.getLinesCleared();
+        this.state = core.getState();
+        this.tick = core.getTick();
+        this.gravityProgress = core.getGravityProgress();
+        this.gravity = (double) core.getGravity() / GameCore.GRAVITY_UNIT;
+        this.timestamp = timestamp;
+    }
+
+    /**
+     * Deslocamento vertical (em linhas, de 0 a 1) com que a peça atual deve ser desenhada
+     * quando já passou a fração {@code alpha} do passo seguinte. Uma peça apoiada não desce.
+     */
+    public double fallOffset(double alpha) {
+        if (state != GameState.PLAYING || pieceShape == null || ghostY == pieceY) {
+            return 0;
+        }
+        return Math.min(gravityProgress + alpha * gravity, 1.0);
+    }
+
+    public int getBoardWidth() { return boardWidth; }
+    public int getBoardHeight() { return boardHeight; }
+
+    /** @return O índice de paleta da célula (x, y), ou 0 se estiver vazia. */
+    public int getCell(int x, int y) { return cells[y * boardWidth + x]; }
+
+    /** @return A orientação atual da peça em jogo, ou null antes de o jogo começar. */
+    public Orientation getPieceShape() { return pieceShape; }
+    public int getPieceX() { return pieceX; }
+    public int getPieceY() { return pieceY; }
+    public int getPiecePalette() { return piecePalette; }
+    public int getGhostY() { return ghostY; }
+    public Orientation getNextShape() { return nextShape; }
+    public int getNextPalette() { return nextPalette; }
+    public int getScore() { return score; }
+    public int getLevel() { return level; }
+    public int getLinesCleared() { return linesCleared; }
+    public GameState getState() { return state; }
+    /** @return O número do passo lógico fotografado. */
+    public long getTick() { return tick; }
+    /** @return O instante (no relógio de quem publicou) a que este passo corresponde. */
+    public long getTimestamp() { return timestamp; }
+}
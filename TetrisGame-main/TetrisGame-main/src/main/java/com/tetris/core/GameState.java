@@ -1,4 +1,4 @@
-package com.tetris.model;
+package com.tetris.core;
 
 /**
  * Enum que representa os possíveis estados do jogo.
@@ -0,0 +1,20 @@
+package com.tetris.core;
+
+/**
+ * Comandos do jogador aceites pelo {@link GameCore}.
+ * Cada comando é um bit, para que vários possam ser combinados num único passo
+ * (ex: {@code LEFT | ROTATE}) sem alocar objetos.
+ */
+public final class Input {
+    public static final int NONE = 0;
+    public static final int LEFT = 1;
+    public static final int RIGHT = 1 << 1;
+    public static final int SOFT_DROP = 1 << 2;
+    /** Rodar no sentido horário. */
+    public static final int ROTATE = 1 << 3;
+    public static final int HARD_DROP = 1 << 4;
+    /** Rodar no sentido anti-horário (ignorado se vier junto com {@link #ROTATE}). */
+    public static final int ROTATE_CCW = 1 << 5;
+
+    private Input() {}
+}
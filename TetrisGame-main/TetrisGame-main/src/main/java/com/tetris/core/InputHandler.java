@@ -0,0 +1,160 @@
+package com.tetris.core;
+
+/**
+ * Teclas do jogador sobre o relógio da simulação: em vez de depender da repetição de
+ * teclas do sistema operativo, sabe que teclas estão premidas e repete-as ela própria, em
+ * passos do {@link GameCore}, com tempos configuráveis:
+ * <ul>
+ *   <li><b>DAS</b> (delayed auto shift): quanto tempo esquerda ou direita têm de estar
+ *       premidas até a peça começar a deslizar sozinha;</li>
+ *   <li><b>ARR</b> (auto repeat rate): passos entre deslocamentos automáticos depois do DAS;
+ *       com 0 a peça vai logo até à parede;</li>
+ *   <li><b>SDF</b> (soft drop factor): com a tecla para baixo premida, a peça cai
+ *       {@code softDropFactor} vezes mais depressa do que a gravidade.</li>
+ * </ul>
+ *
+ * As teclas usam os bits de {@link Input}. Uma tecla acabada de premir atua logo, com
+ * {@link #press}, fora do relógio (sem esperar pelo próximo passo); {@link #step} avança um
+ * passo com as repetições das teclas seguras. Se esquerda e direita estão premidas, ganha a
+ * última; ao soltá-la, a outra volta a contar o DAS. Como o núcleo, só deve ser usado na
+ * thread que o executa, e não aloca nada.
+ */
+public final class InputHandler {
+
+    /** DAS padrão: 167 ms (10 quadros a 60 Hz). */
+    public static final int DEFAULT_DAS_MILLIS = 167;
+    /** ARR padrão: 33 ms (2 quadros a 60 Hz). */
+    public static final int DEFAULT_ARR_MILLIS = 33;
+    public static final int DEFAULT_SOFT_DROP_FACTOR = 20;
+
+    // Teclas que só atuam quando são premidas
+    private static final int ONE_SHOT = Input.ROTATE | Input.ROTATE_CCW | Input.HARD_DROP;
+
+    private final int dasTicks;
+    private final int arrTicks;
+    private final int softDropFactor;
+
+    // Direção a deslizar (Input.LEFT, Input.RIGHT ou NONE) e passos desde que foi premida
+    private int shift;
+    private int shiftTicks;
+    private long softDropProgress;
+
+    /**
+     * @param dasTicks Passos até a repetição começar.
+     * @param arrTicks Passos entre repetições (0: até à parede no mesmo passo).
+     * @param softDropFactor Múltiplo da gravidade com a queda suave premida (pelo menos 1).
+     */
+    public InputHandler(int dasTicks, int arrTicks, int softDropFactor) {
+        if (dasTicks < 0 || arrTicks < 0 || softDropFactor < 1) {
+            throw new IllegalArgumentException("DAS e ARR não podem ser negativos, e o SDF tem de ser pelo menos 1");
+        }
+        this.dasTicks = dasTicks;
+        this.arrTicks = arrTicks;
+        this.softDropFactor = softDropFactor;
+    }
+
+    /** @return Um tratador com DAS e ARR em milissegundos, arredondados ao passo mais próximo. */
+    public static InputHandler ofMillis(int dasMillis, int arrMillis, int softDropFactor) {
+        return new InputHandler(toTicks(dasMillis), toTicks(arrMillis), softDropFactor);
+    }
+
+    private static int toTicks(int millis) {
+        return Math.round(millis * GameCore.TICKS_PER_SECOND / 1000f);
+    }
+
+    /**
+     * Aplica já as teclas acabadas de premir: um deslocamento, uma rotação, uma linha de
+     * queda suave ou a queda rápida, e começa a contar o DAS.
+     * @param pressed Teclas premidas desde a última chamada (bits de {@link Input}).
+     * @param held Teclas premidas neste momento; uma tecla premida e já solta atua uma vez.
+     */
+    public void press(GameCore core, int pressed, int held) {
+        if (pressed == Input.NONE) {
+            return;
+        }
+        int direction = pressed & (Input.LEFT | Input.RIGHT);
+        if (direction == (Input.LEFT | Input.RIGHT)) {
+            // As duas no mesmo instante: nenhuma ganha
+            direction = Input.NONE;
+        }
+        if (direction != Input.NONE) {
+            shift = direction;
+            shiftTicks = 0;
+        }
+        if ((pressed & Input.SOFT_DROP) != 0) {
+            softDropProgress = 0;
+        }
+        core.applyInput(pressed & (ONE_SHOT | Input.SOFT_DROP) | direction);
+        if ((held & shift) == 0) {
+            shift = Input.NONE;
+        }
+    }
+
+    /**
+     * Avança o núcleo um passo ({@link GameCore#step(int)}) com as repetições devidas às
+     * teclas seguras.
+     * @param held Teclas premidas neste momento (bits de {@link Input}).
+     */
+    public void step(GameCore core, int held) {
+        int input = Input.NONE;
+        int extraDrops = 0;
+        boolean toWall = false;
+        if ((held & shift) == 0) {
+            // A tecla a deslizar foi solta: a outra, se ainda premida, recomeça o DAS
+            int other = held & (Input.LEFT | Input.RIGHT);
+            shift = other == (Input.LEFT | Input.RIGHT) ? Input.NONE : other;
+            shiftTicks = 0;
+        } else if (++shiftTicks >= dasTicks) {
+            if (arrTicks == 0) {
+                toWall = true;
+            } else if ((shiftTicks - dasTicks) % arrTicks == 0) {
+                input |= shift;
+            }
+        }
+        if ((held & Input.SOFT_DROP) != 0 && softDropFactor > 1) {
+            // A gravidade já faz uma parte; a queda suave acrescenta o resto
+            softDropProgress += core.getGravity() * (softDropFactor - 1);
+            if (softDropProgress >= GameCore.GRAVITY_UNIT) {
+                softDropProgress -= GameCore.GRAVITY_UNIT;
+                input |= Input.SOFT_DROP;
+            }
+            while (softDropProgress >= GameCore.GRAVITY_UNIT && extraDrops < core.getBoard().getHeight()) {
+                softDropProgress -= GameCore.GRAVITY_UNIT;
+                extraDrops++;
+            }
+        } else {
+            softDropProgress = 0;
+        }
+        core.step(input);
+        if (toWall) {
+            shiftToWall(core);
+        }
+        for (int i = 0; i < extraDrops && core.getState() == GameState.PLAYING; i++) {
+            core.applyInput(Input.SOFT_DROP);
+        }
+    }
+
+    /** ARR 0: desloca a peça até parar (no máximo a largura do tabuleiro). */
+    private void shiftToWall(GameCore core) {
+        int width = core.getBoard().getWidth();
+        for (int i = 0; i < width && core.getState() == GameState.PLAYING; i++) {
+            int x = core.getPieceX();
+            int y = core.getPieceY();
+            core.applyInput(shift);
+            if (core.getPieceX() == x && core.getPieceY() == y) {
+                return;
+            }
+        }
+    }
+
+    /** Esquece as teclas seguras (nova partida, retoma depois da pausa). */
+    public void reset() {
+        shift = Input.NONE;
+        shiftTicks = 0;
+        softDropProgress = 0;
+    }
+
+    public int getDasTicks() { return dasTicks; }
+    public int getArrTicks() { return arrTicks; }
+    public int getSoftDropFactor() { return softDropFactor; }
+}
@@ -0,0 +1,180 @@
+package com.tetris.core;
+
+import java.nio.ByteBuffer;
+
+/**
+ * Histórico recente de um {@link GameCore} para o modo de treino: recuar alguns segundos ou
+ * desfazer as últimas peças. Guarda o estado completo do núcleo ({@link GameCore#saveState},
+ * menos de 200 bytes num tabuleiro 10x20) num anel de {@code capacity} posições reservado à
+ * partida, por isso a memória é limitada e gravar ou repor um estado não cria lixo; quando o
+ * anel enche, o estado mais antigo é substituído.
+ *
+ * Um estado é guardado no início de cada partida, a cada peça fixada e, quando quem corre o
+ * núcleo chama {@link #afterStep()} depois de cada passo, de {@code interval} em {@code interval}
+ * passos (o núcleo só entrega os passos em que algo aconteceu, por isso a queda de uma peça não
+ * chegaria a este assinante). Repor um estado custa o mesmo qualquer que seja a distância recuada.
+ *
+ * Como os outros assinantes, só deve ser usado na thread que executa o núcleo.
+ */
+public class RewindBuffer implements TickListener {
+
+    /** Intervalo padrão entre estados guardados a meio da queda: um quarto de segundo. */
+    public static final int DEFAULT_INTERVAL = GameCore.TICKS_PER_SECOND / 4;
+
+    private final GameCore core;
+    private final int capacity;
+    private final int interval;
+
+    private byte[] slots;
+    private int slotSize;
+    private ByteBuffer view;
+    // Passo e número de peças fixadas de cada estado guardado
+    private final long[] ticks;
+    private final int[] pieces;
+    // Posição do estado mais recente e quantos há
+    private int newest = -1;
+    private int count;
+
+    private int piecesPlaced;
+    private long nextTick;
+    // true enquanto o próprio histórico repõe um estado (o STATE_LOADED que isso gera não o esvazia)
+    private boolean restoring;
+
+    /**
+     * @param core O núcleo acompanhado; o histórico ainda tem de ser registado com {@code addTickListener}.
+     * @param capacity Estados guardados no máximo (a memória usada é {@link #getMemoryBytes()}).
+     * @param interval Passos entre estados guardados a meio da queda de uma peça.
+     */
+    public RewindBuffer(GameCore core, int capacity, int interval) {
+        if (capacity < 1 || interval < 1) {
+            throw new IllegalArgumentException("A capacidade e o intervalo têm de ser positivos");
+        }
+        this.core = core;
+        this.capacity = capacity;
+        this.interval = interval;
+        this.ticks = new long[capacity];
+        this.pieces = new int[capacity];
+    }
+
+    @Override
+    public void onTick(TickResult result) {
+        if (result.has(TickResult.NEW_GAME)) {
+            clear();
+            record();
+        } else if (result.has(TickResult.STATE_LOADED)) {
+            if (!restoring) {
+                // Outra partida (uma partida guardada, por exemplo): o histórico já não é dela
+                clear();
+                record();
+            }
+        } else if (result.has(TickResult.LOCK)) {
+            piecesPlaced++;
+            record();
+        }
+    }
+
+    /** Guarda o estado se já passaram {@code interval} passos desde o último guardado. */
+    public void afterStep() {
+        if (count > 0 && core.getTick() >= nextTick) {
+            record();
+        }
+    }
+
+    private void record() {
+        if (core.getState() != GameState.PLAYING) {
+            // Um fim de jogo não serve de ponto de retorno
+            return;
+        }
+        int size = core.getStateSize();
+        if (size > slotSize) {
+            // Só na primeira partida ou se o modo de sorteio passou a guardar mais estado
+            slotSize = size;
+            slots = new byte[capacity * slotSize];
+            view = ByteBuffer.wrap(slots);
+            newest = -1;
+            count = 0;
+        }
+        newest = (newest + 1) % capacity;
+        count = Math.min(count + 1, capacity);
+        view.limit((newest + 1) * slotSize).position(newest * slotSize);
+        core.saveState(view);
+        ticks[newest] = core.getTick();
+        pieces[newest] = piecesPlaced;
+        nextTick = core.getTick() + interval;
+    }
+
+    /**
+     * Recua pelo menos {@code ticks} passos: repõe o estado mais recente guardado até esse
+     * ponto, ou o mais antigo se o histórico não chegar tão atrás. Os estados mais recentes
+     * do que o reposto são descartados.
+     * @return false se não havia nenhum estado guardado.
+     */
+    public boolean rewind(long ticks) {
+        long target = core.getTick() - ticks;
+        int k = count - 1;
+        while (k > 0 && this.ticks[slot(k)] > target) {
+            k--;
+        }
+        return restore(k);
+    }
+
+    /**
+     * Desfaz as últimas {@code n} peças fixadas: repõe o estado do momento em que a primeira
+     * delas entrou em jogo (ou o mais antigo guardado, se o histórico não chegar tão atrás).
+     * @return false se não havia nenhum estado guardado.
+     */
+    public boolean undo(int n) {
+        int target = piecesPlaced - n;
+        int k = count - 1;
+        while (k > 0 && pieces[slot(k)] > target) {
+            k--;
+        }
+        // Entre os estados com o mesmo número de peças, o primeiro é o da entrada da peça
+        while (k > 0 && pieces[slot(k - 1)] == pieces[slot(k)]) {
+            k--;
+        }
+        return restore(k);
+    }
+
+    /** Repõe o k-ésimo estado guardado (0 é o mais antigo) e descarta os posteriores. */
+    private boolean restore(int k) {
+        if (k < 0) {
+            return false;
+        }
+        int index = slot(k);
+        view.limit((index + 1) * slotSize).position(index * slotSize);
+        restoring = true;
+        try {
+            core.loadState(view);
+        } finally {
+            restoring = false;
+        }
+        newest = index;
+        count = k + 1;
+        piecesPlaced = pieces[index];
+        nextTick = ticks[index] + interval;
+        return true;
+    }
+
+    /** @return A posição no anel do k-ésimo estado guardado, do mais antigo (0) ao mais recente. */
+    private int slot(int k) {
+        return Math.floorMod(newest - (count - 1 - k), capacity);
+    }
+
+    /** Esquece todos os estados guardados (a memória reservada mantém-se). */
+    public void clear() {
+        newest = -1;
+        count = 0;
+        piecesPlaced = 0;
+    }
+
+    /** @return Quantos estados estão guardados. */
+    public int size() { return count; }
+    public int getCapacity() { return capacity; }
+    /** @return Peças fixadas desde o início da partida, sem as desfeitas. */
+    public int getPiecesPlaced() { return piecesPlaced; }
+    /** @return O passo do estado mais antigo guardado, ou -1 se não há nenhum. */
+    public long getOldestTick() { return count == 0 ? -1 : ticks[slot(0)]; }
+    /** @return Os bytes reservados para os estados (zero antes da primeira partida). */
+    public int getMemoryBytes() { return slots == null ? 0 : slots.length; }
+}
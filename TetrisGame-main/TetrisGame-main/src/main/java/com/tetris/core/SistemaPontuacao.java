@@ -1,4 +1,4 @@
-package com.tetris.model;
+package com.tetris.core;
 
 public class SistemaPontuacao {
     public static int calcularPontuacao(int linhasRemovidas, int nivel) {
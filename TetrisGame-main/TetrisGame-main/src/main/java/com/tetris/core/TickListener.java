@@ -0,0 +1,13 @@
+package com.tetris.core;
+
+/**
+ * Recebe o resumo de cada passo do {@link GameCore} em que algo aconteceu.
+ * A chamada é feita na thread que executa o núcleo; o {@link TickResult} é reaproveitado
+ * pelo núcleo e só é válido durante a chamada. Para receber os passos agrupados noutra
+ * thread (por exemplo, uma vez por quadro na interface) use {@link BatchingTickListener}.
+ */
+@FunctionalInterface
+public interface TickListener {
+
+    void onTick(TickResult result);
+}
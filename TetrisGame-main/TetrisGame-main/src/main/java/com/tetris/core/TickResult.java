@@ -0,0 +1,177 @@
+package com.tetris.core;
+
+/**
+ * Resumo de tudo o que aconteceu num passo lógico do {@link GameCore}: os acontecimentos
+ * (como bits de uma máscara), as linhas eliminadas, a variação de pontuação e os valores
+ * finais de pontuação, nível e estado.
+ *
+ * O núcleo preenche e reaproveita uma única instância, entregue uma vez por passo aos
+ * {@link TickListener}; ela só é válida durante a chamada. Quem precisa de a guardar ou
+ * de juntar vários passos num só resumo usa {@link #mergeFrom(TickResult)}.
+ */
+public final class TickResult {
+
+    /** Uma peça foi fixada no tabuleiro. */
+    public static final int LOCK = 1;
+    /** Uma nova peça entrou em jogo (e a próxima mudou). */
+    public static final int SPAWN = 1 << 1;
+    public static final int ROTATE = 1 << 2;
+    public static final int SOFT_DROP = 1 << 3;
+    public static final int HARD_DROP = 1 << 4;
+    /** Uma ou mais linhas foram eliminadas. */
+    public static final int LINES_CLEARED = 1 << 5;
+    /** Pontuação, nível ou total de linhas mudaram. */
+    public static final int SCORE_CHANGED = 1 << 6;
+    public static final int LEVEL_UP = 1 << 7;
+    /** O estado do jogo (a jogar, em pausa, fim de jogo) mudou. */
+    public static final int STATE_CHANGED = 1 << 8;
+    public static final int GAME_OVER = 1 << 9;
+    /** Uma nova partida começou (pontuação e tabuleiro reiniciados). */
+    public static final int NEW_GAME = 1 << 10;
+    /**
+     * Todo o estado foi substituído por um estado guardado ({@link GameCore#loadState}):
+     * tabuleiro, peças, pontuação e estado podem ter mudado sem os acontecimentos habituais.
+     */
+    public static final int STATE_LOADED = 1 << 11;
+
+    private long firstTick;
+    private long lastTick;
+    private int input;
+    // true se o resumo cobre um passo lógico (e não só comandos aplicados fora do relógio)
+    private boolean step;
+    private int events;
+    private int linesCleared;
+    private int largestClear;
+    private int scoreDelta;
+    private int score;
+    private int level;
+    private int totalLines;
+    private GameState state;
+
+    /** Recomeça o resumo para o passo {@code tick}, sem acontecimentos. */
+    void begin(long tick, GameCore core) {
+        firstTick = tick;
+        lastTick = tick;
+        input = Input.NONE;
+        step = false;
+        events = 0;
+        linesCleared = 0;
+        largestClear = 0;
+        scoreDelta = 0;
+        score = core.getScore();
+        level = core.getLevel();
+        totalLines = core.getLinesCleared();
+        state = core.getState();
+    }
+
+    void markStep() {
+        step = true;
+    }
+
+    void addInput(int bits) {
+        input |= bits;
+    }
+
+    void add(int event) {
+        events |= event;
+    }
+
+    void addLines(int lines) {
+        events |= LINES_CLEARED;
+        linesCleared += lines;
+        largestClear = Math.max(largestClear, lines);
+    }
+
+    void setScore(int newScore, int newLevel, int newLines) {
+        events |= SCORE_CHANGED;
+        if (newLevel > level) {
+            events |= LEVEL_UP;
+        }
+        if ((events & NEW_GAME) == 0) {
+            scoreDelta += newScore - score;
+        }
+        score = newScore;
+        level = newLevel;
+        totalLines = newLines;
+    }
+
+    void setState(GameState newState) {
+        events |= STATE_CHANGED;
+        if (newState == GameState.GAME_OVER) {
+            events |= GAME_OVER;
+        }
+        state = newState;
+    }
+
+    /**
+     * Junta {@code next} (um passo posterior) a este resumo: os acontecimentos, os comandos,
+     * as linhas e a variação de pontuação acumulam-se, os valores finais passam a ser os de {@code next}.
+     * Se este resumo estiver vazio, passa a ser uma cópia de {@code next}.
+     */
+    public void mergeFrom(TickResult next) {
+        if (isEmpty()) {
+            firstTick = next.firstTick;
+            linesCleared = 0;
+            largestClear = 0;
+            scoreDelta = 0;
+        }
+        if ((next.events & NEW_GAME) != 0) {
+            // Uma nova partida anula a variação de pontuação da anterior
+            scoreDelta = 0;
+        }
+        lastTick = next.lastTick;
+        input |= next.input;
+        step |= next.step;
+        events |= next.events;
+        linesCleared += next.linesCleared;
+        largestClear = Math.max(largestClear, next.largestClear);
+        scoreDelta += next.scoreDelta;
+        score = next.score;
+        level = next.level;
+        totalLines = next.totalLines;
+        state = next.state;
+    }
+
+    /** Esvazia o resumo (sem acontecimentos nem comandos). */
+    public void clear() {
+        input = Input.NONE;
+        step = false;
+        events = 0;
+        linesCleared = 0;
+        largestClear = 0;
+        scoreDelta = 0;
+    }
+
+    /** @return true se não aconteceu nada nem houve comandos. */
+    public boolean isEmpty() {
+        return events == 0 && input == Input.NONE;
+    }
+
+    /** @return true se o acontecimento (uma das constantes desta classe) ocorreu. */
+    public boolean has(int event) {
+        return (events & event) != 0;
+    }
+
+    /** @return Os acontecimentos, como combinação das constantes desta classe. */
+    public int getEvents() { return events; }
+    /** @return O primeiro passo coberto por este resumo. */
+    public long getFirstTick() { return firstTick; }
+    /** @return O último passo coberto por este resumo. */
+    public long getLastTick() { return lastTick; }
+    /**
+     * @return true se o resumo inclui um passo lógico ({@link GameCore#step(int)}); false se só
+     *         cobre comandos aplicados com {@link GameCore#applyInput(int)}, início, pausa ou retoma.
+     */
+    public boolean isStep() { return step; }
+    /** @return Os comandos aplicados, como combinação de bits de {@link Input}. */
+    public int getInput() { return input; }
+    /** @return Linhas eliminadas em todo o resumo. */
+    public int getLinesCleared() { return linesCleared; }
+    /** @return O maior número de linhas eliminadas num só encaixe (1 a 4), ou 0. */
+    public int getLargestClear() { return largestClear; }
+    public int getScoreDelta() { return scoreDelta; }
+    public int getScore() { return score; }
+    public int getLevel() { return level; }
+    public int getTotalLines() { return totalLines; }
+    public GameState getState() { return state; }
+}
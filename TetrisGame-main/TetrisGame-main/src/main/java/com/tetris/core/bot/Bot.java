@@ -0,0 +1,270 @@
+package com.tetris.core.bot;
+
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.RecursiveAction;
+import java.util.concurrent.atomic.AtomicLong;
+
+import com.tetris.core.Board;
+import com.tetris.core.GameCore;
+import com.tetris.core.GameState;
+import com.tetris.core.TickResult;
+import com.tetris.core.tetromino.PieceType;
+
+/**
+ * Pesquisa da jogada do bot com um lance de antecipação: para cada posição da peça atual
+ * ({@link MoveGenerator}), experimenta todas as posições da peça seguinte (a da
+ * pré-visualização) e fica com o melhor tabuleiro que ela permite, avaliado pela
+ * {@link Heuristic}. Ganha a posição da peça atual com o melhor desses tabuleiros.
+ *
+ * As posições da peça atual são repartidas por um {@link ForkJoinPool}: cada tarefa trabalha
+ * sobre cópias do tabuleiro ({@link Board#copyFrom}) com o seu gerador de jogadas, reaproveitados
+ * por trabalhador, e o tabuleiro da partida nunca é alterado. O resultado não depende da ordem
+ * em que as tarefas terminam (num empate ganha a primeira posição), por isso o bot é
+ * determinístico. Os contadores de {@link #toString()} medem a vazão em tabuleiros avaliados
+ * por segundo. Com um só trabalhador não há pool: a pesquisa corre na thread que a pede, o que
+ * serve quem já reparte o trabalho por outras vias (um bot por thread no {@link Tournament}).
+ *
+ * O valor de cada tabuleiro intermédio (o melhor tabuleiro ao alcance da peça seguinte) fica
+ * numa {@link TranspositionTable} fora da heap, partilhada pelos trabalhadores e pelas pesquisas
+ * seguintes e indexada pelo hash de Zobrist do tabuleiro e pela peça. Um tabuleiro a que se chega
+ * por outra ordem de jogadas (duas peças iguais trocadas, linhas eliminadas que apagam a
+ * diferença) não é expandido de novo. Como o valor só depende do tabuleiro e da peça, a cache
+ * não muda as jogadas escolhidas. Os tabuleiros finais não passam pela tabela: avaliá-los custa
+ * menos do que uma consulta que quase sempre falha.
+ *
+ * As pesquisas são feitas por uma thread de cada vez (a que executa o núcleo); as estatísticas
+ * podem ser lidas de qualquer thread.
+ */
+public class Bot implements AutoCloseable {
+
+    /** Entradas da tabela de transposição padrão: 16 MB fora da heap. */
+    public static final int DEFAULT_TABLE_CAPACITY = 1 << 20;
+
+    // Null com um só trabalhador
+    private final ForkJoinPool pool;
+    private final int parallelism;
+    private final Heuristic heuristic;
+    private final TranspositionTable table;
+    // Gerador da peça atual, usado só pela thread que pesquisa
+    private final MoveGenerator rootGenerator = new MoveGenerator();
+    // Gerador e tabuleiros de rascunho de cada trabalhador
+    private final ThreadLocal<Scratch> scratch = ThreadLocal.withInitial(Scratch::new);
+
+    private final AtomicLong searches = new AtomicLong();
+    private final AtomicLong boards = new AtomicLong();
+    private final AtomicLong nanos = new AtomicLong();
+    private volatile long lastBoards;
+    private volatile long lastNanos;
+
+    /** Bot com a heurística padrão, um trabalhador por núcleo e a tabela de transposição padrão. */
+    public Bot() {
+        this(Heuristic.DEFAULT, Runtime.getRuntime().availableProcessors(), DEFAULT_TABLE_CAPACITY);
+    }
+
+    public Bot(Heuristic heuristic, int parallelism, int tableCapacity) {
+        this.heuristic = heuristic;
+        if (parallelism < 1) {
+            throw new IllegalArgumentException("O bot precisa de pelo menos um trabalhador");
+        }
+        this.parallelism = parallelism;
+        this.pool = parallelism > 1 ? new ForkJoinPool(parallelism) : null;
+        this.table = new TranspositionTable(tableCapacity);
+    }
+
+    /**
+     * Escolhe a jogada da peça {@code current}, que está em ({@code rotation}, {@code x}, {@code y}).
+     * @param next A peça seguinte, ou null para avaliar só a atual.
+     * @return A melhor jogada, ou null se a peça não tem nenhuma posição (a posição dada não é válida).
+     */
+    public BotMove search(Board board, PieceType current, int rotation, int x, int y, PieceType next) {
+        long begin = System.nanoTime();
+        int count = rootGenerator.generate(board, current, rotation, x, y);
+        if (count == 0) {
+            return null;
+        }
+        int[] rotations = new int[count];
+        int[] xs = new int[count];
+        int[] ys = new int[count];
+        for (int i = 0; i < count; i++) {
+            rotations[i] = rootGenerator.getRotation(i);
+            xs[i] = rootGenerator.getX(i);
+            ys[i] = rootGenerator.getY(i);
+        }
+        double[] scores = new double[count];
+        int[] evaluated = new int[count];
+        if (pool == null) {
+            for (int i = 0; i < count; i++) {
+                evaluated[i] = evaluate(board, current, next, rotations[i], xs[i], ys[i], scores, i);
+            }
+        } else {
+            pool.invoke(new EvaluateRange(board, current, next, rotations, xs, ys, scores, evaluated, 0, count));
+        }
+
+        int best = 0;
+        long total = 0;
+        for (int i = 0; i < count; i++) {
+            if (scores[i] > scores[best]) {
+                best = i;
+            }
+            total += evaluated[i];
+        }
+        byte[] path = new byte[rootGenerator.getPathLength(best)];
+        rootGenerator.getPath(best, path);
+        long elapsed = System.nanoTime() - begin;
+        searches.incrementAndGet();
+        boards.addAndGet(total);
+        nanos.addAndGet(elapsed);
+        lastBoards = total;
+        lastNanos = elapsed;
+        return new BotMove(rotations[best], xs[best], ys[best], scores[best], path);
+    }
+
+    /**
+     * Avalia a posição {@code i} da peça atual: o melhor tabuleiro que a peça seguinte
+     * consegue a partir dela. Se a seguinte já não entra em jogo, a posição perde a partida.
+     * @return Quantos tabuleiros foram avaliados.
+     */
+    private int evaluate(Board board, PieceType current, PieceType next, int rotation, int x, int y, double[] scores, int i) {
+        Scratch s = scratch.get();
+        s.fit(board);
+        s.first.copyFrom(board);
+        s.first.placePiece(current.getOrientation(rotation), x, y, current.getPaletteIndex());
+        double lineScore = heuristic.getLineWeight() * s.first.clearLines();
+        if (next == null) {
+            scores[i] = lineScore + heuristic.evaluateBoard(s.first);
+            return 1;
+        }
+        double best = table.get(s.first.getHash(), next.ordinal());
+        if (!Double.isNaN(best)) {
+            scores[i] = lineScore + best;
+            return 1;
+        }
+        int count = s.generator.generate(s.first, next);
+        best = Double.NEGATIVE_INFINITY;
+        for (int j = 0; j < count; j++) {
+            s.second.copyFrom(s.first);
+            s.second.placePiece(next.getOrientation(s.generator.getRotation(j)), s.generator.getX(j),
+                    s.generator.getY(j), next.getPaletteIndex());
+            double moreLines = heuristic.getLineWeight() * s.second.clearLines();
+            best = Math.max(best, moreLines + heuristic.evaluateBoard(s.second));
+        }
+        table.put(s.first.getHash(), next.ordinal(), best);
+        scores[i] = lineScore + best;
+        return Math.max(count, 1);
+    }
+
+
+    /** @return A tabela de transposição, com as consultas e os acertos. */
+    public TranspositionTable getTable() { return table; }
+
+    /** @return Pesquisas feitas desde a criação. */
+    public long getSearches() { return searches.get(); }
+    /** @return Tabuleiros avaliados desde a criação. */
+    public long getBoardsEvaluated() { return boards.get(); }
+
+    /** @return Tabuleiros avaliados por segundo de pesquisa, desde a criação (0 antes da primeira). */
+    public double getBoardsPerSecond() {
+        long elapsed = nanos.get();
+        return elapsed == 0 ? 0 : boards.get() * 1e9 / elapsed;
+    }
+
+    @Override
+    public void close() {
+        if (pool != null) {
+            pool.shutdown();
+        }
+    }
+
+    @Override
+    public String toString() {
+        long count = searches.get();
+        return String.format("%d pesquisas, %d tabuleiros (%.0f mil tabuleiros/s, %.2f ms por pesquisa em média, %d trabalhadores); última: %d tabuleiros em %.2f ms",
+                count, boards.get(), getBoardsPerSecond() / 1000, count == 0 ? 0 : nanos.get() / 1e6 / count,
+                parallelism, lastBoards, lastNanos / 1e6) + "; tabela: " + table;
+    }
+
+    /** Rascunho de um trabalhador, refeito só se o tabuleiro mudar de dimensões. */
+    private static final class Scratch {
+        final MoveGenerator generator = new MoveGenerator();
+        Board first;
+        Board second;
+
+        void fit(Board board) {
+            if (first == null || first.getWidth() != board.getWidth() || first.getHeight() != board.getHeight()) {
+                first = new Board(board.getWidth(), board.getHeight());
+                second = new Board(board.getWidth(), board.getHeight());
+            }
+        }
+    }
+
+    /** Divide as posições da peça atual ao meio até sobrar uma por tarefa. */
+    private final class EvaluateRange extends RecursiveAction {
+        private final Board board;
+        private final PieceType current;
+        private final PieceType next;
+        private final int[] rotations;
+        private final int[] xs;
+        private final int[] ys;
+        private final double[] scores;
+        private final int[] evaluated;
+        private final int from;
+        private final int to;
+
+        EvaluateRange(Board board, PieceType current, PieceType next, int[] rotations, int[] xs, int[] ys,
+                      double[] scores, int[] evaluated, int from, int to) {
+            this.board = board;
+            this.current = current;
+            this.next = next;
+            this.rotations = rotations;
+            this.xs = xs;
+            this.ys = ys;
+            this.scores = scores;
+            this.evaluated = evaluated;
+            this.from = from;
+            this.to = to;
+        }
+
+        @Override
+        protected void compute() {
+            if (to - from <= 1) {
+                if (to > from) {
+                    evaluated[from] = evaluate(board, current, next, rotations[from], xs[from], ys[from], scores, from);
+                }
+                return;
+            }
+            int middle = (from + to) >>> 1;
+            invokeAll(new EvaluateRange(board, current, next, rotations, xs, ys, scores, evaluated, from, middle),
+                    new EvaluateRange(board, current, next, rotations, xs, ys, scores, evaluated, middle, to));
+        }
+    }
+
+    /**
+     * Joga uma partida sem ecrã, o mais depressa possível, e mostra a pontuação e a vazão da
+     * pesquisa. Uso: {@code Bot [peças] [semente]} (por omissão 1000 peças, semente 1).
+     */
+    public static void main(String[] args) {
+        int pieces = args.length > 0 ? Integer.parseInt(args[0]) : 1000;
+        long seed = args.length > 1 ? Long.parseLong(args[1]) : 1;
+        try (Bot bot = new Bot()) {
+            GameCore core = new GameCore();
+            BotPlayer player = new BotPlayer(bot, 0);
+            core.addTickListener(player);
+            int[] locked = new int[1];
+            core.addTickListener(result -> {
+                if (result.has(TickResult.LOCK)) {
+                    locked[0]++;
+                }
+            });
+            long begin = System.nanoTime();
+            core.start(seed);
+            while (core.getState() == GameState.PLAYING && locked[0] < pieces) {
+                player.step(core);
+            }
+            long elapsed = System.nanoTime() - begin;
+            System.out.printf("%d peças, %d linhas, %d pontos%s em %.2f s (%.0f peças/s)%n", locked[0],
+                    core.getLinesCleared(), core.getScore(), core.getState() == GameState.GAME_OVER ? " (fim de jogo)" : "",
+                    elapsed / 1e9, locked[0] * 1e9 / elapsed);
+            System.out.println(bot);
+        }
+    }
+}
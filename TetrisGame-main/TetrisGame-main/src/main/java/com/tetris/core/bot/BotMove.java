@@ -0,0 +1,32 @@
+package com.tetris.core.bot;
+
+/**
+ * Jogada escolhida pelo {@link Bot}: onde a peça fica e os comandos para lá chegar (constantes
+ * de {@link MoveGenerator}), a partir da posição em que a peça estava quando a pesquisa começou.
+ * Depois dos comandos falta só fixar a peça. Imutável.
+ */
+public final class BotMove {
+
+    private final int rotation;
+    private final int x;
+    private final int y;
+    private final double score;
+    private final byte[] path;
+
+    BotMove(int rotation, int x, int y, double score, byte[] path) {
+        this.rotation = rotation;
+        this.x = x;
+        this.y = y;
+        this.score = score;
+        this.path = path;
+    }
+
+    public int getRotation() { return rotation; }
+    public int getX() { return x; }
+    public int getY() { return y; }
+    /** @return A avaliação do melhor tabuleiro ao alcance desta jogada (com a peça seguinte, se conhecida). */
+    public double getScore() { return score; }
+    public int getPathLength() { return path.length; }
+    /** @return O {@code i}-ésimo comando do caminho. */
+    public byte getCommand(int i) { return path[i]; }
+}
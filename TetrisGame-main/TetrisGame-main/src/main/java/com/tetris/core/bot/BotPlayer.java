@@ -0,0 +1,127 @@
+package com.tetris.core.bot;
+
+import com.tetris.core.GameCore;
+import com.tetris.core.GameState;
+import com.tetris.core.Input;
+import com.tetris.core.TickListener;
+import com.tetris.core.TickResult;
+
+/**
+ * Jogador automático: ocupa o lugar do {@link com.tetris.core.InputHandler} e avança o núcleo
+ * um passo de cada vez, com os comandos escolhidos pelo {@link Bot} em vez das teclas. A cada
+ * peça nova pesquisa a jogada a partir da posição em que a peça está (com a peça seguinte
+ * como antecipação) e envia o caminho ao núcleo com {@link GameCore#applyInput(int)}, um
+ * comando a cada {@code ticksPerMove} passos, terminando com a queda rápida.
+ *
+ * Quando a gravidade é tão rápida que a peça desceria uma linha entre dois comandos (ou com
+ * {@code ticksPerMove} 0), o caminho inteiro é enviado logo no passo em que a peça entra, antes
+ * de a gravidade atuar, e a fixação fica para a própria gravidade: a 20G a peça seguinte não
+ * chega a cair antes de o bot a mover. Se a gravidade deslocar a peça a meio do caminho, a
+ * jogada é pesquisada de novo a partir da posição nova.
+ *
+ * Tem de estar registado como assinante do núcleo (para saber quando entra uma peça nova) e,
+ * como o núcleo, só deve ser usado na thread que o executa.
+ */
+public final class BotPlayer implements TickListener {
+
+    private final Bot bot;
+    private final int ticksPerMove;
+
+    private BotMove move;
+    // Próximo comando do caminho (getPathLength() é a queda rápida final) e passos até ele
+    private int next;
+    private int wait;
+    private boolean newPiece = true;
+    // Posição em que o último comando deixou a peça
+    private int expectedRotation;
+    private int expectedX;
+    private int expectedY;
+
+    /**
+     * @param bot A pesquisa usada; pode ser partilhada com outros jogadores da mesma thread.
+     * @param ticksPerMove Passos entre comandos (0: a jogada inteira no mesmo passo).
+     */
+    public BotPlayer(Bot bot, int ticksPerMove) {
+        if (ticksPerMove < 0) {
+            throw new IllegalArgumentException("O intervalo entre comandos não pode ser negativo");
+        }
+        this.bot = bot;
+        this.ticksPerMove = ticksPerMove;
+    }
+
+    @Override
+    public void onTick(TickResult result) {
+        if (result.has(TickResult.SPAWN) || result.has(TickResult.NEW_GAME) || result.has(TickResult.STATE_LOADED)) {
+            newPiece = true;
+        }
+    }
+
+    /** Envia os comandos devidos neste passo e avança o núcleo um passo ({@link GameCore#step(int)}). */
+    public void step(GameCore core) {
+        if (core.getState() == GameState.PLAYING) {
+            if (newPiece || move == null || moved(core)) {
+                plan(core);
+            }
+            if (ticksPerMove == 0 || core.getGravity() * ticksPerMove >= GameCore.GRAVITY_UNIT) {
+                // A peça fica no sítio antes da gravidade deste passo; se ela for lenta, fixa-a já
+                while (move != null && next < move.getPathLength()) {
+                    apply(core);
+                }
+                if (move != null && core.getGravity() < GameCore.GRAVITY_UNIT) {
+                    apply(core);
+                }
+            } else if (--wait <= 0) {
+                apply(core);
+                wait = ticksPerMove;
+            }
+        }
+        core.step(Input.NONE);
+    }
+
+    private void plan(GameCore core) {
+        newPiece = false;
+        move = bot.search(core.getBoard(), core.getPieceType(), core.getRotation(), core.getPieceX(),
+                core.getPieceY(), core.getNextType());
+        next = 0;
+        wait = ticksPerMove;
+        remember(core);
+    }
+
+    /** @return true se a peça já não está onde o último comando a deixou (a gravidade desceu-a). */
+    private boolean moved(GameCore core) {
+        return core.getRotation() != expectedRotation || core.getPieceX() != expectedX || core.getPieceY() != expectedY;
+    }
+
+    private void remember(GameCore core) {
+        expectedRotation = core.getRotation();
+        expectedX = core.getPieceX();
+        expectedY = core.getPieceY();
+    }
+
+    /** Envia o próximo comando do caminho, ou a queda rápida se o caminho acabou. */
+    private void apply(GameCore core) {
+        if (next >= move.getPathLength()) {
+            move = null;
+            core.applyInput(Input.HARD_DROP);
+            return;
+        }
+        switch (move.getCommand(next++)) {
+            case MoveGenerator.LEFT:
+                core.applyInput(Input.LEFT);
+                break;
+            case MoveGenerator.RIGHT:
+                core.applyInput(Input.RIGHT);
+                break;
+            case MoveGenerator.ROTATE_CW:
+                core.applyInput(Input.ROTATE);
+                break;
+            case MoveGenerator.ROTATE_CCW:
+                core.applyInput(Input.ROTATE_CCW);
+                break;
+            case MoveGenerator.SOFT_DROP:
+                core.applyInput(Input.SOFT_DROP);
+                break;
+        }
+        remember(core);
+    }
+}
@@ -0,0 +1,56 @@
+package com.tetris.core.bot;
+
+import com.tetris.core.Board;
+import com.tetris.core.BoardFeatures;
+
+/**
+ * Avaliação de um tabuleiro pelo bot: uma soma pesada de características da pilha, quanto
+ * maior melhor. As características, lidas de {@link Board#getFeature(int)}, são:
+ * <ul>
+ *   <li><b>altura agregada</b>: a soma das alturas das colunas;</li>
+ *   <li><b>buracos</b>: células vazias com algum bloco por cima na mesma coluna;</li>
+ *   <li><b>irregularidade</b>: a soma das diferenças de altura entre colunas vizinhas;</li>
+ *   <li><b>poços</b>: a soma das profundidades das colunas mais baixas do que as duas vizinhas
+ *       (as paredes contam como colunas cheias);</li>
+ *   <li><b>linhas eliminadas</b> pelas jogadas que levaram a este tabuleiro.</li>
+ * </ul>
+ * Os pesos padrão são os de um algoritmo genético publicado para o jogo clássico
+ * (Yiyuan Lee, 2013), com um peso pequeno para os poços. Imutável: partilhada por todas as threads.
+ */
+public final class Heuristic {
+
+    public static final Heuristic DEFAULT = new Heuristic(-0.510066, -0.35663, -0.184483, -0.05, 0.760666);
+
+    private final double heightWeight;
+    private final double holeWeight;
+    private final double bumpinessWeight;
+    private final double wellWeight;
+    private final double lineWeight;
+
+    public Heuristic(double heightWeight, double holeWeight, double bumpinessWeight, double wellWeight, double lineWeight) {
+        this.heightWeight = heightWeight;
+        this.holeWeight = holeWeight;
+        this.bumpinessWeight = bumpinessWeight;
+        this.wellWeight = wellWeight;
+        this.lineWeight = lineWeight;
+    }
+
+    /**
+     * @param board O tabuleiro depois das jogadas (com as linhas completas já eliminadas).
+     * @param linesCleared Linhas eliminadas pelas jogadas que levaram a ele.
+     */
+    public double evaluate(Board board, int linesCleared) {
+        return evaluateBoard(board) + lineWeight * linesCleared;
+    }
+
+    /** @return A parte da avaliação que só depende do tabuleiro (sem as linhas eliminadas). */
+    public double evaluateBoard(Board board) {
+        return heightWeight * board.getFeature(BoardFeatures.AGGREGATE_HEIGHT)
+                + holeWeight * board.getFeature(BoardFeatures.HOLES)
+                + bumpinessWeight * board.getFeature(BoardFeatures.BUMPINESS)
+                + wellWeight * board.getFeature(BoardFeatures.WELL_SUM);
+    }
+
+    /** @return O peso de cada linha eliminada. */
+    public double getLineWeight() { return lineWeight; }
+}
@@ -0,0 +1,246 @@
+package com.tetris.core.bot;
+
+import java.util.Arrays;
+
+import com.tetris.core.Board;
+import com.tetris.core.tetromino.Orientation;
+import com.tetris.core.tetromino.PieceType;
+
+/**
+ * Enumera todos os sítios onde uma peça pode ser fixada num tabuleiro, com o caminho mais
+ * curto de comandos até cada um. É a base dos bots, das dicas e das análises.
+ *
+ * Faz uma pesquisa em largura sobre os estados (rotação, y, x) da peça, a partir da entrada
+ * em jogo ou de uma posição dada, com os mesmos movimentos e as mesmas rotações SRS (chutes
+ * incluídos) do {@link com.tetris.core.GameCore}: esquerda, direita, rodar nos dois sentidos
+ * e descer uma linha. Por isso encontra também os encaixes por baixo de saliências (deslizar
+ * depois de descer) e os "spins" (rodar para dentro de um buraco). A gravidade é ignorada:
+ * tudo o que se alcança com comandos rápidos conta. Cada comando do caminho é um comando do
+ * núcleo, por isso o comprimento do caminho é o que custa executá-lo.
+ *
+ * Cada posição de repouso distinta é devolvida uma vez, mesmo quando duas rotações deixam
+ * os mesmos blocos no mesmo sítio (S, Z, I e O), com o caminho da primeira encontrada, que é
+ * a mais curta. Os conjuntos de estados visitados são bitsets do tamanho do tabuleiro e todos
+ * os buffers são reaproveitados entre chamadas: gerar as jogadas não cria lixo. Os resultados
+ * valem até à chamada seguinte. Uma instância não é thread-safe; cada thread usa a sua.
+ */
+public final class MoveGenerator {
+
+    /** Comandos dos caminhos devolvidos por {@link #getPath(int, byte[])}. */
+    public static final byte LEFT = 0;
+    public static final byte RIGHT = 1;
+    public static final byte ROTATE_CW = 2;
+    public static final byte ROTATE_CCW = 3;
+    /** Descer uma linha. */
+    public static final byte SOFT_DROP = 4;
+
+    // Margens do espaço de estados: a matriz da peça pode sair pela esquerda e por cima do tabuleiro
+    private static final int X_MARGIN = 3;
+    private static final int Y_MARGIN = 4;
+    // Rotação de referência de cada orientação: a menor com os mesmos blocos (após alinhar ao canto)
+    private static final int[][] CANONICAL_ROTATION = new int[7][4];
+
+    static {
+        for (int type = 0; type < 7; type++) {
+            PieceType pieceType = PieceType.of(type);
+            for (int rotation = 0; rotation < 4; rotation++) {
+                long shape = normalizedShape(pieceType.getOrientation(rotation));
+                int canonical = rotation;
+                for (int other = 0; other < rotation; other++) {
+                    if (normalizedShape(pieceType.getOrientation(other)) == shape) {
+                        canonical = other;
+                        break;
+                    }
+                }
+                CANONICAL_ROTATION[type][rotation] = canonical;
+            }
+        }
+    }
+
+    private Board board;
+    private PieceType type;
+    private int xSpan;
+    private int ySpan;
+    private int stateCount;
+
+    // Estados visitados e posições de repouso já devolvidas, um bit por (rotação, y, x)
+    private long[] visited = new long[0];
+    private long[] placed = new long[0];
+    private int[] queue = new int[0];
+    // De onde veio cada estado visitado, com que comando, e a quantos comandos está da origem
+    private int[] parent = new int[0];
+    private byte[] parentMove = new byte[0];
+    private int[] distance = new int[0];
+
+    private int[] placements = new int[64];
+    private int placementCount;
+
+    /**
+     * Gera as posições de fixação de uma peça de {@code type} acabada de entrar em jogo.
+     * @return O número de posições (0 se a peça já não cabe à entrada: fim de jogo).
+     */
+    public int generate(Board board, PieceType type) {
+        return generate(board, type, 0, type.spawnX(board.getWidth()), type.spawnY());
+    }
+
+    /**
+     * Gera as posições de fixação a partir de uma posição qualquer da peça (a peça em jogo,
+     * para as dicas a meio da queda).
+     * @return O número de posições (0 se a posição de partida não é válida).
+     */
+    public int generate(Board board, PieceType type, int rotation, int x, int y) {
+        prepare(board, type);
+        placementCount = 0;
+        if (!inRange(x, y) || !board.isValidPosition(type.getOrientation(rotation), x, y)) {
+            return 0;
+        }
+        int head = 0;
+        int tail = 0;
+        int start = index(rotation, x, y);
+        mark(visited, start);
+        parent[start] = -1;
+        distance[start] = 0;
+        queue[tail++] = start;
+        while (head < tail) {
+            int state = queue[head++];
+            int r = state / (xSpan * ySpan);
+            int sy = state / xSpan % ySpan - Y_MARGIN;
+            int sx = state % xSpan - X_MARGIN;
+            Orientation shape = type.getOrientation(r);
+            tail = visit(state, LEFT, r, sx - 1, sy, tail);
+            tail = visit(state, RIGHT, r, sx + 1, sy, tail);
+            tail = rotate(state, r, sx, sy, true, tail);
+            tail = rotate(state, r, sx, sy, false, tail);
+            if (!board.isValidPosition(shape, sx, sy + 1)) {
+                addPlacement(state, r, sx, sy);
+            } else {
+                tail = visit(state, SOFT_DROP, r, sx, sy + 1, tail);
+            }
+        }
+        return placementCount;
+    }
+
+    /** Ajusta os buffers ao tabuleiro (só cresce) e esvazia os conjuntos de visitados. */
+    private void prepare(Board board, PieceType type) {
+        this.board = board;
+        this.type = type;
+        xSpan = board.getWidth() + X_MARGIN;
+        ySpan = board.getHeight() + Y_MARGIN;
+        stateCount = 4 * xSpan * ySpan;
+        int words = (stateCount + 63) >>> 6;
+        if (visited.length < words) {
+            visited = new long[words];
+            placed = new long[words];
+        } else {
+            Arrays.fill(visited, 0, words, 0L);
+            Arrays.fill(placed, 0, words, 0L);
+        }
+        if (queue.length < stateCount) {
+            queue = new int[stateCount];
+            parent = new int[stateCount];
+            parentMove = new byte[stateCount];
+            distance = new int[stateCount];
+        }
+    }
+
+    /** Rotação SRS: o primeiro chute que cabe, como no núcleo. */
+    private int rotate(int state, int rotation, int x, int y, boolean clockwise, int tail) {
+        int target = clockwise ? type.rotateClockwise(rotation) : type.rotateCounterClockwise(rotation);
+        if (target == rotation) {
+            return tail;
+        }
+        Orientation shape = type.getOrientation(target);
+        for (int test = 0; test < PieceType.KICK_TESTS; test++) {
+            int kx = x + type.getKickX(rotation, clockwise, test);
+            int ky = y + type.getKickY(rotation, clockwise, test);
+            if (board.isValidPosition(shape, kx, ky)) {
+                return visit(state, clockwise ? ROTATE_CW : ROTATE_CCW, target, kx, ky, tail);
+            }
+        }
+        return tail;
+    }
+
+    private int visit(int from, byte move, int rotation, int x, int y, int tail) {
+        if (!inRange(x, y)) {
+            return tail;
+        }
+        // O bit de visitado é mais barato do que testar a colisão
+        int state = index(rotation, x, y);
+        if (isMarked(visited, state) || !board.isValidPosition(type.getOrientation(rotation), x, y)) {
+            return tail;
+        }
+        mark(visited, state);
+        parent[state] = from;
+        parentMove[state] = move;
+        distance[state] = distance[from] + 1;
+        queue[tail] = state;
+        return tail + 1;
+    }
+
+    private boolean inRange(int x, int y) {
+        return x >= -X_MARGIN && y >= -Y_MARGIN && x < xSpan - X_MARGIN && y < ySpan - Y_MARGIN;
+    }
+
+    private void addPlacement(int state, int rotation, int x, int y) {
+        // Dois estados que deixam os mesmos blocos no mesmo sítio são a mesma jogada
+        Orientation shape = type.getOrientation(rotation);
+        int canonical = CANONICAL_ROTATION[type.ordinal()][rotation];
+        Orientation canonicalShape = type.getOrientation(canonical);
+        int key = index(canonical, x + shape.getLeft() - canonicalShape.getLeft(), y + shape.getTop() - canonicalShape.getTop());
+        if (isMarked(placed, key)) {
+            return;
+        }
+        mark(placed, key);
+        if (placementCount == placements.length) {
+            placements = Arrays.copyOf(placements, placementCount * 2);
+        }
+        placements[placementCount++] = state;
+    }
+
+    private int index(int rotation, int x, int y) {
+        return (rotation * ySpan + y + Y_MARGIN) * xSpan + x + X_MARGIN;
+    }
+
+    private static boolean isMarked(long[] set, int index) {
+        return (set[index >>> 6] & 1L << index) != 0;
+    }
+
+    private static void mark(long[] set, int index) {
+        set[index >>> 6] |= 1L << index;
+    }
+
+    /** @return Os blocos da orientação alinhados ao canto superior esquerdo, um bit por célula de 4x4. */
+    private static long normalizedShape(Orientation shape) {
+        long bits = 0;
+        for (int i = 0; i < shape.getCellCount(); i++) {
+            bits |= 1L << ((shape.getCellY(i) - shape.getTop()) * 4 + shape.getCellX(i) - shape.getLeft());
+        }
+        return bits;
+    }
+
+    /** @return O número de posições da última geração. */
+    public int getCount() { return placementCount; }
+    /** @return A rotação da peça fixada na posição {@code i}. */
+    public int getRotation(int i) { return placements[i] / (xSpan * ySpan); }
+    /** @return A coluna da matriz da peça fixada na posição {@code i}. */
+    public int getX(int i) { return placements[i] % xSpan - X_MARGIN; }
+    /** @return A linha da matriz da peça fixada na posição {@code i}. */
+    public int getY(int i) { return placements[i] / xSpan % ySpan - Y_MARGIN; }
+    /** @return Quantos comandos leva o caminho mais curto até à posição {@code i} (sem a fixação). */
+    public int getPathLength(int i) { return distance[placements[i]]; }
+
+    /**
+     * Escreve em {@code out} os comandos (constantes desta classe) que levam a peça da origem
+     * até à posição {@code i}; depois deles basta fixá-la (queda rápida).
+     * @return O número de comandos escritos ({@link #getPathLength(int)}).
+     * @throws ArrayIndexOutOfBoundsException Se {@code out} for mais curto do que o caminho.
+     */
+    public int getPath(int i, byte[] out) {
+        int length = distance[placements[i]];
+        int position = length;
+        for (int state = placements[i]; parent[state] >= 0; state = parent[state]) {
+            out[--position] = parentMove[state];
+        }
+        return length;
+    }
+}
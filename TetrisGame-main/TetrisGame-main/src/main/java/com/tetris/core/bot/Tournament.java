@@ -0,0 +1,261 @@
+package com.tetris.core.bot;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.io.Writer;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Paths;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.Consumer;
+
+import com.tetris.core.Board;
+import com.tetris.core.GameCore;
+import com.tetris.core.GameState;
+import com.tetris.core.TickResult;
+import com.tetris.core.random.RandomizerType;
+
+/**
+ * Torneio sem ecrã: joga muitas partidas do bot com sementes seguidas, em todos os núcleos, para
+ * comparar heurísticas, sorteios e tamanhos de tabuleiro com estatística. A partida {@code i}
+ * usa a semente {@code primeira + i}, por isso cada partida se repete igual em qualquer máquina e
+ * com qualquer número de trabalhadores.
+ *
+ * Cada trabalhador é uma thread fixa com o seu núcleo, o seu {@link Bot} (de um só trabalhador,
+ * sem pool) e a sua tabela de transposição: nenhum tabuleiro é partilhado. Os trabalhadores tiram
+ * o número da próxima partida de um contador atómico, de modo que os que acabam partidas curtas
+ * pegam logo noutra, e entregam os resultados numa fila limitada à thread que chama
+ * {@link #run}, que os passa ao destino (o CSV) à medida que chegam, fora da ordem das partidas.
+ * Nada cresce com o número de partidas, que pode ir aos milhões.
+ */
+public class Tournament {
+
+    /** Entradas da tabela de transposição de cada trabalhador: 1 MB fora da heap. */
+    public static final int DEFAULT_TABLE_CAPACITY = 1 << 16;
+
+    private static final int QUEUE_CAPACITY = 4096;
+
+    private final Heuristic heuristic;
+    private final RandomizerType randomizerType;
+    private final int width;
+    private final int height;
+    private final int maxPieces;
+    private final int tableCapacity;
+
+    /**
+     * @param maxPieces Peças ao fim das quais a partida é dada por terminada (0: só no fim de jogo,
+     *                  o que com um bot forte pode não chegar).
+     */
+    public Tournament(Heuristic heuristic, RandomizerType randomizerType, int width, int height,
+                      int maxPieces, int tableCapacity) {
+        if (maxPieces < 0) {
+            throw new IllegalArgumentException("O limite de peças não pode ser negativo");
+        }
+        this.heuristic = heuristic;
+        this.randomizerType = randomizerType;
+        this.width = width;
+        this.height = height;
+        this.maxPieces = maxPieces;
+        this.tableCapacity = tableCapacity;
+    }
+
+    /**
+     * Joga as partidas 0 a {@code games - 1} em {@code threads} trabalhadores e entrega cada
+     * resultado a {@code sink}, sempre na thread que chamou.
+     * @return O tempo total, em nanossegundos.
+     */
+    public long run(long firstSeed, long games, int threads, Consumer<TournamentResult> sink) throws InterruptedException {
+        BlockingQueue<TournamentResult> results = new ArrayBlockingQueue<>(QUEUE_CAPACITY);
+        AtomicLong nextGame = new AtomicLong();
+        ExecutorService workers = Executors.newFixedThreadPool(threads, r -> {
+            Thread t = new Thread(r, "tetris-tournament");
+            t.setDaemon(true);
+            return t;
+        });
+        long begin = System.nanoTime();
+        try {
+            List<Future<?>> running = new ArrayList<>();
+            for (int i = 0; i < threads; i++) {
+                running.add(workers.submit(() -> {
+                    work(firstSeed, games, nextGame, results);
+                    return null;
+                }));
+            }
+            for (long received = 0; received < games; ) {
+                TournamentResult result = results.poll(100, TimeUnit.MILLISECONDS);
+                if (result != null) {
+                    sink.accept(result);
+                    received++;
+                } else {
+                    rethrowFailure(running);
+                }
+            }
+            return System.nanoTime() - begin;
+        } finally {
+            workers.shutdownNow();
+        }
+    }
+
+    /** Um trabalhador sem resultados para entregar pode ter morrido: a exceção dele passa para quem espera. */
+    private static void rethrowFailure(List<Future<?>> running) throws InterruptedException {
+        for (Future<?> worker : running) {
+            if (worker.isDone()) {
+                try {
+                    worker.get();
+                } catch (ExecutionException ex) {
+                    throw new IllegalStateException("Um trabalhador do torneio falhou", ex.getCause());
+                }
+            }
+        }
+    }
+
+    private void work(long firstSeed, long games, AtomicLong nextGame, BlockingQueue<TournamentResult> results)
+            throws InterruptedException {
+        try (Bot bot = new Bot(heuristic, 1, tableCapacity)) {
+            GameCore core = new GameCore(width, height);
+            core.setRandomizerType(randomizerType);
+            BotPlayer player = new BotPlayer(bot, 0);
+            core.addTickListener(player);
+            int[] locked = new int[1];
+            core.addTickListener(result -> {
+                if (result.has(TickResult.LOCK)) {
+                    locked[0]++;
+                }
+            });
+            for (long game = nextGame.getAndIncrement(); game < games; game = nextGame.getAndIncrement()) {
+                long seed = firstSeed + game;
+                long begin = System.nanoTime();
+                locked[0] = 0;
+                core.start(seed);
+                while (core.getState() == GameState.PLAYING && (maxPieces == 0 || locked[0] < maxPieces)) {
+                    player.step(core);
+                }
+                results.put(new TournamentResult(game, seed, core.getScore(), core.getLinesCleared(), locked[0],
+                        core.getTick(), core.getState() == GameState.GAME_OVER, System.nanoTime() - begin));
+            }
+        }
+    }
+
+    /**
+     * Corre um torneio e mostra as médias e a vazão (partidas e peças por segundo, e quantas
+     * vezes o tempo de jogo somado cabe no tempo total, que idealmente é o número de trabalhadores).
+     * Uso: {@code Tournament [--games N] [--seed S] [--pieces P] [--threads T] [--randomizer BAG_7]
+     * [--width L] [--height A] [--weights altura,buracos,irregularidade,poços,linhas] [--table E] [--csv ficheiro]}.
+     */
+    public static void main(String[] args) throws IOException, InterruptedException {
+        long games = 100;
+        long seed = 1;
+        int pieces = 1000;
+        int threads = Runtime.getRuntime().availableProcessors();
+        RandomizerType randomizerType = RandomizerType.BAG_7;
+        int width = Board.DEFAULT_WIDTH;
+        int height = Board.DEFAULT_HEIGHT;
+        Heuristic heuristic = Heuristic.DEFAULT;
+        int tableCapacity = DEFAULT_TABLE_CAPACITY;
+        String csv = null;
+        for (int i = 0; i + 1 < args.length; i += 2) {
+            String value = args[i + 1];
+            switch (args[i]) {
+                case "--games": games = Long.parseLong(value); break;
+                case "--seed": seed = Long.parseLong(value); break;
+                case "--pieces": pieces = Integer.parseInt(value); break;
+                case "--threads": threads = Integer.parseInt(value); break;
+                case "--randomizer": randomizerType = RandomizerType.valueOf(value); break;
+                case "--width": width = Integer.parseInt(value); break;
+                case "--height": height = Integer.parseInt(value); break;
+                case "--weights": heuristic = parseWeights(value); break;
+                case "--table": tableCapacity = Integer.parseInt(value); break;
+                case "--csv": csv = value; break;
+                default: throw new IllegalArgumentException("Opção desconhecida: " + args[i]);
+            }
+        }
+        if (args.length % 2 != 0) {
+            throw new IllegalArgumentException("Falta o valor de " + args[args.length - 1]);
+        }
+
+        Tournament tournament = new Tournament(heuristic, randomizerType, width, height, pieces, tableCapacity);
+        Totals totals = new Totals();
+        long elapsed;
+        try (Writer out = csv == null ? Writer.nullWriter()
+                : Files.newBufferedWriter(Paths.get(csv), StandardCharsets.UTF_8)) {
+            out.write(TournamentResult.CSV_HEADER);
+            out.write('\n');
+            elapsed = tournament.run(seed, games, threads, result -> {
+                totals.add(result);
+                try {
+                    out.write(result.toCsv());
+                    out.write('\n');
+                } catch (IOException ex) {
+                    throw new UncheckedIOException(ex);
+                }
+            });
+        }
+        System.out.printf("%d partidas (%s, %dx%d, %s) em %.2f s com %d trabalhadores%n", totals.games,
+                randomizerType, width, height, pieces == 0 ? "até ao fim de jogo" : "até " + pieces + " peças",
+                elapsed / 1e9, threads);
+        System.out.printf("  linhas: média %.1f (desvio %.1f); pontuação: média %.0f (desvio %.0f); %d fins de jogo%n",
+                totals.lines.mean(), totals.lines.deviation(), totals.score.mean(), totals.score.deviation(),
+                totals.gameOvers);
+        System.out.printf("  %.2f partidas/s, %.0f peças/s; tempo de jogo somado %.1fx o tempo total%n",
+                totals.games * 1e9 / elapsed, totals.pieces * 1e9 / elapsed, (double) totals.nanos / elapsed);
+    }
+
+    private static Heuristic parseWeights(String value) {
+        String[] parts = value.split(",");
+        if (parts.length != 5) {
+            throw new IllegalArgumentException("São precisos 5 pesos (altura, buracos, irregularidade, poços, linhas): " + value);
+        }
+        return new Heuristic(Double.parseDouble(parts[0]), Double.parseDouble(parts[1]), Double.parseDouble(parts[2]),
+                Double.parseDouble(parts[3]), Double.parseDouble(parts[4]));
+    }
+
+    /** Somas do torneio, acumuladas na thread que recebe os resultados. */
+    private static final class Totals {
+        final Moments lines = new Moments();
+        final Moments score = new Moments();
+        long games;
+        long pieces;
+        long gameOvers;
+        long nanos;
+
+        void add(TournamentResult result) {
+            games++;
+            pieces += result.getPieces();
+            nanos += result.getNanos();
+            if (result.isGameOver()) {
+                gameOvers++;
+            }
+            lines.add(result.getLines());
+            score.add(result.getScore());
+        }
+    }
+
+    /** Média e desvio padrão em linha (Welford), sem guardar as amostras. */
+    private static final class Moments {
+        private long count;
+        private double mean;
+        private double squares;
+
+        void add(double sample) {
+            count++;
+            double delta = sample - mean;
+            mean += delta / count;
+            squares += delta * (sample - mean);
+        }
+
+        double mean() { return mean; }
+
+        double deviation() {
+            return count < 2 ? 0 : Math.sqrt(squares / (count - 1));
+        }
+    }
+}
@@ -0,0 +1,57 @@
+package com.tetris.core.bot;
+
+/**
+ * Resultado de uma partida de um {@link Tournament}: a semente, o que o bot conseguiu e quanto
+ * custou jogá-la. Uma linha do CSV do torneio.
+ */
+public final class TournamentResult {
+
+    /** Cabeçalho do CSV, pela ordem de {@link #toCsv()}. */
+    public static final String CSV_HEADER = "game,seed,score,lines,pieces,ticks,game_over,nanos";
+
+    private final long game;
+    private final long seed;
+    private final int score;
+    private final int lines;
+    private final int pieces;
+    private final long ticks;
+    private final boolean gameOver;
+    private final long nanos;
+
+    TournamentResult(long game, long seed, int score, int lines, int pieces, long ticks, boolean gameOver, long nanos) {
+        this.game = game;
+        this.seed = seed;
+        this.score = score;
+        this.lines = lines;
+        this.pieces = pieces;
+        this.ticks = ticks;
+        this.gameOver = gameOver;
+        this.nanos = nanos;
+    }
+
+    /** @return O número da partida no torneio (0 a N - 1). */
+    public long getGame() { return game; }
+    public long getSeed() { return seed; }
+    public int getScore() { return score; }
+    public int getLines() { return lines; }
+    /** @return Peças fixadas. */
+    public int getPieces() { return pieces; }
+    /** @return Passos lógicos simulados. */
+    public long getTicks() { return ticks; }
+    /** @return true se a partida acabou por a pilha chegar ao topo (e não pelo limite de peças). */
+    public boolean isGameOver() { return gameOver; }
+    /** @return Tempo gasto a jogá-la, em nanossegundos. */
+    public long getNanos() { return nanos; }
+
+    /** @return A linha do CSV, sem o fim de linha. */
+    public String toCsv() {
+        return game + "," + seed + "," + score + "," + lines + "," + pieces + "," + ticks + ","
+                + (gameOver ? 1 : 0) + "," + nanos;
+    }
+
+    @Override
+    public String toString() {
+        return String.format("partida %d (semente %d): %d pontos, %d linhas, %d peças%s em %.1f ms",
+                game, seed, score, lines, pieces, gameOver ? " (fim de jogo)" : "", nanos / 1e6);
+    }
+}
@@ -0,0 +1,110 @@
+package com.tetris.core.bot;
+
+import java.lang.invoke.MethodHandles;
+import java.lang.invoke.VarHandle;
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Cache de avaliações da pesquisa, partilhada por todas as threads do bot: guarda o valor de
+ * um tabuleiro ({@link com.tetris.core.Board#getHash()}) com uma peça por jogar,
+ * para que o mesmo tabuleiro, alcançado por outra ordem de jogadas, não seja avaliado de novo.
+ *
+ * A tabela tem tamanho fixo e vive fora da heap, num {@link ByteBuffer} direto: 16 bytes por
+ * entrada (uma verificação e o valor), endereçamento aberto sem sondagem (cada chave tem uma
+ * só posição e uma escrita nova substitui a antiga). Não cria objetos nem pesa na recolha de lixo,
+ * qualquer que seja o tamanho.
+ *
+ * Leituras e escritas não bloqueiam. Cada metade da entrada é escrita de uma só vez
+ * ({@link VarHandle} opaco), mas duas threads podem escrever a mesma entrada ao mesmo tempo e
+ * deixar a verificação de uma com o valor da outra; por isso a verificação guardada é a chave
+ * XOR o valor, e uma leitura só aceita a entrada se a verificação bater certo com o valor lido.
+ * Uma entrada rasgada é só uma falha da cache, nunca um valor errado.
+ */
+public final class TranspositionTable {
+
+    private static final int ENTRY_BYTES = 16;
+    private static final VarHandle LONGS = MethodHandles.byteBufferViewVarHandle(long[].class, ByteOrder.nativeOrder());
+    // Chave de cada peça por jogar, para separar os valores do mesmo tabuleiro; nenhuma é zero,
+    // senão o tabuleiro vazio coincidiria com uma entrada vazia
+    private static final long[] PIECE_KEYS = {
+        0x9E3779B97F4A7C15L, 0xC2B2AE3D27D4EB4FL, 0x165667B19E3779F9L, 0xD6E8FEB86659FD93L,
+        0xFF51AFD7ED558CCDL, 0xC4CEB9FE1A85EC53L, 0x94D049BB133111EBL
+    };
+
+    private final ByteBuffer entries;
+    private final int mask;
+    private final LongAdder probes = new LongAdder();
+    private final LongAdder hits = new LongAdder();
+
+    /** @param capacity Entradas (arredondado para a potência de dois seguinte). */
+    public TranspositionTable(int capacity) {
+        if (capacity < 1 || capacity > 1 << 26) {
+            throw new IllegalArgumentException("Capacidade fora do intervalo: " + capacity);
+        }
+        int size = Integer.highestOneBit(capacity);
+        if (size < capacity) {
+            size <<= 1;
+        }
+        this.entries = ByteBuffer.allocateDirect(size * ENTRY_BYTES);
+        this.mask = size - 1;
+    }
+
+    /**
+     * @param piece Índice da peça por jogar ({@link com.tetris.core.tetromino.PieceType#ordinal()}).
+     * @return O valor guardado, ou {@link Double#NaN} se não há.
+     */
+    public double get(long boardHash, int piece) {
+        long key = key(boardHash, piece);
+        int offset = offset(key);
+        long check = (long) LONGS.getOpaque(entries, offset);
+        long value = (long) LONGS.getOpaque(entries, offset + 8);
+        probes.increment();
+        if ((check ^ value) != key) {
+            return Double.NaN;
+        }
+        hits.increment();
+        return Double.longBitsToDouble(value);
+    }
+
+    /** Guarda um valor, substituindo o que estiver na mesma posição. */
+    public void put(long boardHash, int piece, double score) {
+        long key = key(boardHash, piece);
+        int offset = offset(key);
+        long value = Double.doubleToRawLongBits(score);
+        LONGS.setOpaque(entries, offset, key ^ value);
+        LONGS.setOpaque(entries, offset + 8, value);
+    }
+
+    private static long key(long boardHash, int piece) {
+        return boardHash ^ PIECE_KEYS[piece];
+    }
+
+    private int offset(long key) {
+        // Os bits altos do hash escolhem a posição; a verificação usa a chave inteira
+        return ((int) (key >>> 32) & mask) * ENTRY_BYTES;
+    }
+
+    /** Esquece todas as entradas (não deve correr ao mesmo tempo que uma pesquisa). */
+    public void clear() {
+        for (int offset = 0; offset < entries.capacity(); offset += 8) {
+            LONGS.setOpaque(entries, offset, 0L);
+        }
+        probes.reset();
+        hits.reset();
+    }
+
+    public int getCapacity() { return mask + 1; }
+    /** @return Os bytes fora da heap ocupados pela tabela. */
+    public long getMemoryBytes() { return (long) entries.capacity(); }
+    public long getProbes() { return probes.sum(); }
+    public long getHits() { return hits.sum(); }
+
+    @Override
+    public String toString() {
+        long probeCount = getProbes();
+        return String.format("%d entradas (%d KB fora da heap), %d consultas, %.1f%% acertos", getCapacity(),
+                getMemoryBytes() / 1024, probeCount, probeCount == 0 ? 0 : 100.0 * getHits() / probeCount);
+    }
+}
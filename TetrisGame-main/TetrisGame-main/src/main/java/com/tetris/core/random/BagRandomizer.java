@@ -0,0 +1,67 @@
+package com.tetris.core.random;
+
+import java.nio.ByteBuffer;
+
+/**
+ * Sorteio por "saco": o saco contém {@code copies} exemplares de cada peça, é baralhado e
+ * esvaziado por ordem antes de voltar a ser enchido. Com um exemplar (7-bag) cada peça aparece
+ * exatamente uma vez a cada sete; com dois (14-bag) a sequência é menos previsível mas
+ * continua sem secas longas.
+ */
+public final class BagRandomizer implements Randomizer {
+
+    private final SplitMix64 random;
+    private final byte[] bag;
+    // Próxima posição a tirar do saco; igual ao tamanho quando o saco está vazio
+    private int position;
+
+    public BagRandomizer(int copies, long seed) {
+        if (copies < 1) {
+            throw new IllegalArgumentException("O saco precisa de pelo menos um exemplar de cada peça");
+        }
+        this.random = new SplitMix64(seed);
+        this.bag = new byte[copies * PIECE_COUNT];
+        for (int i = 0; i < bag.length; i++) {
+            bag[i] = (byte) (i % PIECE_COUNT);
+        }
+        this.position = bag.length;
+    }
+
+    @Override
+    public int next() {
+        if (position == bag.length) {
+            shuffle();
+            position = 0;
+        }
+        return bag[position++];
+    }
+
+    @Override
+    public int getStateSize() {
+        return Long.BYTES + 1 + bag.length;
+    }
+
+    @Override
+    public void saveState(ByteBuffer out) {
+        out.putLong(random.getState());
+        out.put((byte) position);
+        out.put(bag);
+    }
+
+    @Override
+    public void loadState(ByteBuffer in) {
+        random.setState(in.getLong());
+        position = in.get();
+        in.get(bag);
+    }
+
+    /** Fisher-Yates no próprio vetor: a ordem anterior é apenas permutada de novo. */
+    private void shuffle() {
+        for (int i = bag.length - 1; i > 0; i--) {
+            int j = random.nextInt(i + 1);
+            byte piece = bag[i];
+            bag[i] = bag[j];
+            bag[j] = piece;
+        }
+    }
+}
@@ -0,0 +1,45 @@
+package com.tetris.core.random;
+
+import java.nio.ByteBuffer;
+
+/**
+ * Sorteio dos jogos clássicos: escolhe entre oito resultados (as sete peças e "repetir");
+ * se sair "repetir" ou a mesma peça que a anterior, sorteia uma vez mais entre as sete.
+ * Reduz as repetições seguidas sem eliminar as secas.
+ */
+public final class ClassicRandomizer implements Randomizer {
+
+    private final SplitMix64 random;
+    private int previous = -1;
+
+    public ClassicRandomizer(long seed) {
+        this.random = new SplitMix64(seed);
+    }
+
+    @Override
+    public int next() {
+        int piece = random.nextInt(PIECE_COUNT + 1);
+        if (piece == PIECE_COUNT || piece == previous) {
+            piece = random.nextInt(PIECE_COUNT);
+        }
+        previous = piece;
+        return piece;
+    }
+
+    @Override
+    public int getStateSize() {
+        return Long.BYTES + 1;
+    }
+
+    @Override
+    public void saveState(ByteBuffer out) {
+        out.putLong(random.getState());
+        out.put((byte) previous);
+    }
+
+    @Override
+    public void loadState(ByteBuffer in) {
+        random.setState(in.getLong());
+        previous = in.get();
+    }
+}
@@ -0,0 +1,26 @@
+package com.tetris.core.random;
+
+import java.nio.ByteBuffer;
+
+/**
+ * Sorteio da sequência de peças de uma partida.
+ * As peças são identificadas pelo índice 0 a {@link #PIECE_COUNT} - 1, na ordem I, J, L, O, S, T, Z.
+ * Cada partida usa a sua própria instância; nenhuma implementação aloca ao sortear.
+ */
+public interface Randomizer {
+
+    /** Número de tipos de peça. */
+    int PIECE_COUNT = 7;
+
+    /** @return O índice da próxima peça da sequência. */
+    int next();
+
+    /** @return Quantos bytes {@link #saveState(ByteBuffer)} escreve. */
+    int getStateSize();
+
+    /** Escreve em {@code out} o estado atual, para a sequência poder ser retomada exatamente daqui. */
+    void saveState(ByteBuffer out);
+
+    /** Retoma um estado escrito por {@link #saveState(ByteBuffer)} num sorteador do mesmo tipo. */
+    void loadState(ByteBuffer in);
+}
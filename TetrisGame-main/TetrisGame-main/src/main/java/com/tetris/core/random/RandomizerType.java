@@ -0,0 +1,24 @@
+package com.tetris.core.random;
+
+/** Modos de sorteio disponíveis para uma partida. */
+public enum RandomizerType {
+    BAG_7 {
+        @Override
+        public Randomizer create(long seed) { return new BagRandomizer(1, seed); }
+    },
+    BAG_14 {
+        @Override
+        public Randomizer create(long seed) { return new BagRandomizer(2, seed); }
+    },
+    CLASSIC {
+        @Override
+        public Randomizer create(long seed) { return new ClassicRandomizer(seed); }
+    },
+    UNIFORM {
+        @Override
+        public Randomizer create(long seed) { return new UniformRandomizer(seed); }
+    };
+
+    /** @return Um sorteador novo deste tipo, que produz sempre a mesma sequência para a mesma semente. */
+    public abstract Randomizer create(long seed);
+}
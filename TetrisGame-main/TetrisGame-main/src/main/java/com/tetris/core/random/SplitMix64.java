@@ -0,0 +1,39 @@
+package com.tetris.core.random;
+
+/**
+ * Gerador pseudoaleatório SplitMix64: um único {@code long} de estado, rápido e sem alocação.
+ * Cada partida tem o seu, por isso simulações em paralelo não disputam um gerador partilhado,
+ * e a mesma semente reproduz sempre a mesma sequência.
+ */
+public final class SplitMix64 {
+
+    private long state;
+
+    public SplitMix64(long seed) {
+        this.state = seed;
+    }
+
+    public long nextLong() {
+        long z = (state += 0x9E3779B97F4A7C15L);
+        z = (z ^ (z >>> 30)) * 0xBF58476D1CE4E5B9L;
+        z = (z ^ (z >>> 27)) * 0x94D049BB133111EBL;
+        return z ^ (z >>> 31);
+    }
+
+    /**
+     * @return Um inteiro entre 0 (inclusive) e {@code bound} (exclusive). Usa multiplicação em
+     *         vez de resto; para os limites pequenos do jogo o viés é inferior a 2^-28.
+     */
+    public int nextInt(int bound) {
+        return (int) (((nextLong() >>> 32) * bound) >>> 32);
+    }
+
+    /** @return O estado interno, para guardar e retomar a sequência exatamente onde está. */
+    public long getState() {
+        return state;
+    }
+
+    public void setState(long state) {
+        this.state = state;
+    }
+}
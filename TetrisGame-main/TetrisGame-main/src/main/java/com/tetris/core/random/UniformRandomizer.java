@@ -0,0 +1,33 @@
+package com.tetris.core.random;
+
+import java.nio.ByteBuffer;
+
+/** Sorteio uniforme e independente de cada peça (o comportamento original do jogo), com semente. */
+public final class UniformRandomizer implements Randomizer {
+
+    private final SplitMix64 random;
+
+    public UniformRandomizer(long seed) {
+        this.random = new SplitMix64(seed);
+    }
+
+    @Override
+    public int next() {
+        return random.nextInt(PIECE_COUNT);
+    }
+
+    @Override
+    public int getStateSize() {
+        return Long.BYTES;
+    }
+
+    @Override
+    public void saveState(ByteBuffer out) {
+        out.putLong(random.getState());
+    }
+
+    @Override
+    public void loadState(ByteBuffer in) {
+        random.setState(in.getLong());
+    }
+}
@@ -0,0 +1,62 @@
+package com.tetris.core.replay;
+
+/**
+ * Resultado da verificação de uma {@link ChallengeSubmission}: se foi aceite (e porquê não),
+ * a pontuação obtida na simulação e quanto custou simulá-la.
+ */
+public final class ChallengeResult {
+
+    public enum Status {
+        /** A simulação reproduziu a pontuação declarada. */
+        ACCEPTED,
+        /**
+         * A gravação não usa a semente, o sorteio ou o tabuleiro do desafio desse dia (ou, numa
+         * partida normal, o tabuleiro padrão).
+         */
+        WRONG_RULES,
+        /** A gravação é mais longa do que {@link DailyChallenge#MAX_TICKS}. */
+        TOO_LONG,
+        /** O fluxo de comandos está corrompido. */
+        CORRUPT,
+        /** A partida simulada não terminou no passo gravado. */
+        INCOMPLETE,
+        /** A partida simulada terminou com outra pontuação. */
+        SCORE_MISMATCH
+    }
+
+    private final ChallengeSubmission submission;
+    private final Status status;
+    private final int simulatedScore;
+    private final long ticks;
+    private final long nanos;
+
+    ChallengeResult(ChallengeSubmission submission, Status status, int simulatedScore, long ticks, long nanos) {
+        this.submission = submission;
+        this.status = status;
+        this.simulatedScore = simulatedScore;
+        this.ticks = ticks;
+        this.nanos = nanos;
+    }
+
+    public ChallengeSubmission getSubmission() { return submission; }
+    public Status getStatus() { return status; }
+    public boolean isAccepted() { return status == Status.ACCEPTED; }
+    /** @return A pontuação obtida ao simular a gravação (0 se nem chegou a ser simulada). */
+    public int getSimulatedScore() { return simulatedScore; }
+    /** @return Passos lógicos simulados. */
+    public long getTicks() { return ticks; }
+    /** @return Tempo gasto na simulação, em nanossegundos. */
+    public long getNanos() { return nanos; }
+
+    /** @return Vazão da simulação desta gravação, em passos por segundo. */
+    public double getTicksPerSecond() {
+        return nanos == 0 ? 0 : ticks * 1e9 / nanos;
+    }
+
+    @Override
+    public String toString() {
+        return String.format("%s: %s (declarado %d, simulado %d, %d passos, %.1f M passos/s)",
+                submission.getPlayer(), status, submission.getClaimedScore(), simulatedScore,
+                ticks, getTicksPerSecond() / 1e6);
+    }
+}
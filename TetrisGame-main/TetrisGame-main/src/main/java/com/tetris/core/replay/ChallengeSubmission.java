@@ -0,0 +1,28 @@
+package com.tetris.core.replay;
+
+import java.time.LocalDate;
+
+/**
+ * Uma pontuação enviada ao servidor, do desafio diário ou de uma partida normal, com a gravação
+ * que a deve reproduzir.
+ */
+public final class ChallengeSubmission {
+    private final String player;
+    private final LocalDate day;
+    private final int claimedScore;
+    private final Replay replay;
+
+    public ChallengeSubmission(String player, LocalDate day, int claimedScore, Replay replay) {
+        this.player = player;
+        this.day = day;
+        this.claimedScore = claimedScore;
+        this.replay = replay;
+    }
+
+    public String getPlayer() { return player; }
+    /** @return O dia do desafio a que a partida pertence, ou null se é uma partida normal. */
+    public LocalDate getDay() { return day; }
+    /** @return A pontuação declarada pelo cliente. */
+    public int getClaimedScore() { return claimedScore; }
+    public Replay getReplay() { return replay; }
+}
@@ -0,0 +1,150 @@
+package com.tetris.core.replay;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.RecursiveAction;
+
+import com.tetris.core.Board;
+import com.tetris.core.GameCore;
+import com.tetris.core.GameState;
+
+/**
+ * Verificação das pontuações enviadas ao servidor: cada envio é simulado de novo, sem ecrã, a
+ * partir da semente e dos comandos gravados, e só é aceite se a partida terminar no passo
+ * gravado com a pontuação declarada. O cliente nunca é acreditado sobre a pontuação. Um envio do
+ * desafio diário tem de usar a semente do seu dia; uma partida normal pode ter qualquer semente e
+ * sorteio, mas tem de ser jogada no tabuleiro padrão, como o desafio.
+ *
+ * Um lote de envios é repartido por um {@link ForkJoinPool} (roubo de trabalho): as partidas têm
+ * durações muito diferentes, e os núcleos que acabam cedo tiram trabalho aos outros. Cada
+ * verificação usa o seu próprio {@link GameCore}, sem estado partilhado.
+ */
+public class ChallengeVerifier implements AutoCloseable {
+
+    private final ForkJoinPool pool;
+
+    /** Verificador com um trabalhador por núcleo. */
+    public ChallengeVerifier() {
+        this(Runtime.getRuntime().availableProcessors());
+    }
+
+    public ChallengeVerifier(int parallelism) {
+        this.pool = new ForkJoinPool(parallelism);
+    }
+
+    /** Simula um envio na thread atual. */
+    public ChallengeResult verify(ChallengeSubmission submission) {
+        Replay replay = submission.getReplay();
+        boolean rules = submission.getDay() != null
+                ? DailyChallenge.matchesRules(replay, submission.getDay())
+                : replay.getBoardWidth() == Board.DEFAULT_WIDTH && replay.getBoardHeight() == Board.DEFAULT_HEIGHT;
+        if (!rules) {
+            return new ChallengeResult(submission, ChallengeResult.Status.WRONG_RULES, 0, 0, 0);
+        }
+        if (replay.getEndTick() > DailyChallenge.MAX_TICKS) {
+            return new ChallengeResult(submission, ChallengeResult.Status.TOO_LONG, 0, 0, 0);
+        }
+        GameCore core = new GameCore(replay.getBoardWidth(), replay.getBoardHeight());
+        ReplayPlayer player = new ReplayPlayer(replay);
+        long begin = System.nanoTime();
+        try {
+            player.start(core);
+            player.playToEnd(core);
+        } catch (RuntimeException ex) {
+            // Varint cortado a meio ou bits de comando inválidos
+            return new ChallengeResult(submission, ChallengeResult.Status.CORRUPT, core.getScore(),
+                    core.getTick(), System.nanoTime() - begin);
+        }
+        long nanos = System.nanoTime() - begin;
+        ChallengeResult.Status status;
+        if (core.getState() != GameState.GAME_OVER || core.getTick() != replay.getEndTick()) {
+            status = ChallengeResult.Status.INCOMPLETE;
+        } else if (core.getScore() != submission.getClaimedScore()) {
+            status = ChallengeResult.Status.SCORE_MISMATCH;
+        } else {
+            status = ChallengeResult.Status.ACCEPTED;
+        }
+        return new ChallengeResult(submission, status, core.getScore(), core.getTick(), nanos);
+    }
+
+    /**
+     * Verifica um lote de envios em paralelo, em todos os trabalhadores do verificador.
+     * @return Os resultados, pela ordem dos envios.
+     */
+    public List<ChallengeResult> verifyAll(List<ChallengeSubmission> submissions) {
+        ChallengeSubmission[] batch = submissions.toArray(new ChallengeSubmission[0]);
+        ChallengeResult[] results = new ChallengeResult[batch.length];
+        pool.invoke(new VerifyRange(batch, results, 0, batch.length));
+        return Arrays.asList(results);
+    }
+
+    @Override
+    public void close() {
+        pool.shutdown();
+    }
+
+    /** Divide o intervalo ao meio até sobrar um envio por tarefa. */
+    private final class VerifyRange extends RecursiveAction {
+        private final ChallengeSubmission[] batch;
+        private final ChallengeResult[] results;
+        private final int from;
+        private final int to;
+
+        VerifyRange(ChallengeSubmission[] batch, ChallengeResult[] results, int from, int to) {
+            this.batch = batch;
+            this.results = results;
+            this.from = from;
+            this.to = to;
+        }
+
+        @Override
+        protected void compute() {
+            if (to - from <= 1) {
+                if (to > from) {
+                    results[from] = verify(batch[from]);
+                }
+                return;
+            }
+            int middle = (from + to) >>> 1;
+            invokeAll(new VerifyRange(batch, results, from, middle), new VerifyRange(batch, results, middle, to));
+        }
+    }
+
+    /**
+     * Verifica em paralelo as gravações indicadas como envios do desafio de {@code dia}
+     * (a pontuação declarada é a do cabeçalho) e mostra a vazão de cada uma e do lote.
+     * Uso: {@code ChallengeVerifier <dia AAAA-MM-DD> <ficheiro.trpl>...}
+     */
+    public static void main(String[] args) throws IOException {
+        LocalDate day = LocalDate.parse(args[0]);
+        List<ChallengeSubmission> submissions = new ArrayList<>();
+        for (int i = 1; i < args.length; i++) {
+            Path path = Paths.get(args[i]);
+            try (InputStream in = Files.newInputStream(path)) {
+                Replay replay = Replay.read(in);
+                submissions.add(new ChallengeSubmission(path.getFileName().toString(), day,
+                        replay.getFinalScore(), replay));
+            }
+        }
+        try (ChallengeVerifier verifier = new ChallengeVerifier()) {
+            long begin = System.nanoTime();
+            List<ChallengeResult> results = verifier.verifyAll(submissions);
+            long elapsed = System.nanoTime() - begin;
+            long ticks = 0;
+            for (ChallengeResult result : results) {
+                System.out.println(result);
+                ticks += result.getTicks();
+            }
+            System.out.printf("%d envios em %.1f ms (%.1f M passos/s no total)%n",
+                    results.size(), elapsed / 1e6, ticks * 1e3 / elapsed);
+        }
+    }
+}
@@ -0,0 +1,50 @@
+package com.tetris.core.replay;
+
+import java.time.LocalDate;
+import java.time.ZoneOffset;
+
+import com.tetris.core.Board;
+import com.tetris.core.GameCore;
+import com.tetris.core.random.RandomizerType;
+import com.tetris.core.random.SplitMix64;
+
+/**
+ * Regras do desafio diário: todos os jogadores recebem, no mesmo dia (UTC), a mesma sequência
+ * de peças, num tabuleiro padrão com o saco de 7. A semente é derivada da data, por isso cliente
+ * e servidor calculam-na sem a combinar.
+ */
+public final class DailyChallenge {
+
+    /** Modo de sorteio do desafio. */
+    public static final RandomizerType RANDOMIZER = RandomizerType.BAG_7;
+    /** Duração máxima aceite de uma partida do desafio (duas horas de jogo), em passos. */
+    public static final long MAX_TICKS = 2L * 60 * 60 * GameCore.TICKS_PER_SECOND;
+    /**
+     * Tamanho máximo aceite de uma gravação enviada: cabe uma partida de {@link #MAX_TICKS} com
+     * um comando em cada passo (dois bytes por comando) e as suas keyframes.
+     */
+    public static final int MAX_REPLAY_BYTES = 8 << 20;
+
+    // Separa as sementes do desafio de outras derivadas da data
+    private static final long SALT = 0x7E7215DA11L;
+
+    private DailyChallenge() {}
+
+    /** @return O dia do desafio em curso (em UTC). */
+    public static LocalDate today() {
+        return LocalDate.now(ZoneOffset.UTC);
+    }
+
+    /** @return A semente do desafio do dia {@code day}. */
+    public static long seedFor(LocalDate day) {
+        return new SplitMix64(day.toEpochDay() ^ SALT).nextLong();
+    }
+
+    /** @return true se a gravação foi feita com as regras do desafio do dia {@code day}. */
+    public static boolean matchesRules(Replay replay, LocalDate day) {
+        return replay.getSeed() == seedFor(day)
+                && replay.getRandomizerType() == RANDOMIZER
+                && replay.getBoardWidth() == Board.DEFAULT_WIDTH
+                && replay.getBoardHeight() == Board.DEFAULT_HEIGHT;
+    }
+}
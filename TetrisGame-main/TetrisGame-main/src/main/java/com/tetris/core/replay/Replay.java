@@ -0,0 +1,238 @@
+package com.tetris.core.replay;
+
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.nio.BufferUnderflowException;
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+import java.util.Arrays;
+
+import com.tetris.core.random.RandomizerType;
+
+/**
+ * Gravação imutável de uma partida: tudo o que é preciso para a reproduzir passo a passo.
+ * Como o {@link com.tetris.core.GameCore} é determinístico, basta guardar as condições iniciais
+ * (dimensões do tabuleiro, modo de sorteio e semente) e os comandos do jogador; o resto volta
+ * a ser calculado na reprodução.
+ *
+ * Os comandos ficam num fluxo compacto de varints (7 bits por byte): para cada comando, a
+ * distância em passos desde o comando anterior e os bits de {@link com.tetris.core.Input}.
+ * Na prática são dois ou três bytes por comando, uns dez bytes por peça.
+ *
+ * Para saltar para o meio de uma partida longa sem a simular desde o início, a gravação inclui
+ * fotografias periódicas do estado (keyframes, ver {@link com.tetris.core.GameCore#saveState}):
+ * basta retomar a mais próxima e simular daí em diante.
+ *
+ * Formato do ficheiro (big-endian): "TRPL", versão, largura, altura, modo de sorteio,
+ * semente, passo final, pontuação e linhas finais, número de comandos e o fluxo de comandos;
+ * depois as keyframes e, no fim, um índice (passo, posição no ficheiro) de cada keyframe, a
+ * posição do índice e de novo "TRPL". As versões 1 e 2 foram gravadas antes da rotação SRS
+ * e já não se reproduzem com as regras atuais, por isso são recusadas.
+ */
+public final class Replay {
+
+    private static final int MAGIC = 0x5452504C; // "TRPL"
+    // 3: rotação SRS (mesmo formato da 2)
+    private static final int VERSION = 3;
+
+    private final int boardWidth;
+    private final int boardHeight;
+    private final RandomizerType randomizerType;
+    private final long seed;
+    private final long endTick;
+    private final int finalScore;
+    private final int finalLines;
+    private final int inputCount;
+    // Os comandos e as keyframes são lidos por posição absoluta e nunca alterados; numa gravação
+    // lida de um ficheiro mapeado são fatias dele
+    private final ByteBuffer inputs;
+    // Passo de cada keyframe (crescente) e onde começa em keyframes
+    private final long[] keyframeTicks;
+    private final int[] keyframeOffsets;
+    // Cada keyframe: posição no fluxo de comandos (int), passo do último comando antes dela (long),
+    // tamanho do estado (int) e o estado
+    private final ByteBuffer keyframes;
+
+    Replay(int boardWidth, int boardHeight, RandomizerType randomizerType, long seed,
+           long endTick, int finalScore, int finalLines, int inputCount, ByteBuffer inputs,
+           long[] keyframeTicks, int[] keyframeOffsets, ByteBuffer keyframes) {
+        this.boardWidth = boardWidth;
+        this.boardHeight = boardHeight;
+        this.randomizerType = randomizerType;
+        this.seed = seed;
+        this.endTick = endTick;
+        this.finalScore = finalScore;
+        this.finalLines = finalLines;
+        this.inputCount = inputCount;
+        this.inputs = inputs;
+        this.keyframeTicks = keyframeTicks;
+        this.keyframeOffsets = keyframeOffsets;
+        this.keyframes = keyframes;
+    }
+
+    /** Escreve a gravação em {@code out} (não fecha o fluxo); as posições do índice contam a partir daqui. */
+    public void write(OutputStream out) throws IOException {
+        DataOutputStream data = new DataOutputStream(out);
+        data.writeInt(MAGIC);
+        data.writeByte(VERSION);
+        data.writeShort(boardWidth);
+        data.writeShort(boardHeight);
+        data.writeUTF(randomizerType.name());
+        data.writeLong(seed);
+        data.writeLong(endTick);
+        data.writeInt(finalScore);
+        data.writeInt(finalLines);
+        data.writeInt(inputCount);
+        data.writeInt(inputs.limit());
+        writeBlock(data, inputs);
+        data.writeInt(keyframes.limit());
+        int keyframesStart = data.size();
+        writeBlock(data, keyframes);
+        int indexOffset = data.size();
+        data.writeInt(keyframeTicks.length);
+        for (int k = 0; k < keyframeTicks.length; k++) {
+            data.writeLong(keyframeTicks[k]);
+            data.writeInt(keyframesStart + keyframeOffsets[k]);
+        }
+        data.writeInt(indexOffset);
+        data.writeInt(MAGIC);
+        data.flush();
+    }
+
+    // Um bloco sem vetor por trás (só de leitura ou mapeado) passa aos pedaços por um vetor pequeno
+    private static void writeBlock(DataOutputStream data, ByteBuffer block) throws IOException {
+        if (block.hasArray()) {
+            data.write(block.array(), block.arrayOffset(), block.limit());
+            return;
+        }
+        byte[] chunk = new byte[Math.min(block.limit(), 8192)];
+        for (int at = 0; at < block.limit(); at += chunk.length) {
+            int length = Math.min(chunk.length, block.limit() - at);
+            block.get(at, chunk, 0, length);
+            data.write(chunk, 0, length);
+        }
+    }
+
+    /**
+     * Lê uma gravação escrita por {@link #write(OutputStream)}. As keyframes são localizadas
+     * pelo índice no fim do ficheiro.
+     * @throws IOException Se o fluxo não contém uma gravação válida.
+     */
+    public static Replay read(InputStream in) throws IOException {
+        return read(ByteBuffer.wrap(in.readAllBytes()));
+    }
+
+    /**
+     * Lê uma gravação a partir da posição atual de {@code buffer} até ao seu limite (por exemplo,
+     * uma fatia de um ficheiro mapeado em memória). Os comandos e as keyframes não são copiados:
+     * a gravação guarda fatias só de leitura de {@code buffer}, que não deve ser alterado depois.
+     * @throws IOException Se os bytes não contêm uma gravação válida.
+     */
+    public static Replay read(ByteBuffer buffer) throws IOException {
+        try {
+            return parse(buffer.slice().asReadOnlyBuffer());
+        } catch (BufferUnderflowException | IndexOutOfBoundsException | IllegalArgumentException
+                | NegativeArraySizeException ex) {
+            throw new IOException("Ficheiro de replay inválido", ex);
+        }
+    }
+
+    private static Replay parse(ByteBuffer file) throws IOException {
+        if (file.getInt() != MAGIC) {
+            throw new IOException("Ficheiro de replay inválido");
+        }
+        int version = file.get() & 0xFF;
+        if (version == 1 || version == 2) {
+            throw new IOException("Replay gravado com o sistema de rotação anterior");
+        }
+        if (version != VERSION) {
+            throw new IOException("Versão de replay não suportada: " + version);
+        }
+        int width = file.getShort() & 0xFFFF;
+        int height = file.getShort() & 0xFFFF;
+        byte[] typeName = new byte[checkLength(file, file.getShort() & 0xFFFF)];
+        file.get(typeName);
+        RandomizerType type = RandomizerType.valueOf(new String(typeName, StandardCharsets.US_ASCII));
+        long seed = file.getLong();
+        long endTick = file.getLong();
+        int score = file.getInt();
+        int lines = file.getInt();
+        int count = file.getInt();
+        ByteBuffer inputs = block(file, file.getInt());
+        int keyframesLength = file.getInt();
+        int keyframesStart = file.position();
+        ByteBuffer keyframes = block(file, keyframesLength);
+        int end = file.limit();
+        if (file.getInt(end - 4) != MAGIC) {
+            throw new IOException("Replay incompleto: falta o índice de keyframes");
+        }
+        file.position(file.getInt(end - 8));
+        int keyframeCount = file.getInt();
+        // Cada entrada do índice ocupa 12 bytes
+        if (keyframeCount < 0 || keyframeCount > file.remaining() / 12) {
+            throw new IOException("Replay truncado: índice com " + keyframeCount + " keyframes");
+        }
+        long[] ticks = new long[keyframeCount];
+        int[] offsets = new int[keyframeCount];
+        for (int k = 0; k < keyframeCount; k++) {
+            ticks[k] = file.getLong();
+            offsets[k] = file.getInt() - keyframesStart;
+            if (offsets[k] < 0 || offsets[k] >= keyframes.limit()) {
+                throw new IOException("Replay inválido: keyframe fora do bloco de keyframes");
+            }
+        }
+        return new Replay(width, height, type, seed, endTick, score, lines, count, inputs, ticks, offsets, keyframes);
+    }
+
+    /**
+     * Confirma que ainda há {@code length} bytes por ler antes de os alocar: um tamanho
+     * declarado não pode obrigar a reservar mais memória do que o próprio ficheiro ocupa.
+     */
+    private static int checkLength(ByteBuffer file, int length) throws IOException {
+        if (length < 0 || length > file.remaining()) {
+            throw new IOException("Replay truncado: bloco de " + length + " bytes com " + file.remaining() + " por ler");
+        }
+        return length;
+    }
+
+    /** @return Os próximos {@code length} bytes de {@code file}, como fatia, e avança sobre eles. */
+    private static ByteBuffer block(ByteBuffer file, int length) throws IOException {
+        int start = file.position();
+        ByteBuffer block = file.slice(start, checkLength(file, length));
+        file.position(start + length);
+        return block;
+    }
+
+    public int getBoardWidth() { return boardWidth; }
+    public int getBoardHeight() { return boardHeight; }
+    public RandomizerType getRandomizerType() { return randomizerType; }
+    public long getSeed() { return seed; }
+    /** @return O último passo gravado (o do fim de jogo, numa partida completa). */
+    public long getEndTick() { return endTick; }
+    /** @return A pontuação no fim da gravação, para confirmar a reprodução. */
+    public int getFinalScore() { return finalScore; }
+    public int getFinalLines() { return finalLines; }
+    /** @return Quantos comandos foram gravados. */
+    public int getInputCount() { return inputCount; }
+    /** @return Tamanho, em bytes, do fluxo de comandos. */
+    public int getInputBytes() { return inputs.limit(); }
+    public int getKeyframeCount() { return keyframeTicks.length; }
+    /** @return O passo em que a keyframe {@code k} foi tirada. */
+    public long getKeyframeTick(int k) { return keyframeTicks[k]; }
+
+    // Lido pelo ReplayPlayer sem cópia, por posição absoluta: ninguém altera o bloco
+    ByteBuffer inputs() { return inputs; }
+
+    /** @return A última keyframe tirada no passo {@code tick} ou antes dele, ou -1 se não houver. */
+    int keyframeAtOrBefore(long tick) {
+        int found = Arrays.binarySearch(keyframeTicks, tick);
+        return found >= 0 ? found : -found - 2;
+    }
+
+    /** @return A keyframe {@code k}, posicionada no seu início (o ReplayPlayer só a lê). */
+    ByteBuffer keyframe(int k) {
+        return keyframes.slice(keyframeOffsets[k], keyframes.limit() - keyframeOffsets[k]);
+    }
+}
@@ -0,0 +1,196 @@
+package com.tetris.core.replay;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.ByteBuffer;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+
+import com.tetris.core.GameCore;
+import com.tetris.core.GameState;
+import com.tetris.core.Input;
+
+/**
+ * Reproduz um {@link Replay} num {@link GameCore}, passo a passo: {@link #advance(GameCore)}
+ * executa um passo lógico com os comandos gravados para ele. Quem controla o ritmo é quem
+ * chama — a GameEngine avança ao ritmo do relógio (reprodução em tempo real no ecrã), e
+ * {@link #playToEnd(GameCore)} avança sem esperas, milhares de vezes mais rápido que o jogo real.
+ *
+ * A gravação é lida em sequência; cada {@link #start(GameCore)} recomeça-a do início, e
+ * {@link #seek(GameCore, long)} salta para qualquer passo (para a frente ou para trás) a partir
+ * da keyframe mais próxima, simulando no máximo o intervalo entre keyframes.
+ */
+public class ReplayPlayer {
+
+    private final Replay replay;
+    private final ByteBuffer inputs;
+    private int position;
+
+    // Próximo comando gravado (válido se hasInput)
+    private boolean hasInput;
+    private long inputTick;
+    private int input;
+    private boolean inputOnStep;
+
+    public ReplayPlayer(Replay replay) {
+        this.replay = replay;
+        this.inputs = replay.inputs();
+    }
+
+    /**
+     * Prepara {@code core} com as condições iniciais da gravação (modo de sorteio e semente)
+     * e começa a partida.
+     * @throws IllegalArgumentException Se o tabuleiro do núcleo não tem as dimensões da gravação.
+     */
+    public void start(GameCore core) {
+        if (core.getBoard().getWidth() != replay.getBoardWidth()
+                || core.getBoard().getHeight() != replay.getBoardHeight()) {
+            throw new IllegalArgumentException("O replay foi gravado num tabuleiro "
+                    + replay.getBoardWidth() + "x" + replay.getBoardHeight());
+        }
+        position = 0;
+        inputTick = 0;
+        readInput();
+        core.setRandomizerType(replay.getRandomizerType());
+        core.start(replay.getSeed());
+        applyPendingInputs(core);
+    }
+
+    /**
+     * Executa o próximo passo gravado em {@code core}.
+     * @return false se a gravação já terminou (e nada foi feito).
+     */
+    public boolean advance(GameCore core) {
+        if (isFinished(core)) {
+            return false;
+        }
+        int stepInput = Input.NONE;
+        if (hasInput && inputOnStep && inputTick == core.getTick() + 1) {
+            stepInput = input;
+            readInput();
+        }
+        core.step(stepInput);
+        applyPendingInputs(core);
+        return true;
+    }
+
+    /**
+     * Leva {@code core}, já começado com {@link #start(GameCore)}, ao passo {@code targetTick}
+     * da gravação (limitado ao intervalo gravado).
+     * Se o alvo está à frente e não há uma keyframe mais próxima, simula a partir do passo atual;
+     * senão retoma a última keyframe antes do alvo (ou o início da partida) e simula até ele.
+     */
+    public void seek(GameCore core, long targetTick) {
+        long target = Math.max(0, Math.min(targetTick, replay.getEndTick()));
+        int keyframe = replay.keyframeAtOrBefore(target);
+        long keyframeTick = keyframe >= 0 ? replay.getKeyframeTick(keyframe) : 0;
+        long current = core.getTick();
+        if (current > target || current < keyframeTick) {
+            if (keyframe >= 0) {
+                restore(core, keyframe);
+            } else {
+                start(core);
+            }
+        }
+        while (core.getTick() < target && advance(core)) {
+            // tudo acontece em advance
+        }
+    }
+
+    private void restore(GameCore core, int keyframe) {
+        ByteBuffer in = replay.keyframe(keyframe);
+        position = in.getInt();
+        inputTick = in.getLong();
+        in.getInt(); // tamanho do estado
+        core.loadState(in);
+        readInput();
+        applyPendingInputs(core);
+    }
+
+    /** Avança até ao fim da gravação, sem esperas. */
+    public void playToEnd(GameCore core) {
+        while (advance(core)) {
+            // tudo acontece em advance
+        }
+    }
+
+    /** @return true quando o núcleo chegou ao último passo gravado ou ao fim de jogo. */
+    public boolean isFinished(GameCore core) {
+        return core.getTick() >= replay.getEndTick() || core.getState() == GameState.GAME_OVER;
+    }
+
+    /** @return true se o núcleo terminou com a pontuação e as linhas gravadas. */
+    public boolean matches(GameCore core) {
+        return core.getTick() == replay.getEndTick()
+                && core.getScore() == replay.getFinalScore()
+                && core.getLinesCleared() == replay.getFinalLines();
+    }
+
+    public Replay getReplay() { return replay; }
+
+    // Comandos aplicados fora do relógio logo depois do passo atual
+    private void applyPendingInputs(GameCore core) {
+        while (hasInput && !inputOnStep && inputTick == core.getTick()) {
+            int pending = input;
+            readInput();
+            core.applyInput(pending);
+        }
+    }
+
+    private void readInput() {
+        if (position >= inputs.limit()) {
+            hasInput = false;
+            return;
+        }
+        inputTick += readVarint();
+        long bits = readVarint();
+        input = (int) (bits >>> 1);
+        inputOnStep = (bits & 1) != 0;
+        hasInput = true;
+    }
+
+    private long readVarint() {
+        long value = 0;
+        int shift = 0;
+        byte b;
+        do {
+            b = inputs.get(position++);
+            value |= (long) (b & 0x7F) << shift;
+            shift += 7;
+        } while (b < 0);
+        return value;
+    }
+
+    /**
+     * Reproduz sem ecrã as gravações indicadas e mostra o resultado e a velocidade em relação
+     * ao tempo real (da reprodução mais rápida de várias seguidas). Uso: {@code ReplayPlayer <ficheiro.replay>...}
+     */
+    public static void main(String[] args) throws IOException {
+        for (String file : args) {
+            Path path = Paths.get(file);
+            Replay replay;
+            try (InputStream in = Files.newInputStream(path)) {
+                replay = Replay.read(in);
+            }
+            GameCore core = new GameCore(replay.getBoardWidth(), replay.getBoardHeight());
+            ReplayPlayer player = new ReplayPlayer(replay);
+            // Repete durante meio segundo e fica com a reprodução mais rápida (já compilada pelo JIT)
+            long elapsed = Long.MAX_VALUE;
+            long deadline = System.nanoTime() + 500_000_000L;
+            do {
+                long begin = System.nanoTime();
+                player.start(core);
+                player.playToEnd(core);
+                elapsed = Math.min(elapsed, Math.max(1, System.nanoTime() - begin));
+            } while (System.nanoTime() < deadline);
+            double gameSeconds = (double) core.getTick() / GameCore.TICKS_PER_SECOND;
+            System.out.printf("%s: %d passos (%.1f s de jogo), %d comandos em %d bytes, pontuação %d, linhas %d%s%n",
+                    path.getFileName(), core.getTick(), gameSeconds, replay.getInputCount(),
+                    replay.getInputBytes(), core.getScore(), core.getLinesCleared(),
+                    player.matches(core) ? "" : " (DIVERGE da gravação: " + replay.getFinalScore() + ")");
+            System.out.printf("  reproduzido em %.2f ms, %.0fx o tempo real%n",
+                    elapsed / 1e6, gameSeconds * 1e9 / elapsed);
+        }
+    }
+}
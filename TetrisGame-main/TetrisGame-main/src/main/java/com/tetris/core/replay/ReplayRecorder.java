@@ -0,0 +1,163 @@
+package com.tetris.core.replay;
+
+import java.nio.ByteBuffer;
+import java.util.Arrays;
+
+import com.tetris.core.GameCore;
+import com.tetris.core.Input;
+import com.tetris.core.TickListener;
+import com.tetris.core.TickResult;
+import com.tetris.core.random.RandomizerType;
+
+/**
+ * Grava as partidas de um {@link GameCore} enquanto ele corre. Regista-se como
+ * {@link TickListener} do núcleo; a cada nova partida recomeça a gravação, e só os passos
+ * com comandos do jogador ocupam espaço (o resto é reconstituído pela simulação).
+ *
+ * Cada comando é gravado como dois varints: os passos decorridos desde o comando anterior e
+ * os bits de {@link Input} deslocados um bit para a esquerda, com o bit baixo a indicar se o
+ * comando entrou por {@link GameCore#step(int)} (1) ou por {@link GameCore#applyInput(int)} (0).
+ *
+ * De {@code keyframeInterval} em {@code keyframeInterval} passos o estado completo do núcleo é
+ * também guardado, no primeiro passo entregue depois do intervalo (o núcleo só entrega passos
+ * em que algo aconteceu, pelo menos a fixação de cada peça). Um estado retomado com
+ * {@link GameCore#loadState} já não corresponde à gravação, por isso a interrompe.
+ *
+ * Como os outros assinantes, só deve ser usado na thread que executa o núcleo.
+ */
+public class ReplayRecorder implements TickListener {
+
+    /** Intervalo padrão entre keyframes: dez segundos de jogo. */
+    public static final int DEFAULT_KEYFRAME_INTERVAL = 10 * GameCore.TICKS_PER_SECOND;
+
+    private final GameCore core;
+    private final int keyframeInterval;
+
+    private int boardWidth;
+    private int boardHeight;
+    private RandomizerType randomizerType;
+    private long seed;
+    private boolean recording;
+
+    private byte[] buffer = new byte[256];
+    private int length;
+    private int inputCount;
+    // Passo do último comando gravado
+    private long lastTick;
+    // Passo do fim de jogo, ou -1 enquanto a partida continua
+    private long gameOverTick;
+
+    private byte[] keyframes = new byte[1024];
+    private int keyframesLength;
+    private long[] keyframeTicks = new long[16];
+    private int[] keyframeOffsets = new int[16];
+    private int keyframeCount;
+    private long nextKeyframeTick;
+
+    /** @param core O núcleo gravado; o gravador ainda tem de ser registado com {@code addTickListener}. */
+    public ReplayRecorder(GameCore core) {
+        this(core, DEFAULT_KEYFRAME_INTERVAL);
+    }
+
+    /** @param keyframeInterval Passos entre keyframes; quanto menor, mais rápido o salto e maior o ficheiro. */
+    public ReplayRecorder(GameCore core, int keyframeInterval) {
+        if (keyframeInterval < 1) {
+            throw new IllegalArgumentException("O intervalo entre keyframes tem de ser positivo");
+        }
+        this.core = core;
+        this.keyframeInterval = keyframeInterval;
+    }
+
+    @Override
+    public void onTick(TickResult result) {
+        if (result.has(TickResult.NEW_GAME)) {
+            begin();
+        } else if (result.has(TickResult.STATE_LOADED)) {
+            recording = false;
+        }
+        if (!recording) {
+            return;
+        }
+        if (result.has(TickResult.GAME_OVER)) {
+            gameOverTick = result.getLastTick();
+        }
+        if (result.getInput() != Input.NONE) {
+            long tick = result.getLastTick();
+            writeVarint(tick - lastTick);
+            writeVarint(((long) result.getInput() << 1) | (result.isStep() ? 1 : 0));
+            lastTick = tick;
+            inputCount++;
+        }
+        if (result.isStep() && result.getLastTick() >= nextKeyframeTick) {
+            writeKeyframe();
+        }
+    }
+
+    private void begin() {
+        boardWidth = core.getBoard().getWidth();
+        boardHeight = core.getBoard().getHeight();
+        randomizerType = core.getRandomizerType();
+        seed = core.getSeed();
+        length = 0;
+        inputCount = 0;
+        lastTick = core.getTick();
+        gameOverTick = -1;
+        keyframesLength = 0;
+        keyframeCount = 0;
+        nextKeyframeTick = core.getTick() + keyframeInterval;
+        recording = true;
+    }
+
+    private void writeVarint(long value) {
+        if (buffer.length - length < 10) {
+            buffer = Arrays.copyOf(buffer, buffer.length * 2);
+        }
+        while ((value & ~0x7FL) != 0) {
+            buffer[length++] = (byte) ((value & 0x7F) | 0x80);
+            value >>>= 7;
+        }
+        buffer[length++] = (byte) value;
+    }
+
+    /** Guarda o estado do núcleo e onde o fluxo de comandos continua a partir dele. */
+    private void writeKeyframe() {
+        int stateSize = core.getStateSize();
+        int size = Integer.BYTES + Long.BYTES + Integer.BYTES + stateSize;
+        if (keyframes.length - keyframesLength < size) {
+            keyframes = Arrays.copyOf(keyframes, Math.max(keyframes.length * 2, keyframesLength + size));
+        }
+        if (keyframeCount == keyframeTicks.length) {
+            keyframeTicks = Arrays.copyOf(keyframeTicks, keyframeCount * 2);
+            keyframeOffsets = Arrays.copyOf(keyframeOffsets, keyframeCount * 2);
+        }
+        ByteBuffer out = ByteBuffer.wrap(keyframes, keyframesLength, size);
+        out.putInt(length);
+        out.putLong(lastTick);
+        out.putInt(stateSize);
+        core.saveState(out);
+        keyframeTicks[keyframeCount] = core.getTick();
+        keyframeOffsets[keyframeCount] = keyframesLength;
+        keyframeCount++;
+        keyframesLength += size;
+        nextKeyframeTick = core.getTick() + keyframeInterval;
+    }
+
+    /** @return true enquanto a partida do núcleo está a ser gravada. */
+    public boolean isRecording() { return recording; }
+
+    /**
+     * Fecha a gravação da partida atual até ao fim de jogo, ou até ao passo em que o núcleo
+     * está se a partida ainda não acabou, e devolve-a; a gravação continua se a partida prosseguir.
+     * @throws IllegalStateException Se nenhuma partida está a ser gravada.
+     */
+    public Replay toReplay() {
+        if (!recording) {
+            throw new IllegalStateException("Nenhuma partida gravada");
+        }
+        long endTick = gameOverTick >= 0 ? gameOverTick : core.getTick();
+        return new Replay(boardWidth, boardHeight, randomizerType, seed, endTick,
+                core.getScore(), core.getLinesCleared(), inputCount, ByteBuffer.wrap(Arrays.copyOf(buffer, length)),
+                Arrays.copyOf(keyframeTicks, keyframeCount), Arrays.copyOf(keyframeOffsets, keyframeCount),
+                ByteBuffer.wrap(Arrays.copyOf(keyframes, keyframesLength)));
+    }
+}
@@ -0,0 +1,106 @@
+package com.tetris.core.tetromino;
+
+import java.util.Arrays;
+
+/**
+ * Uma orientação (rotação) imutável de um tetrominó.
+ * As quatro orientações de cada tipo de peça são calculadas uma única vez, no carregamento
+ * da classe, e partilhadas por todas as instâncias. Rodar uma peça passa a ser apenas trocar
+ * o índice da orientação, sem alocar nada, e duas formas iguais são o mesmo objeto.
+ */
+public final class Orientation {
+    // Dimensões da matriz onde a forma está desenhada
+    private final int width;
+    private final int height;
+    // Coordenadas (coluna, linha) de cada bloco dentro da matriz
+    private final int[] cellX;
+    private final int[] cellY;
+    // Máscara de bits de cada linha da matriz (bit c = coluna c)
+    private final int[] rowMasks;
+    // Linha do bloco mais baixo de cada coluna da matriz (-1 se a coluna está vazia)
+    private final int[] columnBottoms;
+    // Retângulo ocupado pelos blocos dentro da matriz
+    private int left = Integer.MAX_VALUE;
+    private int top = Integer.MAX_VALUE;
+    private int right;
+    private int bottom;
+
+    private Orientation(int[][] shape) {
+        height = shape.length;
+        width = shape[0].length;
+        rowMasks = new int[height];
+        int count = 0;
+        for (int r = 0; r < height; r++) {
+            for (int c = 0; c < width; c++) {
+                if (shape[r][c] != 0) {
+                    rowMasks[r] |= 1 << c;
+                    count++;
+                }
+            }
+        }
+        cellX = new int[count];
+        cellY = new int[count];
+        columnBottoms = new int[width];
+        Arrays.fill(columnBottoms, -1);
+        int i = 0;
+        for (int r = 0; r < height; r++) {
+            for (int c = 0; c < width; c++) {
+                if (shape[r][c] != 0) {
+                    cellX[i] = c;
+                    cellY[i] = r;
+                    columnBottoms[c] = r;
+                    left = Math.min(left, c);
+                    top = Math.min(top, r);
+                    right = Math.max(right, c);
+                    bottom = Math.max(bottom, r);
+                    i++;
+                }
+            }
+        }
+    }
+
+    /**
+     * Gera as quatro orientações de uma forma, na ordem das rotações no sentido horário.
+     * A rotação transpõe a matriz e inverte suas linhas, como a peça sempre fez.
+     * @param shape A forma na orientação inicial (1 = bloco, 0 = vazio).
+     * @return Tabela com as orientações 0 a 3.
+     */
+    public static Orientation[] rotationsOf(int[][] shape) {
+        Orientation[] orientations = new Orientation[4];
+        int[][] current = shape;
+        for (int i = 0; i < 4; i++) {
+            orientations[i] = new Orientation(current);
+            current = rotateClockwise(current);
+        }
+        return orientations;
+    }
+
+    private static int[][] rotateClockwise(int[][] shape) {
+        // Mesma rotação que a peça fazia em tempo de jogo: a matriz é tratada como quadrada
+        // com lado igual ao número de linhas.
+        int size = shape.length;
+        int[][] rotated = new int[size][size];
+        for (int r = 0; r < size; r++) {
+            for (int c = 0; c < size; c++) {
+                rotated[c][size - 1 - r] = shape[r][c];
+            }
+        }
+        return rotated;
+    }
+
+    public int getWidth() { return width; }
+    public int getHeight() { return height; }
+    public int getCellCount() { return cellX.length; }
+    public int getCellX(int i) { return cellX[i]; }
+    public int getCellY(int i) { return cellY[i]; }
+    public int getRowMask(int row) { return rowMasks[row]; }
+    public int getColumnBottom(int column) { return columnBottoms[column]; }
+    /** @return A primeira coluna da matriz com blocos. */
+    public int getLeft() { return left; }
+    /** @return A primeira linha da matriz com blocos. */
+    public int getTop() { return top; }
+    /** @return Quantas colunas os blocos ocupam. */
+    public int getSpanX() { return right - left + 1; }
+    /** @return Quantas linhas os blocos ocupam. */
+    public int getSpanY() { return bottom - top + 1; }
+}
@@ -0,0 +1,161 @@
+package com.tetris.core.tetromino;
+
+/**
+ * Definição partilhada e imutável de cada tipo de tetrominó (Flyweight): a tabela de
+ * orientações, as tabelas de "chutes" do SRS, o deslocamento de entrada em jogo e o índice
+ * de cor na paleta.
+ * A peça em jogo não é um objeto: o núcleo guarda apenas o tipo, a rotação e a posição
+ * em campos primitivos, e consulta a forma aqui.
+ *
+ * A ordem das constantes (I, J, L, O, S, T, Z) é a dos índices devolvidos pelo
+ * {@link com.tetris.core.random.Randomizer}.
+ *
+ * As rotações seguem o Super Rotation System: cada peça gira sobre o centro da sua caixa
+ * (4x4 para o I, 3x3 para J, L, S, T e Z; o O não gira), entra em jogo deitada e, se a
+ * posição rodada estiver ocupada, tenta por ordem os cinco deslocamentos da tabela da
+ * rotação pedida (a tabela do I é diferente da das outras). As tabelas são montadas uma
+ * vez, no carregamento da classe, já com o eixo y do tabuleiro (para baixo).
+ */
+public enum PieceType {
+    I(1, true, new int[][]{ // azul na paleta
+            {0, 0, 0, 0},
+            {1, 1, 1, 1},
+            {0, 0, 0, 0},
+            {0, 0, 0, 0}
+    }),
+    J(2, true, new int[][]{ // rosa na paleta
+            {1, 0, 0},
+            {1, 1, 1},
+            {0, 0, 0}
+    }),
+    L(3, true, new int[][]{ // laranja na paleta
+            {0, 0, 1},
+            {1, 1, 1},
+            {0, 0, 0}
+    }),
+    // Um quadrado não muda ao girar
+    O(4, false, new int[][]{ // amarelo na paleta
+            {1, 1},
+            {1, 1}
+    }),
+    S(5, true, new int[][]{ // vermelho na paleta
+            {0, 1, 1},
+            {1, 1, 0},
+            {0, 0, 0}
+    }),
+    T(6, true, new int[][]{ // roxo na paleta
+            {0, 1, 0},
+            {1, 1, 1},
+            {0, 0, 0}
+    }),
+    Z(7, true, new int[][]{ // verde na paleta
+            {1, 1, 0},
+            {0, 1, 1},
+            {0, 0, 0}
+    });
+
+    /** Deslocamentos tentados em cada rotação (o primeiro é ficar no lugar). */
+    public static final int KICK_TESTS = 5;
+
+    private static final PieceType[] VALUES = values();
+
+    private final int paletteIndex;
+    private final boolean rotates;
+    private final Orientation[] orientations;
+    // Deslocamentos por [rotação de partida * 2 + (0 horário, 1 anti-horário)][teste], no eixo do tabuleiro
+    private final int[][] kickX = new int[8][KICK_TESTS];
+    private final int[][] kickY = new int[8][KICK_TESTS];
+
+    PieceType(int paletteIndex, boolean rotates, int[][] shape) {
+        this.paletteIndex = paletteIndex;
+        this.rotates = rotates;
+        this.orientations = Orientation.rotationsOf(shape);
+        int[][] clockwise = !rotates ? SrsKicks.NONE : shape.length == 4 ? SrsKicks.I : SrsKicks.JLSTZ;
+        for (int from = 0; from < 4; from++) {
+            int[] cw = clockwise[from];
+            // Rodar de "from" no sentido anti-horário desfaz a rotação horária de "from - 1"
+            int[] ccw = clockwise[(from + 3) & 3];
+            for (int test = 0; test < KICK_TESTS; test++) {
+                kickX[from * 2][test] = cw[test * 2];
+                kickY[from * 2][test] = -cw[test * 2 + 1];
+                kickX[from * 2 + 1][test] = -ccw[test * 2];
+                kickY[from * 2 + 1][test] = ccw[test * 2 + 1];
+            }
+        }
+    }
+
+    /** @return O tipo com o índice dado (0 a 6), sem alocar (ao contrário de {@code values()}). */
+    public static PieceType of(int index) {
+        return VALUES[index];
+    }
+
+    /** @return A orientação de índice {@code rotation} (0 a 3). */
+    public Orientation getOrientation(int rotation) {
+        return orientations[rotation];
+    }
+
+    /** @return A rotação seguinte no sentido horário (a mesma, para peças que não giram). */
+    public int rotateClockwise(int rotation) {
+        return rotates ? (rotation + 1) & 3 : rotation;
+    }
+
+    /** @return A rotação seguinte no sentido anti-horário (a mesma, para peças que não giram). */
+    public int rotateCounterClockwise(int rotation) {
+        return rotates ? (rotation + 3) & 3 : rotation;
+    }
+
+    /**
+     * @return Deslocamento horizontal do teste {@code test} (0 a {@link #KICK_TESTS} - 1) ao rodar
+     *         a partir de {@code rotation}. O O só tem deslocamentos nulos.
+     */
+    public int getKickX(int rotation, boolean clockwise, int test) {
+        return kickX[rotation * 2 + (clockwise ? 0 : 1)][test];
+    }
+
+    /** @return Deslocamento vertical (positivo para baixo) do teste {@code test}, como {@link #getKickX}. */
+    public int getKickY(int rotation, boolean clockwise, int test) {
+        return kickY[rotation * 2 + (clockwise ? 0 : 1)][test];
+    }
+
+    /** @return Índice da cor da peça na paleta (0 é reservado para célula vazia). */
+    public int getPaletteIndex() {
+        return paletteIndex;
+    }
+
+    /**
+     * @return Coluna de entrada da matriz da peça num tabuleiro com {@code boardWidth} colunas:
+     *         a caixa fica centrada, arredondada para a esquerda (colunas 3 a 5 num tabuleiro
+     *         de 10 colunas; o I ocupa 3 a 6 e o O 4 e 5, como no SRS).
+     */
+    public int spawnX(int boardWidth) {
+        return (boardWidth - orientations[0].getWidth()) / 2;
+    }
+
+    /** @return Linha de entrada da matriz da peça: os blocos começam na linha de cima do tabuleiro. */
+    public int spawnY() {
+        return -orientations[0].getTop();
+    }
+
+    /**
+     * Tabelas do SRS numa classe à parte: o construtor de um enum não pode ler os campos
+     * estáticos do próprio enum, que ainda não estão iniciados.
+     */
+    private static final class SrsKicks {
+        // Chutes do SRS (x, y com y para cima, como nas tabelas publicadas) de cada rotação no
+        // sentido horário, a partir das orientações 0, 1 (R), 2 e 3 (L). Os do sentido
+        // anti-horário são os simétricos dos da rotação inversa.
+        static final int[][] JLSTZ = {
+                {0, 0, -1, 0, -1, 1, 0, -2, -1, -2},  // 0 -> R
+                {0, 0, 1, 0, 1, -1, 0, 2, 1, 2},      // R -> 2
+                {0, 0, 1, 0, 1, 1, 0, -2, 1, -2},     // 2 -> L
+                {0, 0, -1, 0, -1, -1, 0, 2, -1, 2}    // L -> 0
+        };
+        static final int[][] I = {
+                {0, 0, -2, 0, 1, 0, -2, -1, 1, 2},    // 0 -> R
+                {0, 0, -1, 0, 2, 0, -1, 2, 2, -1},    // R -> 2
+                {0, 0, 2, 0, -1, 0, 2, 1, -1, -2},    // 2 -> L
+                {0, 0, 1, 0, -2, 0, 1, -2, -2, 1}     // L -> 0
+        };
+        static final int[][] NONE = new int[4][2 * KICK_TESTS];
+    }
+}
@@ -0,0 +1,38 @@
+package com.tetris.model;
+
+import java.time.Instant;
+
+/**
+ * Entrada do índice do {@link ReplayArchive}: quem jogou, a pontuação, quando e onde a
+ * gravação está no arquivo. Os bytes da gravação só são lidos quando pedidos.
+ */
+public final class ArchivedReplay {
+    private final long offset;
+    private final String player;
+    private final int score;
+    private final long timestamp;
+    private final int length;
+
+    ArchivedReplay(long offset, String player, int score, long timestamp, int length) {
+        this.offset = offset;
+        this.player = player;
+        this.score = score;
+        this.timestamp = timestamp;
+        this.length = length;
+    }
+
+    /** @return A posição do registo no arquivo, para {@link ReplayArchive#load(long)}. */
+    public long getOffset() { return offset; }
+    public String getPlayer() { return player; }
+    public int getScore() { return score; }
+    /** @return O instante em que a partida foi arquivada, em milissegundos desde 1970. */
+    public long getTimestamp() { return timestamp; }
+    public Instant getDate() { return Instant.ofEpochMilli(timestamp); }
+    /** @return O tamanho da gravação, em bytes. */
+    public int getLength() { return length; }
+
+    @Override
+    public String toString() {
+        return player + " - " + score + " pts em " + getDate();
+    }
+}
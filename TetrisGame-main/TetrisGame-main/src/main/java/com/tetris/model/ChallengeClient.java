@@ -0,0 +1,84 @@
+package com.tetris.model;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.net.HttpURLConnection;
+import java.net.URI;
+import java.net.URLEncoder;
+import java.nio.charset.StandardCharsets;
+import java.time.LocalDate;
+
+import org.json.JSONException;
+import org.json.JSONObject;
+
+import com.tetris.core.replay.Replay;
+
+/**
+ * Envio das partidas ao servidor: as do desafio diário para {@code POST /desafio} e as normais
+ * para {@code POST /partida} do {@link com.tetris.LocalHttpServer}. O cliente nunca regista uma
+ * pontuação: o servidor simula de novo a gravação e só ele a regista, se a reproduzir.
+ *
+ * O endereço do servidor vem da propriedade de sistema {@value #SERVER_PROPERTY}
+ * (por omissão {@value #DEFAULT_SERVER}).
+ */
+public final class ChallengeClient {
+
+    public static final String SERVER_PROPERTY = "tetris.servidor";
+    public static final String DEFAULT_SERVER = "http://localhost:8080";
+
+    private static final int TIMEOUT_MILLIS = 10_000;
+
+    private ChallengeClient() {}
+
+    /**
+     * Envia a gravação da partida do desafio de {@code dia} com a pontuação declarada e espera
+     * pela verificação.
+     * @return A resposta do servidor: {@code aceite}, {@code estado}, {@code scoreSimulado}, etc.
+     * @throws IOException Se o servidor não respondeu ou a resposta não é JSON.
+     */
+    public static JSONObject submit(String jogador, LocalDate dia, int score, Replay replay) throws IOException {
+        return post("/desafio?" + query(jogador, score) + "&dia=" + dia, replay);
+    }
+
+    /**
+     * Envia a gravação de uma partida normal com a pontuação declarada e espera pela verificação.
+     * @return A resposta do servidor, como em {@link #submit}.
+     * @throws IOException Se o servidor não respondeu ou a resposta não é JSON.
+     */
+    public static JSONObject submitGame(String jogador, int score, Replay replay) throws IOException {
+        return post("/partida?" + query(jogador, score), replay);
+    }
+
+    private static String query(String jogador, int score) {
+        return "jogador=" + URLEncoder.encode(jogador, StandardCharsets.UTF_8) + "&score=" + score;
+    }
+
+    private static JSONObject post(String pathAndQuery, Replay replay) throws IOException {
+        String server = System.getProperty(SERVER_PROPERTY, DEFAULT_SERVER);
+        HttpURLConnection connection = (HttpURLConnection) URI.create(server + pathAndQuery).toURL().openConnection();
+        try {
+            connection.setRequestMethod("POST");
+            connection.setDoOutput(true);
+            connection.setConnectTimeout(TIMEOUT_MILLIS);
+            connection.setReadTimeout(TIMEOUT_MILLIS);
+            connection.setRequestProperty("Content-Type", "application/octet-stream");
+            try (OutputStream out = connection.getOutputStream()) {
+                replay.write(out);
+            }
+            int status = connection.getResponseCode();
+            // Uma gravação rejeitada (4xx) também traz o motivo em JSON
+            InputStream body = status < 400 ? connection.getInputStream() : connection.getErrorStream();
+            if (body == null) {
+                throw new IOException("Resposta vazia do servidor (" + status + ")");
+            }
+            try (InputStream in = body) {
+                return new JSONObject(new String(in.readAllBytes(), StandardCharsets.UTF_8));
+            } catch (JSONException ex) {
+                throw new IOException("Resposta inválida do servidor (" + status + ")", ex);
+            }
+        } finally {
+            connection.disconnect();
+        }
+    }
+}
@@ -1,13 +1,21 @@
 package com.tetris.model;
 
 import java.io.*;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
 import java.nio.file.*;
 import java.util.*;
 import org.json.JSONArray;
 import org.json.JSONObject;
 
+import com.tetris.core.replay.Replay;
+
 public class LocalStorageManager {
     private static final String STORAGE_PATH = "src/main/resources/storage/";
+    private static final String REPLAYS_PATH = STORAGE_PATH + "replays/";
+    private static final String SAVED_GAME_FILE = "partida.sav";
+    // Aberto no primeiro uso e partilhado pela persistência e pela UI
+    private static ReplayArchive replayArchive;
 
     public static void saveJogadores(List<String> jogadores) {
         JSONArray arr = new JSONArray(jogadores);
@@ -48,6 +56,102 @@ public class LocalStorageManager {
         return ranking;
     }
 
+    /** @return O arquivo de replays, aberto no primeiro uso. */
+    public static synchronized ReplayArchive getReplayArchive() throws IOException {
+        if (replayArchive == null) {
+            replayArchive = ReplayArchive.open(Paths.get(REPLAYS_PATH));
+        }
+        return replayArchive;
+    }
+
+    /**
+     * Acrescenta o replay de uma partida ao arquivo.
+     * @return A entrada do arquivo, ou null se falhou.
+     */
+    public static ArchivedReplay saveReplay(String jogador, Replay replay) {
+        try {
+            return getReplayArchive().append(jogador, replay);
+        } catch (IOException e) {
+            e.printStackTrace();
+            return null;
+        }
+    }
+
+    /** @return O replay arquivado mais recentemente, ou null se não houver nenhum legível. */
+    public static Replay loadLastReplay() {
+        try {
+            ArchivedReplay last = getReplayArchive().latest();
+            return last == null ? null : getReplayArchive().load(last.getOffset());
+        } catch (IOException e) {
+            return null;
+        }
+    }
+
+    /**
+     * Guarda a partida em curso por cima da anterior. O ficheiro é escrito ao lado e depois
+     * movido atomicamente para o lugar, por isso uma falha a meio deixa a versão anterior intacta.
+     */
+    public static void saveGame(SavedGame game) {
+        saveGame(Paths.get(STORAGE_PATH + SAVED_GAME_FILE), game);
+    }
+
+    static void saveGame(Path target, SavedGame game) {
+        Path temp = target.resolveSibling(target.getFileName() + ".tmp");
+        try {
+            Files.createDirectories(target.getParent());
+        } catch (IOException e) {
+            e.printStackTrace();
+            return;
+        }
+        try (FileChannel channel = FileChannel.open(temp, StandardOpenOption.CREATE,
+                StandardOpenOption.WRITE, StandardOpenOption.TRUNCATE_EXISTING)) {
+            ByteBuffer data = ByteBuffer.wrap(game.toBytes());
+            while (data.hasRemaining()) {
+                channel.write(data);
+            }
+            channel.force(false);
+        } catch (IOException e) {
+            e.printStackTrace();
+            return;
+        }
+        try {
+            Files.move(temp, target, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+        } catch (AtomicMoveNotSupportedException e) {
+            try {
+                Files.move(temp, target, StandardCopyOption.REPLACE_EXISTING);
+            } catch (IOException ex) {
+                ex.printStackTrace();
+            }
+        } catch (IOException e) {
+            e.printStackTrace();
+        }
+    }
+
+    /** @return A partida guardada, ou null se não houver nenhuma legível. */
+    public static SavedGame loadGame() {
+        return loadGame(Paths.get(STORAGE_PATH + SAVED_GAME_FILE));
+    }
+
+    static SavedGame loadGame(Path file) {
+        try {
+            return SavedGame.fromBytes(Files.readAllBytes(file));
+        } catch (NoSuchFileException e) {
+            return null;
+        } catch (IOException e) {
+            System.err.println("Partida guardada ignorada: " + e.getMessage());
+            return null;
+        }
+    }
+
+    /** Apaga a partida guardada (a partida acabou e já não há nada para continuar). */
+    public static void deleteSavedGame() {
+        try {
+            Files.deleteIfExists(Paths.get(STORAGE_PATH + SAVED_GAME_FILE));
+        } catch (IOException e) {
+            e.printStackTrace();
+        }
+    }
+
     private static void writeFile(String fileName, String content) {
         try {
             Files.write(Paths.get(STORAGE_PATH + fileName), content.getBytes());
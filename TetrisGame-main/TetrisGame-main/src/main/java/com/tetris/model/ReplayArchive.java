@@ -0,0 +1,484 @@
+package com.tetris.model;
+
+import java.io.ByteArrayOutputStream;
+import java.io.Closeable;
+import java.io.EOFException;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Map;
+import java.util.NavigableSet;
+import java.util.TreeSet;
+
+import com.tetris.core.replay.Replay;
+
+/**
+ * Arquivo de gravações de muitas partidas, só de acrescentar, repartido em segmentos
+ * ({@code segment-00000.trpa}, ...) de até {@code segmentSize} bytes. Substitui um ficheiro por
+ * partida: centenas de milhares de gravações ficam em poucos ficheiros, sem listar diretórios.
+ *
+ * Cada registo guarda o instante, a pontuação, o nome do jogador e a gravação. A posição de um
+ * registo ({@link ArchivedReplay#getOffset()}) é o número do segmento nos 32 bits altos e a
+ * posição dentro dele nos baixos. As leituras usam os segmentos mapeados em memória
+ * ({@link MappedByteBuffer}) e devolvem fatias deles, sem copiar os bytes da gravação: o
+ * {@link Replay} lido guarda fatias do mapeamento. Só é mapeado o que já está escrito no
+ * ficheiro; o mapeamento é refeito quando uma leitura pede um registo acrescentado depois dele.
+ *
+ * Ao lado de cada segmento há um índice ({@code segment-00000.trpi}) com o cabeçalho de cada
+ * registo (posição, instante, pontuação, tamanho e nome), acrescentado a cada registo. Ao abrir,
+ * esses ficheiros pequenos são lidos em sequência para montar os índices em memória (por jogador
+ * e pontuação, por pontuação e por data), sem tocar nas gravações; daí em diante "as 100 melhores
+ * partidas do jogador X" é só uma consulta. Só os registos que faltam no índice (a aplicação
+ * parou entre escrever o registo e a sua entrada, ou o arquivo vem de uma versão sem índices)
+ * são lidos do segmento, e acrescentados ao índice. Um registo incompleto no fim de um segmento
+ * (gravação interrompida) é descartado, tal como zeros no fim do ficheiro.
+ *
+ * Os métodos são sincronizados: o arquivo pode ser usado pela thread de persistência e pela UI.
+ */
+public class ReplayArchive implements Closeable {
+
+    /** Tamanho máximo padrão de um segmento. */
+    public static final int DEFAULT_SEGMENT_SIZE = 256 << 20;
+
+    private static final int MAGIC = 0x54525041; // "TRPA"
+    private static final int VERSION = 1;
+    private static final int SEGMENT_HEADER_BYTES = 8;
+    // Tamanho do registo, instante, pontuação, tamanho do nome (o nome e a gravação vêm a seguir)
+    private static final int RECORD_HEADER_BYTES = 4 + 8 + 4 + 2;
+    private static final int INDEX_MAGIC = 0x54525049; // "TRPI"
+    // Posição, instante, pontuação, tamanho da gravação, tamanho do nome (o nome vem a seguir)
+    private static final int INDEX_ENTRY_BYTES = 4 + 8 + 4 + 4 + 2;
+
+    private static final Comparator<ArchivedReplay> BY_SCORE = Comparator
+            .comparingInt(ArchivedReplay::getScore).reversed()
+            .thenComparing(Comparator.comparingLong(ArchivedReplay::getTimestamp).reversed())
+            .thenComparingLong(ArchivedReplay::getOffset);
+    private static final Comparator<ArchivedReplay> BY_DATE = Comparator
+            .comparingLong(ArchivedReplay::getTimestamp)
+            .thenComparingLong(ArchivedReplay::getOffset);
+
+    private final Path directory;
+    private final int segmentSize;
+    private final List<Segment> segments = new ArrayList<>();
+
+    private final Map<String, NavigableSet<ArchivedReplay>> byPlayer = new HashMap<>();
+    private final NavigableSet<ArchivedReplay> byScore = new TreeSet<>(BY_SCORE);
+    private final NavigableSet<ArchivedReplay> byDate = new TreeSet<>(BY_DATE);
+
+    private ReplayArchive(Path directory, int segmentSize) {
+        this.directory = directory;
+        this.segmentSize = segmentSize;
+    }
+
+    /** Abre (ou cria) o arquivo na pasta {@code directory}, com segmentos do tamanho padrão. */
+    public static ReplayArchive open(Path directory) throws IOException {
+        return open(directory, DEFAULT_SEGMENT_SIZE);
+    }
+
+    /**
+     * Abre (ou cria) o arquivo na pasta {@code directory}. O tamanho dos segmentos só limita os
+     * segmentos novos; os existentes são lidos como estão.
+     */
+    public static ReplayArchive open(Path directory, int segmentSize) throws IOException {
+        if (segmentSize <= SEGMENT_HEADER_BYTES + RECORD_HEADER_BYTES) {
+            throw new IllegalArgumentException("Segmento demasiado pequeno: " + segmentSize);
+        }
+        Files.createDirectories(directory);
+        ReplayArchive archive = new ReplayArchive(directory, segmentSize);
+        try {
+            for (int index = 0; Files.exists(archive.segmentPath(index)); index++) {
+                archive.segments.add(archive.openSegment(index));
+            }
+        } catch (IOException ex) {
+            archive.close();
+            throw ex;
+        }
+        return archive;
+    }
+
+    /** Arquiva a gravação de uma partida de {@code player}, com o instante atual. */
+    public ArchivedReplay append(String player, Replay replay) throws IOException {
+        return append(player, replay.getFinalScore(), System.currentTimeMillis(), replay);
+    }
+
+    /**
+     * Acrescenta um registo ao fim do último segmento (ou a um segmento novo, se não couber)
+     * e indexa-o.
+     * @return A entrada do índice, com a posição do registo.
+     */
+    public synchronized ArchivedReplay append(String player, int score, long timestamp, Replay replay)
+            throws IOException {
+        byte[] name = player.getBytes(StandardCharsets.UTF_8);
+        if (name.length > 0xFFFF) {
+            throw new IllegalArgumentException("Nome de jogador demasiado longo");
+        }
+        ByteArrayOutputStream replayBytes = new ByteArrayOutputStream(256);
+        replay.write(replayBytes);
+        int recordSize = RECORD_HEADER_BYTES + name.length + replayBytes.size();
+
+        Segment segment = segments.isEmpty() ? null : segments.get(segments.size() - 1);
+        if (segment == null || (segment.end > SEGMENT_HEADER_BYTES && segment.end + recordSize > segmentSize)) {
+            segment = createSegment(segments.size());
+            segments.add(segment);
+        }
+        ByteBuffer header = ByteBuffer.allocate(RECORD_HEADER_BYTES + name.length);
+        header.putInt(recordSize - 4);
+        header.putLong(timestamp);
+        header.putInt(score);
+        header.putShort((short) name.length);
+        header.put(name);
+        header.flip();
+        int position = segment.end;
+        segment.write(position, header, ByteBuffer.wrap(replayBytes.toByteArray()));
+        segment.end = position + recordSize;
+
+        ArchivedReplay entry = new ArchivedReplay(offset(segment.index, position), player, score,
+                timestamp, replayBytes.size());
+        segment.writeIndex(entry, name);
+        index(entry);
+        return entry;
+    }
+
+    /** @return As {@code limit} melhores partidas de {@code player}, da maior pontuação para a menor. */
+    public synchronized List<ArchivedReplay> topByPlayer(String player, int limit) {
+        NavigableSet<ArchivedReplay> entries = byPlayer.get(player);
+        return entries == null ? new ArrayList<>() : first(entries, limit);
+    }
+
+    /** @return As {@code limit} melhores partidas de todos os jogadores. */
+    public synchronized List<ArchivedReplay> topScores(int limit) {
+        return first(byScore, limit);
+    }
+
+    /** @return As partidas arquivadas entre {@code from} (inclusive) e {@code to} (exclusive), por data. */
+    public synchronized List<ArchivedReplay> between(long from, long to) {
+        List<ArchivedReplay> result = new ArrayList<>();
+        for (ArchivedReplay entry : byDate.tailSet(new ArchivedReplay(Long.MIN_VALUE, "", 0, from, 0), true)) {
+            if (entry.getTimestamp() >= to) {
+                break;
+            }
+            result.add(entry);
+        }
+        return result;
+    }
+
+    /** @return A partida arquivada mais recentemente, ou null se o arquivo está vazio. */
+    public synchronized ArchivedReplay latest() {
+        return byDate.isEmpty() ? null : byDate.last();
+    }
+
+    public synchronized int size() {
+        return byDate.size();
+    }
+
+    /**
+     * @return true se {@code replay} já está arquivada em nome de {@code player}. Só são lidos os
+     *         registos do jogador com uma gravação do mesmo tamanho.
+     */
+    public synchronized boolean contains(String player, Replay replay) throws IOException {
+        NavigableSet<ArchivedReplay> entries = byPlayer.get(player);
+        if (entries == null) {
+            return false;
+        }
+        ByteArrayOutputStream replayBytes = new ByteArrayOutputStream(256);
+        replay.write(replayBytes);
+        ByteBuffer bytes = ByteBuffer.wrap(replayBytes.toByteArray());
+        for (ArchivedReplay entry : entries) {
+            if (entry.getLength() == bytes.remaining() && replayBytes(entry.getOffset()).equals(bytes)) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    /**
+     * @return Os bytes da gravação no registo {@code offset}, como fatia só de leitura do segmento
+     *         mapeado (sem cópia). Os registos nunca mudam, por isso a fatia continua válida.
+     * @throws IOException Se {@code offset} não aponta para um registo do arquivo.
+     */
+    public synchronized ByteBuffer replayBytes(long offset) throws IOException {
+        int segmentIndex = (int) (offset >>> 32);
+        int position = (int) offset;
+        if (segmentIndex < 0 || segmentIndex >= segments.size()) {
+            throw new IOException("Posição fora do arquivo: " + offset);
+        }
+        Segment segment = segments.get(segmentIndex);
+        if (position < SEGMENT_HEADER_BYTES || position + RECORD_HEADER_BYTES > segment.end) {
+            throw new IOException("Posição fora do arquivo: " + offset);
+        }
+        ByteBuffer map = segment.map();
+        int recordSize = map.getInt(position) + 4;
+        int nameLength = map.getShort(position + RECORD_HEADER_BYTES - 2) & 0xFFFF;
+        int start = position + RECORD_HEADER_BYTES + nameLength;
+        return map.slice(start, position + recordSize - start).asReadOnlyBuffer();
+    }
+
+    /** Lê a gravação do registo {@code offset}, diretamente do segmento mapeado. */
+    public Replay load(long offset) throws IOException {
+        return Replay.read(replayBytes(offset));
+    }
+
+    @Override
+    public synchronized void close() throws IOException {
+        for (Segment segment : segments) {
+            segment.close();
+        }
+        segments.clear();
+    }
+
+    private static long offset(int segment, int position) {
+        return ((long) segment << 32) | position;
+    }
+
+    private static List<ArchivedReplay> first(NavigableSet<ArchivedReplay> entries, int limit) {
+        List<ArchivedReplay> result = new ArrayList<>(Math.min(limit, entries.size()));
+        Iterator<ArchivedReplay> it = entries.iterator();
+        while (result.size() < limit && it.hasNext()) {
+            result.add(it.next());
+        }
+        return result;
+    }
+
+    private void index(ArchivedReplay entry) {
+        byPlayer.computeIfAbsent(entry.getPlayer(), player -> new TreeSet<>(BY_SCORE)).add(entry);
+        byScore.add(entry);
+        byDate.add(entry);
+    }
+
+    private Path segmentPath(int index) {
+        return directory.resolve(String.format("segment-%05d.trpa", index));
+    }
+
+    private Path indexPath(int index) {
+        return directory.resolve(String.format("segment-%05d.trpi", index));
+    }
+
+    private Segment createSegment(int index) throws IOException {
+        FileChannel channel = FileChannel.open(segmentPath(index), StandardOpenOption.CREATE_NEW,
+                StandardOpenOption.READ, StandardOpenOption.WRITE);
+        FileChannel indexChannel;
+        try {
+            // Um índice que sobrou sem o seu segmento não vale nada
+            indexChannel = FileChannel.open(indexPath(index), StandardOpenOption.CREATE,
+                    StandardOpenOption.TRUNCATE_EXISTING, StandardOpenOption.READ, StandardOpenOption.WRITE);
+        } catch (IOException ex) {
+            channel.close();
+            throw ex;
+        }
+        Segment segment = new Segment(index, channel, indexChannel);
+        ByteBuffer header = ByteBuffer.allocate(SEGMENT_HEADER_BYTES);
+        header.putInt(MAGIC).putInt(VERSION).flip();
+        segment.write(0, header);
+        segment.end = SEGMENT_HEADER_BYTES;
+        segment.resetIndex();
+        return segment;
+    }
+
+    /**
+     * Abre um segmento existente e indexa os seus registos completos: primeiro os do índice do
+     * segmento, depois os que o índice ainda não tem, lidos do segmento. O que sobra no fim do
+     * segmento é cortado antes de ele ser mapeado.
+     */
+    private Segment openSegment(int index) throws IOException {
+        FileChannel channel = FileChannel.open(segmentPath(index), StandardOpenOption.READ,
+                StandardOpenOption.WRITE);
+        FileChannel indexChannel = null;
+        try {
+            long size = Math.min(channel.size(), Integer.MAX_VALUE);
+            ByteBuffer header = ByteBuffer.allocate(SEGMENT_HEADER_BYTES);
+            if (size < SEGMENT_HEADER_BYTES) {
+                throw new IOException("Segmento de replays inválido: " + segmentPath(index));
+            }
+            read(channel, header, 0);
+            if (header.getInt(0) != MAGIC || header.getInt(4) != VERSION) {
+                throw new IOException("Segmento de replays inválido: " + segmentPath(index));
+            }
+            indexChannel = FileChannel.open(indexPath(index), StandardOpenOption.CREATE,
+                    StandardOpenOption.READ, StandardOpenOption.WRITE);
+            Segment segment = new Segment(index, channel, indexChannel);
+            int position = readIndex(segment, (int) size);
+            position = scanRecords(segment, position, (int) size);
+            if (position < channel.size()) {
+                // Registo interrompido a meio (ou zeros no fim): descarta-o para os próximos serem
+                // escritos no lugar certo. O segmento ainda não foi mapeado.
+                channel.truncate(position);
+            }
+            segment.end = position;
+            return segment;
+        } catch (IOException ex) {
+            channel.close();
+            if (indexChannel != null) {
+                indexChannel.close();
+            }
+            throw ex;
+        }
+    }
+
+    /**
+     * Indexa as entradas do índice de {@code segment} enquanto descrevem registos seguidos que
+     * cabem nos {@code size} bytes do segmento, e corta o índice depois da última.
+     * @return O fim do último registo indexado.
+     */
+    private int readIndex(Segment segment, int size) throws IOException {
+        long indexSize = segment.indexChannel.size();
+        ByteBuffer in = ByteBuffer.allocate((int) Math.min(indexSize, Integer.MAX_VALUE));
+        read(segment.indexChannel, in, 0);
+        in.flip();
+        if (in.remaining() < SEGMENT_HEADER_BYTES || in.getInt() != INDEX_MAGIC || in.getInt() != VERSION) {
+            segment.resetIndex();
+            return SEGMENT_HEADER_BYTES;
+        }
+        int position = SEGMENT_HEADER_BYTES;
+        while (in.remaining() >= INDEX_ENTRY_BYTES) {
+            int entryStart = in.position();
+            int entryPosition = in.getInt();
+            long timestamp = in.getLong();
+            int score = in.getInt();
+            int length = in.getInt();
+            int nameLength = in.getShort() & 0xFFFF;
+            long recordEnd = (long) entryPosition + RECORD_HEADER_BYTES + nameLength + length;
+            if (entryPosition != position || length < 0 || recordEnd > size || in.remaining() < nameLength) {
+                // Entrada escrita a meio, ou de um registo que o segmento já não tem
+                in.position(entryStart);
+                break;
+            }
+            byte[] name = new byte[nameLength];
+            in.get(name);
+            index(new ArchivedReplay(offset(segment.index, position), new String(name, StandardCharsets.UTF_8),
+                    score, timestamp, length));
+            position = (int) recordEnd;
+        }
+        segment.indexEnd = in.position();
+        if (segment.indexEnd < indexSize) {
+            segment.indexChannel.truncate(segment.indexEnd);
+        }
+        return position;
+    }
+
+    /**
+     * Lê do segmento os cabeçalhos dos registos completos a partir de {@code position},
+     * indexa-os e acrescenta-os ao índice do segmento.
+     * @return O fim do último registo completo.
+     */
+    private int scanRecords(Segment segment, int position, int size) throws IOException {
+        ByteBuffer header = ByteBuffer.allocate(RECORD_HEADER_BYTES);
+        while (position + RECORD_HEADER_BYTES <= size) {
+            header.clear();
+            read(segment.channel, header, position);
+            int recordSize = header.getInt(0) + 4;
+            int nameLength = header.getShort(RECORD_HEADER_BYTES - 2) & 0xFFFF;
+            if (recordSize < RECORD_HEADER_BYTES + nameLength || (long) position + recordSize > size) {
+                break;
+            }
+            byte[] name = new byte[nameLength];
+            read(segment.channel, ByteBuffer.wrap(name), position + RECORD_HEADER_BYTES);
+            ArchivedReplay entry = new ArchivedReplay(offset(segment.index, position),
+                    new String(name, StandardCharsets.UTF_8), header.getInt(12), header.getLong(4),
+                    recordSize - RECORD_HEADER_BYTES - nameLength);
+            segment.writeIndex(entry, name);
+            index(entry);
+            position += recordSize;
+        }
+        return position;
+    }
+
+    private static void read(FileChannel channel, ByteBuffer buffer, long position) throws IOException {
+        while (buffer.hasRemaining()) {
+            int read = channel.read(buffer, position);
+            if (read < 0) {
+                throw new EOFException();
+            }
+            position += read;
+        }
+    }
+
+    /**
+     * Um ficheiro de segmento, com o seu índice: os canais para escrever e o mapeamento usado
+     * nas leituras.
+     */
+    private static final class Segment {
+        final int index;
+        final FileChannel channel;
+        final FileChannel indexChannel;
+        // Fim do último registo completo, que é também o tamanho do ficheiro
+        int end;
+        // Fim da última entrada do índice
+        long indexEnd;
+        private MappedByteBuffer map;
+
+        Segment(int index, FileChannel channel, FileChannel indexChannel) {
+            this.index = index;
+            this.channel = channel;
+            this.indexChannel = indexChannel;
+        }
+
+        void write(long position, ByteBuffer... buffers) throws IOException {
+            for (ByteBuffer buffer : buffers) {
+                while (buffer.hasRemaining()) {
+                    position += channel.write(buffer, position);
+                }
+            }
+            channel.force(false);
+        }
+
+        /**
+         * Acrescenta ao índice a entrada do registo {@code entry}, depois de o registo estar no
+         * segmento. O índice não é forçado para o disco: uma entrada perdida volta a ser lida do
+         * segmento na próxima abertura.
+         */
+        void writeIndex(ArchivedReplay entry, byte[] name) throws IOException {
+            ByteBuffer out = ByteBuffer.allocate(INDEX_ENTRY_BYTES + name.length);
+            out.putInt((int) entry.getOffset());
+            out.putLong(entry.getTimestamp());
+            out.putInt(entry.getScore());
+            out.putInt(entry.getLength());
+            out.putShort((short) name.length);
+            out.put(name);
+            out.flip();
+            while (out.hasRemaining()) {
+                indexEnd += indexChannel.write(out, indexEnd);
+            }
+        }
+
+        /** Recomeça o índice só com o cabeçalho. */
+        void resetIndex() throws IOException {
+            indexChannel.truncate(0);
+            ByteBuffer header = ByteBuffer.allocate(SEGMENT_HEADER_BYTES);
+            header.putInt(INDEX_MAGIC).putInt(VERSION).flip();
+            indexEnd = 0;
+            while (header.hasRemaining()) {
+                indexEnd += indexChannel.write(header, indexEnd);
+            }
+        }
+
+        /**
+         * @return Um mapeamento só de leitura dos registos completos. Os registos nunca mudam, por
+         *         isso o mapeamento só é refeito quando há registos novos além do seu fim; nunca
+         *         passa do fim do ficheiro, que assim não cresce com as leituras.
+         */
+        MappedByteBuffer map() throws IOException {
+            if (map == null || map.capacity() < end) {
+                map = channel.map(FileChannel.MapMode.READ_ONLY, 0, end);
+            }
+            return map;
+        }
+
+        void close() throws IOException {
+            try {
+                channel.close();
+            } finally {
+                indexChannel.close();
+            }
+        }
+    }
+}
@@ -0,0 +1,98 @@
+package com.tetris.model;
+
+import java.io.IOException;
+import java.nio.BufferUnderflowException;
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+import java.util.zip.CRC32;
+
+import com.tetris.core.GameCore;
+
+/**
+ * Partida guardada para o botão "Continuar Partida": o nome do jogador e o estado completo
+ * do {@link GameCore} (tabuleiro com as cores, peça atual e próxima, sorteador, pontuação,
+ * nível e linhas), com poucas centenas de bytes.
+ *
+ * Formato (big-endian): "TSAV", versão, nome (short com o tamanho + UTF-8), estado
+ * ({@link GameCore#saveState}, precedido do tamanho em short) e um CRC32 de tudo o que vem
+ * antes, para que um ficheiro truncado ou alterado seja recusado em vez de carregado.
+ */
+public final class SavedGame {
+
+    static final int MAGIC = 0x54534156; // "TSAV"
+    // 2: rotação SRS; as partidas da versão 1 tinham outras formas de peça
+    static final byte VERSION = 2;
+
+    private final String player;
+    private final byte[] state;
+
+    private SavedGame(String player, byte[] state) {
+        this.player = player;
+        this.state = state;
+    }
+
+    /**
+     * Fotografa a partida atual. Tem de ser chamado na thread que avança o núcleo.
+     * @throws IllegalStateException Se nenhuma partida foi começada.
+     */
+    public static SavedGame capture(String player, GameCore core) {
+        ByteBuffer out = ByteBuffer.allocate(core.getStateSize());
+        core.saveState(out);
+        return new SavedGame(player, out.array());
+    }
+
+    /**
+     * Substitui a partida de {@code core} pela guardada. Tem de ser chamado na thread que avança o núcleo.
+     * @throws IllegalArgumentException Se a partida foi guardada num tabuleiro de outras dimensões.
+     */
+    public void restore(GameCore core) {
+        core.loadState(ByteBuffer.wrap(state));
+    }
+
+    public String getPlayer() { return player; }
+
+    /** @return A partida codificada no formato descrito acima. */
+    public byte[] toBytes() {
+        byte[] name = player.getBytes(StandardCharsets.UTF_8);
+        ByteBuffer out = ByteBuffer.allocate(4 + 1 + 2 + name.length + 2 + state.length + 4);
+        out.putInt(MAGIC);
+        out.put(VERSION);
+        out.putShort((short) name.length);
+        out.put(name);
+        out.putShort((short) state.length);
+        out.put(state);
+        CRC32 crc = new CRC32();
+        crc.update(out.array(), 0, out.position());
+        out.putInt((int) crc.getValue());
+        return out.array();
+    }
+
+    /**
+     * Lê uma partida escrita por {@link #toBytes()}.
+     * @throws IOException Se os bytes não são uma partida guardada desta versão ou estão danificados.
+     */
+    public static SavedGame fromBytes(byte[] data) throws IOException {
+        try {
+            ByteBuffer in = ByteBuffer.wrap(data);
+            if (in.getInt() != MAGIC) {
+                throw new IOException("Não é uma partida guardada");
+            }
+            byte version = in.get();
+            if (version != VERSION) {
+                throw new IOException("Versão de partida guardada não suportada: " + version);
+            }
+            byte[] name = new byte[in.getShort() & 0xFFFF];
+            in.get(name);
+            byte[] state = new byte[in.getShort() & 0xFFFF];
+            in.get(state);
+            CRC32 crc = new CRC32();
+            crc.update(data, 0, in.position());
+            if (in.getInt() != (int) crc.getValue() || in.hasRemaining()) {
+                throw new IOException("Partida guardada danificada");
+            }
+            return new SavedGame(new String(name, StandardCharsets.UTF_8), state);
+        } catch (BufferUnderflowException ex) {
+            throw new IOException("Partida guardada danificada", ex);
+        }
+    }
+}
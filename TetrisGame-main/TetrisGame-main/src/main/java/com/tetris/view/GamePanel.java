@@ -1,12 +1,9 @@
 package com.tetris.view;
 
-import java.lang.reflect.Constructor;
-import java.util.Arrays;
-
 import com.tetris.controller.GameEngine;
-import com.tetris.model.Board;
-import com.tetris.model.GameState;
-import com.tetris.model.tetromino.Tetromino;
+import com.tetris.core.GameSnapshot;
+import com.tetris.core.GameState;
+import com.tetris.core.tetromino.Orientation;
 
 import javafx.animation.AnimationTimer;
 import javafx.scene.canvas.Canvas;
@@ -26,7 +23,7 @@ public class GamePanel extends Canvas {
     private final GraphicsContext gc;
 
     public GamePanel(GameEngine gameEngine) {
-        super(Board.WIDTH * BLOCK_SIZE, Board.HEIGHT * BLOCK_SIZE);
+        super(gameEngine.getSnapshot().getBoardWidth() * BLOCK_SIZE, gameEngine.getSnapshot().getBoardHeight() * BLOCK_SIZE);
         this.gameEngine = gameEngine;
         this.gc = getGraphicsContext2D();
 
@@ -34,41 +31,42 @@ public class GamePanel extends Canvas {
         AnimationTimer renderer = new AnimationTimer() {
             @Override
             public void handle(long now) {
-                draw();
+                draw(now);
             }
         };
         renderer.start();
     }
 
-    private void draw() {
+    private void draw(long now) {
+        // Uma única fotografia por quadro: tudo o que se desenha vem do mesmo passo lógico
+        GameSnapshot frame = gameEngine.getSnapshot();
+
         // Limpa o canvas
         gc.setFill(Theme.isDark() ? Color.BLACK : Color.web("#f8f8f8"));
         gc.fillRect(0, 0, getWidth(), getHeight());
 
         // Desenha grade auxiliar para facilitar posicionamento
-        drawGrid();
+        drawGrid(frame);
 
         // Desenha o tabuleiro (peças já fixadas)
-        Board board = gameEngine.getBoard();
-        Color[][] grid = board.getGrid();
-        for (int y = 0; y < Board.HEIGHT; y++) {
-            for (int x = 0; x < Board.WIDTH; x++) {
-                if (grid[y][x] != null) {
-                    drawBlock(x, y, grid[y][x]);
+        for (int y = 0; y < frame.getBoardHeight(); y++) {
+            for (int x = 0; x < frame.getBoardWidth(); x++) {
+                int cell = frame.getCell(x, y);
+                if (cell != 0) {
+                    drawBlock(x, y, PieceColors.of(cell));
                 }
             }
         }
 
         // Desenha a peça atual
-        Tetromino currentPiece = gameEngine.getCurrentPiece();
-        // Desenha ghost (onde a peça irá cair)
-        drawGhost(currentPiece);
-        if (currentPiece != null) {
-            drawTetromino(currentPiece);
+        if (frame.getPieceShape() != null) {
+            // Desenha ghost (onde a peça irá cair)
+            drawGhost(frame);
+            drawTetromino(frame, now);
         }
 
         // Desenha sobreposições de estado (Pausado, Game Over)
-        GameState state = gameEngine.gameStateProperty().get();
+        GameState state = frame.getState();
         if (state == GameState.PAUSED) {
             drawOverlay("PAUSED");
         } else if (state == GameState.GAME_OVER) {
@@ -76,81 +74,50 @@ public class GamePanel extends Canvas {
         }
     }
 
-    private void drawGrid() {
+    private void drawGrid(GameSnapshot frame) {
         gc.setLineWidth(1);
         Color gridColor = Theme.isDark() ? Color.web("#333333", 0.6) : Color.web("#cccccc", 0.6);
         gc.setStroke(gridColor);
         // vertical lines
-        for (int x = 0; x <= Board.WIDTH; x++) {
+        for (int x = 0; x <= frame.getBoardWidth(); x++) {
             double px = x * BLOCK_SIZE + 0.5; // 0.5 for crisper lines
             gc.strokeLine(px, 0, px, getHeight());
         }
         // horizontal lines
-        for (int y = 0; y <= Board.HEIGHT; y++) {
+        for (int y = 0; y <= frame.getBoardHeight(); y++) {
             double py = y * BLOCK_SIZE + 0.5;
             gc.strokeLine(0, py, getWidth(), py);
         }
     }
 
-    private void drawGhost(Tetromino piece) {
-        if (piece == null) return;
-        Board board = gameEngine.getBoard();
-        try {
-            // create new instance of the same concrete class
-            Constructor<? extends Tetromino> ctor = (Constructor<? extends Tetromino>) piece.getClass().getDeclaredConstructor();
-            ctor.setAccessible(true);
-            Tetromino ghost = ctor.newInstance();
-            // match orientation by rotating up to 4 times
-            int[][] target = piece.getShape();
-            for (int r = 0; r < 4; r++) {
-                if (Arrays.deepEquals(ghost.getShape(), target)) break;
-                ghost.rotate();
+    private void drawGhost(GameSnapshot frame) {
+        // A linha de pouso é calculada pelo núcleo quando a peça se move; aqui só se desenha
+        int ghostY = frame.getGhostY();
+        Orientation shape = frame.getPieceShape();
+        Color ghostColor = Color.web("#39ff14", 0.22);
+        for (int i = 0; i < shape.getCellCount(); i++) {
+            int bx = frame.getPieceX() + shape.getCellX(i);
+            int by = ghostY + shape.getCellY(i);
+            if (by >= 0 && bx >= 0 && bx < frame.getBoardWidth() && by < frame.getBoardHeight()) {
+                gc.setFill(ghostColor);
+                gc.fillRect(bx * BLOCK_SIZE, by * BLOCK_SIZE, BLOCK_SIZE, BLOCK_SIZE);
+                gc.setStroke(Color.web("#000000", 0.25));
+                gc.strokeRect(bx * BLOCK_SIZE, by * BLOCK_SIZE, BLOCK_SIZE, BLOCK_SIZE);
             }
-            ghost.setX(piece.getX());
-            ghost.setY(piece.getY());
-
-            // drop until invalid
-            while (board.isValidPosition(ghost)) {
-                ghost.setY(ghost.getY() + 1);
-            }
-            ghost.setY(ghost.getY() - 1);
-
-            // draw translucent blocks for ghost
-            int[][] shape = ghost.getShape();
-            Color ghostColor = Color.web("#39ff14", 0.22);
-            for (int y = 0; y < shape.length; y++) {
-                for (int x = 0; x < shape[y].length; x++) {
-                    if (shape[y][x] != 0) {
-                        int bx = ghost.getX() + x;
-                        int by = ghost.getY() + y;
-                        if (by >= 0 && bx >= 0 && bx < Board.WIDTH && by < Board.HEIGHT) {
-                            gc.setFill(ghostColor);
-                            gc.fillRect(bx * BLOCK_SIZE, by * BLOCK_SIZE, BLOCK_SIZE, BLOCK_SIZE);
-                            gc.setStroke(Color.web("#000000", 0.25));
-                            gc.strokeRect(bx * BLOCK_SIZE, by * BLOCK_SIZE, BLOCK_SIZE, BLOCK_SIZE);
-                        }
-                    }
-                }
-            }
-
-        } catch (Exception e) {
-            // fallback: não desenhar ghost em caso de erro
         }
     }
 
-    private void drawTetromino(Tetromino piece) {
-        int[][] shape = piece.getShape();
-        Color color = piece.getColor();
-        for (int y = 0; y < shape.length; y++) {
-            for (int x = 0; x < shape[y].length; x++) {
-                if (shape[y][x] != 0) {
-                    drawBlock(piece.getX() + x, piece.getY() + y, color);
-                }
-            }
+    private void drawTetromino(GameSnapshot frame, long now) {
+        Orientation shape = frame.getPieceShape();
+        Color color = PieceColors.of(frame.getPiecePalette());
+        // Posição interpolada entre os passos lógicos, para a queda não andar aos saltos
+        double y = frame.getPieceY() + gameEngine.getRenderOffsetY(frame, now);
+        for (int i = 0; i < shape.getCellCount(); i++) {
+            drawBlock(frame.getPieceX() + shape.getCellX(i), y + shape.getCellY(i), color);
         }
     }
 
-    private void drawBlock(int x, int y, Color color) {
+    private void drawBlock(double x, double y, Color color) {
         gc.setFill(color);
         gc.fillRect(x * BLOCK_SIZE, y * BLOCK_SIZE, BLOCK_SIZE, BLOCK_SIZE);
         gc.setStroke(Theme.isDark() ? Color.WHITE : Color.BLACK);
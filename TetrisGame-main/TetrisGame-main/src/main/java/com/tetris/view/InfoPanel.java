@@ -4,7 +4,8 @@ import java.io.IOException;
 import java.io.InputStream;
 
 import com.tetris.controller.GameEngine;
-import com.tetris.model.tetromino.Tetromino;
+import com.tetris.core.GameSnapshot;
+import com.tetris.core.tetromino.Orientation;
 
 import javafx.animation.ScaleTransition;
 import javafx.beans.property.IntegerProperty;
@@ -168,9 +169,10 @@ public class InfoPanel extends VBox {
                 applyTheme(newV);
             });
 
-        // Animação: quando o score aumentar, faz um pulso no valor
-        gameEngine.scoreProperty().addListener((obs, oldV, newV) -> {
-            if (oldV != null && newV != null && newV.intValue() > oldV.intValue()) {
+        // Animação: quando o score aumentar, faz um pulso no valor (uma vez por quadro, mesmo
+        // que vários encaixes tenham pontuado)
+        gameEngine.addUiListener(events -> {
+            if (events.getScoreDelta() > 0) {
                 animateScoreIncrease();
                 com.tetris.sound.SoundManager.getInstance().playScoreIncrease();
             }
@@ -274,27 +276,26 @@ public class InfoPanel extends VBox {
         return box;
     }
 
-    private void drawNextPiece(Tetromino piece) {
+    private void drawNextPiece(GameSnapshot frame) {
         GraphicsContext gc = nextPieceCanvas.getGraphicsContext2D();
         gc.setFill(Theme.isDark() ? Color.BLACK : Color.web("#f8f8f8"));
         gc.fillRect(0, 0, nextPieceCanvas.getWidth(), nextPieceCanvas.getHeight());
 
-        if (piece != null) {
-            int[][] shape = piece.getShape();
-            Color color = piece.getColor();
+        if (frame != null && frame.getNextShape() != null) {
+            Orientation shape = frame.getNextShape();
+            Color color = PieceColors.of(frame.getNextPalette());
             double blockSize = GamePanel.BLOCK_SIZE * 0.8; // Um pouco menor para caber bem
-            double startX = (nextPieceCanvas.getWidth() - (shape[0].length * blockSize)) / 2;
-            double startY = (nextPieceCanvas.getHeight() - (shape.length * blockSize)) / 2;
-
-            for (int y = 0; y < shape.length; y++) {
-                for (int x = 0; x < shape[y].length; x++) {
-                    if (shape[y][x] != 0) {
-                        gc.setFill(color);
-                        gc.fillRect(startX + x * blockSize, startY + y * blockSize, blockSize, blockSize);
-                        gc.setStroke(Color.BLACK);
-                        gc.strokeRect(startX + x * blockSize, startY + y * blockSize, blockSize, blockSize);
-                    }
-                }
+            // Centra os blocos, não a matriz (as matrizes do SRS têm linhas e colunas vazias)
+            double startX = (nextPieceCanvas.getWidth() - (shape.getSpanX() * blockSize)) / 2 - shape.getLeft() * blockSize;
+            double startY = (nextPieceCanvas.getHeight() - (shape.getSpanY() * blockSize)) / 2 - shape.getTop() * blockSize;
+
+            for (int i = 0; i < shape.getCellCount(); i++) {
+                double px = startX + shape.getCellX(i) * blockSize;
+                double py = startY + shape.getCellY(i) * blockSize;
+                gc.setFill(color);
+                gc.fillRect(px, py, blockSize, blockSize);
+                gc.setStroke(Color.BLACK);
+                gc.strokeRect(px, py, blockSize, blockSize);
             }
         }
     }
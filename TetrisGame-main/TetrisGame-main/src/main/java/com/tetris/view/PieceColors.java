@@ -0,0 +1,27 @@
+package com.tetris.view;
+
+import javafx.scene.paint.Color;
+
+/**
+ * Paleta de cores das peças.
+ * O núcleo do jogo guarda apenas índices (1 a 7); aqui eles viram cores JavaFX.
+ */
+public final class PieceColors {
+
+    private static final Color[] PALETTE = {
+            null,           // 0: célula vazia
+            Color.BLUE,     // I
+            Color.DEEPPINK, // J
+            Color.ORANGE,   // L
+            Color.YELLOW,   // O
+            Color.RED,      // S
+            Color.PURPLE,   // T
+            Color.GREEN     // Z
+    };
+
+    private PieceColors() {}
+
+    public static Color of(int paletteIndex) {
+        return PALETTE[paletteIndex];
+    }
+}
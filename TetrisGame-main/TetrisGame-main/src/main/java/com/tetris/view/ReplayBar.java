@@ -0,0 +1,107 @@
+package com.tetris.view;
+
+import com.tetris.controller.GameEngine;
+import com.tetris.core.GameCore;
+
+import javafx.animation.AnimationTimer;
+import javafx.geometry.Insets;
+import javafx.geometry.Pos;
+import javafx.scene.control.Button;
+import javafx.scene.control.Label;
+import javafx.scene.control.Slider;
+import javafx.scene.layout.HBox;
+import javafx.scene.layout.Priority;
+import javafx.scene.text.Font;
+
+/**
+ * Barra de reprodução mostrada por baixo do GamePanel enquanto uma partida gravada é reproduzida:
+ * uma linha do tempo que se pode arrastar para a frente e para trás, botões de salto e o
+ * tempo decorrido. Fica escondida durante o jogo normal.
+ */
+public class ReplayBar extends HBox {
+
+    // Salto dos botões, em passos
+    private static final long JUMP_TICKS = 10L * GameCore.TICKS_PER_SECOND;
+
+    private final GameEngine gameEngine;
+    private final Slider timeline = new Slider(0, 1, 0);
+    private final Label timeLabel = new Label();
+    // Evita que a atualização da linha do tempo pela reprodução seja tratada como um salto
+    private boolean updating;
+
+    public ReplayBar(GameEngine gameEngine, GamePanel gamePanel) {
+        this.gameEngine = gameEngine;
+        setSpacing(8);
+        setPadding(new Insets(6, 10, 6, 10));
+        setAlignment(Pos.CENTER);
+
+        Label title = new Label("REPLAY");
+        title.setFont(new Font("Consolas", 12));
+        title.setStyle("-fx-text-fill: #39ff14;");
+        timeLabel.setFont(new Font("Consolas", 12));
+
+        Button back = new Button("⏪ 10s");
+        back.setFocusTraversable(false);
+        back.setOnAction(e -> {
+            gameEngine.seekReplay(gameEngine.getSnapshot().getTick() - JUMP_TICKS);
+            gamePanel.requestFocus();
+        });
+        Button forward = new Button("10s ⏩");
+        forward.setFocusTraversable(false);
+        forward.setOnAction(e -> {
+            gameEngine.seekReplay(gameEngine.getSnapshot().getTick() + JUMP_TICKS);
+            gamePanel.requestFocus();
+        });
+
+        // Arrastar ou clicar na linha do tempo salta para esse ponto
+        timeline.setFocusTraversable(false);
+        timeline.valueProperty().addListener((obs, oldV, newV) -> {
+            if (!updating) {
+                gameEngine.seekReplay(newV.longValue());
+            }
+        });
+        timeline.setOnMouseReleased(e -> gamePanel.requestFocus());
+        HBox.setHgrow(timeline, Priority.ALWAYS);
+
+        getChildren().addAll(title, back, timeline, forward, timeLabel);
+        Theme.darkProperty().addListener(observable -> applyTheme(Theme.isDark()));
+        applyTheme(Theme.isDark());
+
+        AnimationTimer sync = new AnimationTimer() {
+            @Override
+            public void handle(long now) {
+                sync();
+            }
+        };
+        sync.start();
+    }
+
+    /** Mostra a barra só durante uma reprodução e acompanha o passo da fotografia mais recente. */
+    private void sync() {
+        boolean replaying = gameEngine.isReplaying();
+        setVisible(replaying);
+        setManaged(replaying);
+        if (!replaying) {
+            return;
+        }
+        long end = gameEngine.getReplayEndTick();
+        long tick = gameEngine.getSnapshot().getTick();
+        updating = true;
+        timeline.setMax(end);
+        if (!timeline.isValueChanging()) {
+            timeline.setValue(tick);
+        }
+        updating = false;
+        timeLabel.setText(formatTime(tick) + " / " + formatTime(end));
+    }
+
+    private static String formatTime(long tick) {
+        long seconds = tick / GameCore.TICKS_PER_SECOND;
+        return String.format("%d:%02d", seconds / 60, seconds % 60);
+    }
+
+    private void applyTheme(boolean dark) {
+        setStyle(dark ? "-fx-background-color: #222;" : "-fx-background-color: #efefef;");
+        timeLabel.setStyle(dark ? "-fx-text-fill: white;" : "-fx-text-fill: black;");
+    }
+}
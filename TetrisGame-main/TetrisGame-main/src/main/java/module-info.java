@@ -7,7 +7,15 @@ module com.teris.tetris {
     requires javafx.base;
     requires java.sql;
     requires jdk.httpserver;
+    requires org.json;
 
     opens com.tetris to javafx.fxml;
     exports com.tetris;
+    // Núcleo do jogo: estes pacotes só importam classes de java.base, mas vêm neste módulo,
+    // que exige JavaFX; para correr sem JavaFX teriam de passar para um módulo próprio
+    exports com.tetris.core;
+    exports com.tetris.core.tetromino;
+    exports com.tetris.core.random;
+    exports com.tetris.core.replay;
+    exports com.tetris.core.bot;
 }
\ No newline at end of file
@@ -0,0 +1,485 @@
+package com.tetris.core;
+
+import static org.junit.jupiter.api.Assertions.assertArrayEquals;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertNotEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.util.Arrays;
+import java.util.Random;
+
+import org.junit.jupiter.api.Test;
+
+import com.tetris.core.tetromino.Orientation;
+import com.tetris.core.tetromino.PieceType;
+
+/**
+ * Colisões e eliminação de linhas do {@link Board} (máscaras de bits por linha), comparadas com
+ * uma grelha simples de células que percorre tudo célula a célula; o hash de Zobrist mantido
+ * jogada a jogada, comparado com o de um tabuleiro montado de raiz; e as características do
+ * tabuleiro, comparadas com as contadas célula a célula.
+ */
+class BoardTest {
+
+    @Test
+    void collidesWithWallsFloorAndFixedBlocks() {
+        Board board = new Board();
+        Orientation square = PieceType.O.getOrientation(0);
+        assertTrue(board.isValidPosition(square, 0, 18));
+        assertTrue(board.isValidPosition(square, 8, 18));
+        assertFalse(board.isValidPosition(square, -1, 18), "parede esquerda");
+        assertFalse(board.isValidPosition(square, 9, 18), "parede direita");
+        assertFalse(board.isValidPosition(square, 0, 19), "fundo");
+        assertTrue(board.isValidPosition(square, 4, -2), "acima do topo só contam as paredes");
+        assertFalse(board.isValidPosition(square, 9, -2));
+
+        board.placePiece(square, 0, 18, PieceType.O.getPaletteIndex());
+        assertFalse(board.isValidPosition(square, 0, 17));
+        assertFalse(board.isValidPosition(square, 1, 17));
+        assertTrue(board.isValidPosition(square, 2, 18));
+        assertTrue(board.isValidPosition(square, 0, 16));
+        assertEquals(PieceType.O.getPaletteIndex(), board.getCell(1, 19));
+    }
+
+    @Test
+    void clearsFullRowsAndMovesTheRowsAboveDown() {
+        Board board = new Board();
+        int width = board.getWidth();
+        byte[] cells = new byte[width * board.getHeight()];
+        fillRow(cells, width, 19, (byte) 1);
+        cells[18 * width] = 2;
+        fillRow(cells, width, 17, (byte) 3);
+        cells[16 * width + 5] = 4;
+        board.loadCells(cells);
+
+        assertEquals(2, board.clearLines());
+        assertEquals(2, board.getCell(0, 19));
+        assertEquals(4, board.getCell(5, 18));
+        for (int y = 0; y < board.getHeight(); y++) {
+            for (int x = 0; x < width; x++) {
+                boolean expected = (y == 19 && x == 0) || (y == 18 && x == 5);
+                assertEquals(expected, board.isOccupied(x, y), "célula " + x + "," + y);
+            }
+        }
+        assertEquals(0, board.clearLines());
+    }
+
+    @Test
+    void answersQueriesAfterLoadingLikeTheBoardItCameFrom() {
+        // Um tabuleiro carregado (como num keyframe de uma gravação) tem de responder como o
+        // original a colisões, quedas, alturas, características e hash, e continuar igual a seguir
+        Random random = new Random(14);
+        Board played = new Board();
+        Board loaded = new Board();
+        int width = played.getWidth();
+        int height = played.getHeight();
+        byte[] cells = new byte[width * height];
+        int[] expected = new int[BoardFeatures.size(width)];
+        int[] features = new int[expected.length];
+        for (int round = 0; round < 40; round++) {
+            played.clear();
+            for (int piece = 0; piece < 8 + random.nextInt(20); piece++) {
+                dropRandomPiece(played, random);
+            }
+            played.copyCells(cells);
+            loaded.loadCells(cells);
+            for (int step = 0; step < 10; step++) {
+                assertEquals(played.getHash(), loaded.getHash());
+                played.copyFeatures(expected);
+                loaded.copyFeatures(features);
+                assertArrayEquals(expected, features);
+                for (int x = 0; x < width; x++) {
+                    assertEquals(played.getColumnHeight(x), loaded.getColumnHeight(x));
+                }
+                for (PieceType type : PieceType.values()) {
+                    for (int rotation = 0; rotation < 4; rotation++) {
+                        Orientation shape = type.getOrientation(rotation);
+                        for (int x = -3; x < width; x++) {
+                            assertEquals(played.isValidPosition(shape, x, 0), loaded.isValidPosition(shape, x, 0));
+                            if (played.isValidPosition(shape, x, 0)) {
+                                assertEquals(played.dropDistance(shape, x, 0), loaded.dropDistance(shape, x, 0));
+                            }
+                        }
+                    }
+                }
+                // A mesma peça nos dois: as mesmas linhas eliminadas
+                long seed = random.nextLong();
+                assertEquals(dropRandomPiece(played, new Random(seed)), dropRandomPiece(loaded, new Random(seed)));
+            }
+        }
+
+        // Linhas completas carregadas são eliminadas sem ser preciso fixar nada nelas
+        Arrays.fill(cells, (byte) 0);
+        fillRow(cells, width, height - 1, (byte) 1);
+        fillRow(cells, width, height - 2, (byte) 2);
+        cells[(height - 3) * width] = 3;
+        loaded.loadCells(cells);
+        assertEquals(3, loaded.getFeature(BoardFeatures.MAX_HEIGHT));
+        assertEquals(2, loaded.clearLines());
+        assertEquals(1, loaded.getColumnHeight(0));
+        assertEquals(1, loaded.getFeature(BoardFeatures.AGGREGATE_HEIGHT));
+    }
+
+    /**
+     * Deixa cair uma peça ao acaso a direito desde o topo, se couber, e elimina as linhas completas.
+     * @return As linhas eliminadas, ou -1 se a peça não coube.
+     */
+    private static int dropRandomPiece(Board board, Random random) {
+        PieceType type = PieceType.of(random.nextInt(7));
+        Orientation shape = type.getOrientation(random.nextInt(4));
+        int x = random.nextInt(board.getWidth() + 3) - 3;
+        if (!board.isValidPosition(shape, x, 0)) {
+            return -1;
+        }
+        board.placePiece(shape, x, board.dropDistance(shape, x, 0), type.getPaletteIndex());
+        return board.clearLines();
+    }
+
+    @Test
+    void keepsFeaturesWhenAClearUncoversAnEmptyRow() {
+        // Uma linha completa sobre uma linha vazia: todas as colunas perdem o topo e descem mais
+        // do que as linhas eliminadas
+        Board board = new Board();
+        int width = board.getWidth();
+        byte[] cells = new byte[width * board.getHeight()];
+        cells[19 * width + 3] = 1;
+        fillRow(cells, width, 17, (byte) 2);
+        board.loadCells(cells);
+        assertEquals(3, board.getFeature(BoardFeatures.MAX_HEIGHT));
+
+        assertEquals(1, board.clearLines());
+        board.copyCells(cells);
+        int[] features = new int[BoardFeatures.size(width)];
+        board.copyFeatures(features);
+        assertArrayEquals(scanFeatures(cells, width, board.getHeight()), features);
+        assertEquals(1, board.getFeature(BoardFeatures.MAX_HEIGHT));
+        assertEquals(1, board.getColumnHeight(3));
+        assertEquals(0, board.getColumnHeight(0));
+    }
+
+    @Test
+    void matchesCellGridOnRandomPlay() {
+        playAgainstGrid(Board.DEFAULT_WIDTH, Board.DEFAULT_HEIGHT, 1);
+    }
+
+    @Test
+    void matchesCellGridAcrossWordBoundaries() {
+        // Até 48 colunas a linha (com as paredes) cabe numa palavra de 64 bits; 49 e 113 começam
+        // uma palavra nova, e nas outras larguras há peças a atravessar a fronteira entre palavras
+        int[][] sizes = {{4, 6}, {48, 20}, {49, 22}, {56, 30}, {57, 30}, {64, 24}, {112, 20}, {113, 30}, {10, 140}};
+        for (int[] size : sizes) {
+            playAgainstGrid(size[0], size[1], size[0] * 31L + size[1]);
+        }
+    }
+
+    @Test
+    void collidesWithTheRightWallOfAWideBoard() {
+        Board board = new Board(113, 20);
+        Orientation line = PieceType.I.getOrientation(0);
+        // O I deitado ocupa as colunas x a x + 3 da segunda linha da sua matriz
+        assertTrue(board.isValidPosition(line, 109, 10));
+        assertFalse(board.isValidPosition(line, 110, 10));
+        board.placePiece(line, 109, 18, PieceType.I.getPaletteIndex());
+        assertFalse(board.isValidPosition(line, 106, 18));
+        assertTrue(board.isValidPosition(line, 105, 18));
+        assertEquals(1, board.getColumnHeight(112));
+    }
+
+    @Test
+    void hashIgnoresOrderAndColors() {
+        Board first = new Board();
+        Board second = new Board();
+        Orientation square = PieceType.O.getOrientation(0);
+        Orientation line = PieceType.I.getOrientation(0);
+        first.placePiece(square, 0, 18, 1);
+        first.placePiece(line, 4, 17, 2);
+        second.placePiece(line, 4, 17, 5);
+        second.placePiece(square, 0, 18, 3);
+        assertEquals(first.getHash(), second.getHash());
+        assertNotEquals(new Board().getHash(), first.getHash());
+        first.clear();
+        assertEquals(new Board().getHash(), first.getHash());
+    }
+
+    @Test
+    void hashTellsRowsApartByPosition() {
+        // Linhas iguais a 64 linhas de distância não se podem anular, nem a mesma linha noutra altura
+        int width = 10;
+        int height = 140;
+        byte[] cells = new byte[width * height];
+        for (int x = 0; x < 5; x++) {
+            cells[10 * width + x] = 1;
+            cells[74 * width + x] = 1;
+        }
+        Board pair = new Board(width, height);
+        pair.loadCells(cells);
+        assertNotEquals(new Board(width, height).getHash(), pair.getHash());
+
+        Board low = new Board(width, height);
+        Board high = new Board(width, height);
+        Orientation square = PieceType.O.getOrientation(0);
+        low.placePiece(square, 3, 100, 1);
+        high.placePiece(square, 3, 36, 1);
+        assertNotEquals(low.getHash(), high.getHash());
+    }
+
+    @Test
+    void countsFeaturesLikeACellScan() {
+        // Pilhas densas ao acaso, com muitos buracos e linhas cheias, em larguras de uma a três palavras
+        Random random = new Random(24);
+        int[][] sizes = {{10, 20}, {4, 6}, {48, 20}, {49, 22}, {57, 30}, {64, 24}, {120, 40}};
+        for (int[] size : sizes) {
+            int width = size[0];
+            int height = size[1];
+            Board board = new Board(width, height);
+            byte[] cells = new byte[width * height];
+            int[] features = new int[BoardFeatures.size(width)];
+            double[] weights = new double[features.length];
+            for (int fill = 0; fill < 200; fill++) {
+                int top = random.nextInt(height + 1);
+                double density = random.nextDouble();
+                for (int i = 0; i < cells.length; i++) {
+                    cells[i] = (byte) (i / width >= top && random.nextDouble() < density ? 1 + random.nextInt(7) : 0);
+                }
+                board.loadCells(cells);
+                int[] expected = scanFeatures(cells, width, height);
+                board.copyFeatures(features);
+                assertArrayEquals(expected, features, width + "x" + height + ": características");
+                board.copyFeatures(weights);
+                for (int i = 0; i < features.length; i++) {
+                    assertEquals(expected[i], weights[i]);
+                    assertEquals(expected[i], board.getFeature(i));
+                }
+            }
+        }
+    }
+
+    /**
+     * Deixa cair peças ao acaso no tabuleiro e numa grelha de referência, e confere as colisões
+     * em posições ao acaso (também fora do tabuleiro), as linhas eliminadas e todas as células,
+     * o hash, que tem de ser o de um tabuleiro carregado de raiz com as mesmas células, e as
+     * características mantidas jogada a jogada (também as de uma cópia).
+     */
+    static void playAgainstGrid(int width, int height, long seed) {
+        Random random = new Random(seed);
+        Board board = new Board(width, height);
+        Board fresh = new Board(width, height);
+        Board copy = new Board(width, height);
+        byte[][] grid = new byte[height][width];
+        byte[] cells = new byte[width * height];
+        int[] features = new int[BoardFeatures.size(width)];
+        int cleared = 0;
+        for (int piece = 0; piece < 600; piece++) {
+            PieceType type = PieceType.of(random.nextInt(7));
+            Orientation probed = type.getOrientation(random.nextInt(4));
+            for (int probe = 0; probe < 20; probe++) {
+                int x = random.nextInt(width + 8) - 4;
+                int y = random.nextInt(height + 8) - 6;
+                assertEquals(fits(grid, probed, x, y), board.isValidPosition(probed, x, y),
+                        width + "x" + height + ": colisão em " + x + "," + y);
+            }
+            // A jogada que deixa menos buracos e desce mais fundo, para que as linhas se completem
+            int[] tops = new int[width];
+            for (int column = 0; column < width; column++) {
+                tops[column] = height;
+                for (int row = height - 1; row >= 0; row--) {
+                    if (grid[row][column] != 0) {
+                        tops[column] = row;
+                    }
+                }
+            }
+            Orientation shape = null;
+            int x = 0;
+            int y = Integer.MIN_VALUE;
+            int best = Integer.MAX_VALUE;
+            for (int rotation = 0; rotation < 4; rotation++) {
+                Orientation candidate = type.getOrientation(rotation);
+                for (int column = -2; column < width; column++) {
+                    int landing = landingRow(tops, candidate, column);
+                    if (landing == Integer.MIN_VALUE) {
+                        continue;
+                    }
+                    int score = holesUnder(grid, candidate, column, landing) * 4 * height - landing;
+                    if (score < best || (score == best && random.nextBoolean())) {
+                        shape = candidate;
+                        x = column;
+                        y = landing;
+                        best = score;
+                    }
+                }
+            }
+            if (y == Integer.MIN_VALUE || y + topOf(shape) < 0) {
+                // A pilha chegou ao topo: recomeça
+                board.clear();
+                grid = new byte[height][width];
+                continue;
+            }
+            board.placePiece(shape, x, y, type.getPaletteIndex());
+            for (int i = 0; i < shape.getCellCount(); i++) {
+                grid[y + shape.getCellY(i)][x + shape.getCellX(i)] = (byte) type.getPaletteIndex();
+            }
+            int lines = clearGrid(grid);
+            assertEquals(lines, board.clearLines(), width + "x" + height + ": linhas eliminadas");
+            cleared += lines;
+            board.copyCells(cells);
+            for (int row = 0; row < height; row++) {
+                assertArrayEquals(grid[row], Arrays.copyOfRange(cells, row * width, (row + 1) * width),
+                        width + "x" + height + ": linha " + row);
+            }
+            fresh.loadCells(cells);
+            assertEquals(fresh.getHash(), board.getHash(), width + "x" + height + ": hash");
+            copy.copyFrom(board);
+            assertEquals(board.getHash(), copy.getHash(), width + "x" + height + ": hash da cópia");
+            int[] expected = scanFeatures(cells, width, height);
+            board.copyFeatures(features);
+            assertArrayEquals(expected, features, width + "x" + height + ": características");
+            copy.copyFeatures(features);
+            assertArrayEquals(expected, features, width + "x" + height + ": características da cópia");
+        }
+        assertTrue(cleared > 0, width + "x" + height + ": o teste deve eliminar linhas");
+    }
+
+    private static boolean fits(byte[][] grid, Orientation shape, int x, int y) {
+        for (int i = 0; i < shape.getCellCount(); i++) {
+            int column = x + shape.getCellX(i);
+            int row = y + shape.getCellY(i);
+            if (column < 0 || column >= grid[0].length || row >= grid.length || (row >= 0 && grid[row][column] != 0)) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    /**
+     * @return A linha onde a peça pousa ao cair a direito na coluna x, sobre o bloco mais alto de
+     *         cada coluna ({@code tops}), ou Integer.MIN_VALUE se sai do tabuleiro.
+     */
+    private static int landingRow(int[] tops, Orientation shape, int x) {
+        int y = Integer.MAX_VALUE;
+        for (int i = 0; i < shape.getCellCount(); i++) {
+            int column = x + shape.getCellX(i);
+            if (column < 0 || column >= tops.length) {
+                return Integer.MIN_VALUE;
+            }
+            y = Math.min(y, tops[column] - 1 - shape.getCellY(i));
+        }
+        return y;
+    }
+
+    /** @return Quantas células vazias ficam logo por baixo da peça pousada em (x, y). */
+    private static int holesUnder(byte[][] grid, Orientation shape, int x, int y) {
+        int holes = 0;
+        for (int i = 0; i < shape.getCellCount(); i++) {
+            int column = x + shape.getCellX(i);
+            int below = y + shape.getCellY(i) + 1;
+            if (below < grid.length && below >= 0 && grid[below][column] == 0 && !covers(shape, x, y, column, below)) {
+                holes++;
+            }
+        }
+        return holes;
+    }
+
+    private static boolean covers(Orientation shape, int x, int y, int column, int row) {
+        for (int i = 0; i < shape.getCellCount(); i++) {
+            if (x + shape.getCellX(i) == column && y + shape.getCellY(i) == row) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    private static int topOf(Orientation shape) {
+        int top = Integer.MAX_VALUE;
+        for (int i = 0; i < shape.getCellCount(); i++) {
+            top = Math.min(top, shape.getCellY(i));
+        }
+        return top;
+    }
+
+    /** Elimina as linhas completas da grelha, de baixo para cima, copiando célula a célula. */
+    private static int clearGrid(byte[][] grid) {
+        int lines = 0;
+        for (int row = grid.length - 1; row >= 0; ) {
+            boolean full = true;
+            for (byte cell : grid[row]) {
+                full &= cell != 0;
+            }
+            if (!full) {
+                row--;
+                continue;
+            }
+            for (int above = row; above > 0; above--) {
+                grid[above] = grid[above - 1].clone();
+            }
+            grid[0] = new byte[grid[0].length];
+            lines++;
+        }
+        return lines;
+    }
+
+    /** @return As características de {@link BoardFeatures}, contadas célula a célula. */
+    private static int[] scanFeatures(byte[] cells, int width, int height) {
+        int[] features = new int[BoardFeatures.size(width)];
+        int[] heights = new int[width];
+        for (int x = 0; x < width; x++) {
+            for (int y = height - 1; y >= 0; y--) {
+                if (cells[y * width + x] != 0) {
+                    heights[x] = height - y;
+                }
+            }
+        }
+        for (int x = 0; x < width; x++) {
+            features[BoardFeatures.AGGREGATE_HEIGHT] += heights[x];
+            features[BoardFeatures.MAX_HEIGHT] = Math.max(features[BoardFeatures.MAX_HEIGHT], heights[x]);
+            for (int y = height - heights[x]; y < height; y++) {
+                if (cells[y * width + x] == 0) {
+                    features[BoardFeatures.HOLES]++;
+                }
+            }
+            if (x > 0) {
+                features[BoardFeatures.BUMPINESS] += Math.abs(heights[x] - heights[x - 1]);
+            }
+            // As paredes contam como colunas cheias
+            int left = x > 0 ? heights[x - 1] : height;
+            int right = x + 1 < width ? heights[x + 1] : height;
+            int depth = Math.max(0, Math.min(left, right) - heights[x]);
+            features[BoardFeatures.WELL_SUM] += depth;
+            features[BoardFeatures.columnHeight(x)] = heights[x];
+            features[BoardFeatures.wellDepth(width, x)] = depth;
+            // Do topo vazio até ao fundo, que conta como cheio
+            boolean previous = false;
+            for (int y = 0; y < height; y++) {
+                boolean occupied = cells[y * width + x] != 0;
+                if (occupied != previous) {
+                    features[BoardFeatures.COLUMN_TRANSITIONS]++;
+                }
+                previous = occupied;
+            }
+            if (!previous) {
+                features[BoardFeatures.COLUMN_TRANSITIONS]++;
+            }
+        }
+        for (int y = 0; y < height; y++) {
+            // Da parede esquerda à direita, ambas cheias
+            boolean previous = true;
+            for (int x = 0; x < width; x++) {
+                boolean occupied = cells[y * width + x] != 0;
+                if (occupied != previous) {
+                    features[BoardFeatures.ROW_TRANSITIONS]++;
+                }
+                previous = occupied;
+            }
+            if (!previous) {
+                features[BoardFeatures.ROW_TRANSITIONS]++;
+            }
+        }
+        return features;
+    }
+
+    private static void fillRow(byte[] cells, int width, int y, byte color) {
+        for (int x = 0; x < width; x++) {
+            cells[y * width + x] = color;
+        }
+    }
+}
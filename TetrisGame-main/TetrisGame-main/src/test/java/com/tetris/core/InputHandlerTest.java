@@ -0,0 +1,112 @@
+package com.tetris.core;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import org.junit.jupiter.api.Test;
+
+/**
+ * {@link InputHandler} passo a passo sobre um {@link GameCore} com semente fixa: quando o DAS
+ * começa a repetir, o ritmo do ARR (e o ARR 0, até à parede), a troca entre esquerda e direita,
+ * e a velocidade da queda suave.
+ */
+class InputHandlerTest {
+
+    private static final int DAS = 10;
+    private static final int ARR = 3;
+
+    @Test
+    void repeatsAfterTheDasAtTheArrRate() {
+        // Tabuleiro largo para a peça não chegar à parede
+        GameCore core = new GameCore(40, 20);
+        core.start(20);
+        InputHandler handler = new InputHandler(DAS, ARR, 1);
+        int start = core.getPieceX();
+        handler.press(core, Input.RIGHT, Input.RIGHT);
+        assertEquals(start + 1, core.getPieceX(), "a tecla atua logo ao ser premida");
+        for (int tick = 1; tick <= 40; tick++) {
+            handler.step(core, Input.RIGHT);
+            int repeats = tick < DAS ? 0 : (tick - DAS) / ARR + 1;
+            assertEquals(start + 1 + repeats, core.getPieceX(), "passo " + tick);
+        }
+
+        // Solta: para logo; premida outra vez, conta o DAS de novo
+        int x = core.getPieceX();
+        for (int tick = 0; tick < 20; tick++) {
+            handler.step(core, Input.NONE);
+        }
+        assertEquals(x, core.getPieceX());
+        handler.press(core, Input.LEFT, Input.LEFT);
+        for (int tick = 1; tick < DAS; tick++) {
+            handler.step(core, Input.LEFT);
+        }
+        assertEquals(x - 1, core.getPieceX(), "ainda dentro do DAS");
+        handler.step(core, Input.LEFT);
+        assertEquals(x - 2, core.getPieceX());
+    }
+
+    @Test
+    void lastDirectionWinsAndTheOtherRestartsTheDas() {
+        GameCore core = new GameCore(40, 20);
+        core.start(21);
+        InputHandler handler = new InputHandler(DAS, ARR, 1);
+        int start = core.getPieceX();
+        handler.press(core, Input.LEFT | Input.RIGHT, Input.LEFT | Input.RIGHT);
+        assertEquals(start, core.getPieceX(), "as duas no mesmo instante não mexem");
+
+        handler.press(core, Input.LEFT, Input.LEFT);
+        handler.press(core, Input.RIGHT, Input.LEFT | Input.RIGHT);
+        assertEquals(start, core.getPieceX());
+        for (int tick = 1; tick <= DAS; tick++) {
+            handler.step(core, Input.LEFT | Input.RIGHT);
+        }
+        assertEquals(start + 1, core.getPieceX(), "a direita, a última premida, desliza");
+
+        // Solta a direita: a esquerda, ainda premida, recomeça o DAS
+        handler.step(core, Input.LEFT);
+        int x = core.getPieceX();
+        for (int tick = 1; tick < DAS; tick++) {
+            handler.step(core, Input.LEFT);
+        }
+        assertEquals(x, core.getPieceX());
+        handler.step(core, Input.LEFT);
+        assertEquals(x - 1, core.getPieceX());
+    }
+
+    @Test
+    void arrZeroShiftsToTheWall() {
+        GameCore core = new GameCore();
+        core.start(22);
+        InputHandler handler = new InputHandler(DAS, 0, 1);
+        handler.press(core, Input.LEFT, Input.LEFT);
+        for (int tick = 1; tick < DAS; tick++) {
+            handler.step(core, Input.LEFT);
+        }
+        assertTrue(core.getBoard().isValidPosition(core.getPieceShape(), core.getPieceX() - 1, core.getPieceY()));
+        handler.step(core, Input.LEFT);
+        assertFalse(core.getBoard().isValidPosition(core.getPieceShape(), core.getPieceX() - 1, core.getPieceY()),
+                "no fim do DAS a peça vai até à parede");
+    }
+
+    @Test
+    void softDropFallsFactorTimesFasterThanGravity() {
+        int ticks = 120;
+        for (int factor : new int[] {1, 2, 6, 20}) {
+            GameCore core = new GameCore(10, 40);
+            core.start(23);
+            InputHandler handler = new InputHandler(DAS, ARR, factor);
+            int start = core.getPieceY();
+            handler.press(core, Input.SOFT_DROP, Input.SOFT_DROP);
+            assertEquals(start + 1, core.getPieceY(), "uma linha ao premir");
+            for (int tick = 0; tick < ticks; tick++) {
+                handler.step(core, Input.SOFT_DROP);
+            }
+            // A gravidade e a queda suave acumulam frações de linha à parte: cada uma pode ficar a
+            // uma linha de completar
+            double rows = (double) ticks * core.getGravity() * factor / GameCore.GRAVITY_UNIT;
+            int fallen = core.getPieceY() - start - 1;
+            assertTrue(fallen <= rows && fallen > rows - 2, "SDF " + factor + ": " + fallen + " linhas, esperadas " + rows);
+        }
+    }
+}
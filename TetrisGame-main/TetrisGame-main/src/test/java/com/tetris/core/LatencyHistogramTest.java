@@ -0,0 +1,60 @@
+package com.tetris.core;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.util.Arrays;
+import java.util.Random;
+
+import org.junit.jupiter.api.Test;
+
+/**
+ * {@link LatencyHistogram} comparado com os percentis exatos de amostras conhecidas: exato
+ * abaixo de 16 µs e, acima, um limite superior com no máximo 12,5% de erro.
+ */
+class LatencyHistogramTest {
+
+    @Test
+    void isExactBelowSixteenMicroseconds() {
+        LatencyHistogram histogram = new LatencyHistogram();
+        assertEquals(0, histogram.getPercentile(50), "sem registos");
+        for (int micros = 0; micros < 16; micros++) {
+            histogram.record(micros * 1000L + 500);
+        }
+        assertEquals(16, histogram.getCount());
+        // O 8.º de 16 registos está no microssegundo 7: o limite é o fim desse microssegundo
+        assertEquals(7999, histogram.getPercentile(50));
+        assertEquals(999, histogram.getPercentile(0));
+        assertEquals(15_500, histogram.getPercentile(100), "nunca acima do máximo");
+        assertEquals(15_500, histogram.getMax());
+        assertEquals(8_000, histogram.getMean());
+    }
+
+    @Test
+    void boundsThePercentilesWithinTheBucketError() {
+        Random random = new Random(20);
+        LatencyHistogram histogram = new LatencyHistogram();
+        long[] samples = new long[100_000];
+        for (int i = 0; i < samples.length; i++) {
+            // De nanossegundos a segundos, como tempos de quadro com picos raros
+            samples[i] = (long) Math.exp(random.nextDouble() * Math.log(2e9));
+            histogram.record(samples[i]);
+        }
+        histogram.record(-5);
+        long[] sorted = Arrays.copyOf(samples, samples.length + 1);
+        Arrays.sort(sorted);
+        for (double percentile : new double[] {1, 10, 50, 90, 99, 99.9, 100}) {
+            long exact = sorted[(int) Math.ceil(sorted.length * percentile / 100.0) - 1];
+            long bound = histogram.getPercentile(percentile);
+            assertTrue(bound >= exact, percentile + "%: " + bound + " abaixo de " + exact);
+            assertTrue(bound <= Math.max(exact * 1.125, exact + 1000), percentile + "%: " + bound + " longe de " + exact);
+        }
+        assertEquals(sorted[sorted.length - 1], histogram.getMax());
+        assertEquals(samples.length + 1, histogram.getCount());
+
+        histogram.reset();
+        assertEquals(0, histogram.getCount());
+        assertEquals(0, histogram.getMax());
+        assertEquals(0, histogram.getPercentile(99));
+    }
+}
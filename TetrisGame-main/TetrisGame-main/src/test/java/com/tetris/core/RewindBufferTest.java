@@ -0,0 +1,120 @@
+package com.tetris.core;
+
+import static org.junit.jupiter.api.Assertions.assertArrayEquals;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.nio.ByteBuffer;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Random;
+
+import org.junit.jupiter.api.Test;
+
+/**
+ * {@link RewindBuffer} comparado com os estados do núcleo fotografados pelo próprio teste:
+ * desfazer peças volta ao estado em que a peça entrou, e recuar volta ao estado guardado mais
+ * recente antes do ponto pedido, também depois de o anel ter dado várias voltas.
+ */
+class RewindBufferTest {
+
+    @Test
+    void undoReturnsToTheMomentThePieceEntered() {
+        GameCore core = new GameCore();
+        RewindBuffer buffer = new RewindBuffer(core, 200, RewindBuffer.DEFAULT_INTERVAL);
+        core.addTickListener(buffer);
+        // Estado do núcleo quando cada peça entrou: entered.get(p) depois de p peças fixadas
+        List<byte[]> entered = new ArrayList<>();
+        core.addTickListener(result -> {
+            if (result.has(TickResult.NEW_GAME) || result.has(TickResult.LOCK)) {
+                entered.add(state(core));
+            }
+        });
+        assertFalse(buffer.undo(1), "nada para desfazer antes da partida");
+        core.start(11);
+        Random random = new Random(11);
+        for (int piece = 0; piece < 10; piece++) {
+            dropPiece(core, buffer, random);
+        }
+        assertEquals(10, buffer.getPiecesPlaced());
+
+        assertTrue(buffer.undo(1));
+        assertArrayEquals(entered.get(9), state(core));
+        assertEquals(9, buffer.getPiecesPlaced());
+        assertTrue(buffer.undo(3));
+        assertArrayEquals(entered.get(6), state(core));
+        assertEquals(6, buffer.getPiecesPlaced());
+
+        // Depois de desfazer a partida continua e pode voltar a ser desfeita
+        entered.subList(7, entered.size()).clear();
+        for (int piece = 0; piece < 4; piece++) {
+            dropPiece(core, buffer, random);
+        }
+        assertEquals(10, buffer.getPiecesPlaced());
+        assertTrue(buffer.undo(2));
+        assertArrayEquals(entered.get(8), state(core));
+        // Mais peças do que o histórico tem: volta ao início da partida
+        assertTrue(buffer.undo(100));
+        assertArrayEquals(entered.get(0), state(core));
+        assertEquals(0, buffer.getPiecesPlaced());
+    }
+
+    @Test
+    void rewindsAcrossTheWrapOfTheRing() {
+        GameCore core = new GameCore();
+        int capacity = 8;
+        int interval = 5;
+        RewindBuffer buffer = new RewindBuffer(core, capacity, interval);
+        core.addTickListener(buffer);
+        Map<Long, byte[]> states = new HashMap<>();
+        core.start(12);
+        states.put(core.getTick(), state(core));
+        Random random = new Random(12);
+        for (int round = 0; round < 30; round++) {
+            // Bastantes passos para o anel dar várias voltas entre recuos
+            for (int step = 0; step < 40 + random.nextInt(60) && core.getState() == GameState.PLAYING; step++) {
+                core.step(random.nextInt(12) == 0 ? 1 << random.nextInt(4) : Input.NONE);
+                buffer.afterStep();
+                states.put(core.getTick(), state(core));
+            }
+            if (core.getState() != GameState.PLAYING) {
+                break;
+            }
+            assertEquals(capacity, buffer.size(), "anel cheio");
+            long now = core.getTick();
+            long back = 1 + random.nextInt(3 * interval);
+            assertTrue(buffer.rewind(back));
+            // O estado guardado mais recente até ao ponto pedido (há um pelo menos a cada interval passos)
+            assertTrue(core.getTick() <= now - back && core.getTick() > now - back - interval,
+                    "recuou para " + core.getTick() + " a partir de " + now + " - " + back);
+            assertArrayEquals(states.get(core.getTick()), state(core), "passo " + core.getTick());
+        }
+        assertTrue(core.getTick() > capacity * interval, "o anel tem de dar a volta");
+
+        // Mais atrás do que o histórico: o estado mais antigo ainda guardado
+        long oldest = buffer.getOldestTick();
+        assertTrue(buffer.rewind(core.getTick()));
+        assertEquals(oldest, core.getTick());
+        assertArrayEquals(states.get(oldest), state(core));
+        assertEquals(1, buffer.size());
+    }
+
+    /** Mexe a peça ao acaso e deixa-a cair de uma vez. */
+    private static void dropPiece(GameCore core, RewindBuffer buffer, Random random) {
+        for (int move = 0; move < 4; move++) {
+            core.step(1 << random.nextInt(4));
+            buffer.afterStep();
+        }
+        core.step(Input.HARD_DROP);
+        buffer.afterStep();
+    }
+
+    private static byte[] state(GameCore core) {
+        ByteBuffer out = ByteBuffer.allocate(core.getStateSize());
+        core.saveState(out);
+        return out.array();
+    }
+}
@@ -0,0 +1,56 @@
+package com.tetris.core.bot;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import org.junit.jupiter.api.Test;
+
+import com.tetris.core.GameCore;
+import com.tetris.core.GameState;
+import com.tetris.core.TickResult;
+
+/**
+ * O {@link Bot} jogado pelo {@link BotPlayer}: a mesma semente dá as mesmas jogadas com um ou
+ * vários trabalhadores e com a tabela de transposição vazia ou já cheia de avaliações.
+ */
+class BotTest {
+
+    private static final int PIECES = 120;
+
+    @Test
+    void sameSeedGivesTheSamePlacements() {
+        List<Long> expected;
+        try (Bot single = new Bot(Heuristic.DEFAULT, 1, 1 << 12)) {
+            expected = play(single, 31);
+            assertEquals(PIECES, expected.size(), "o bot não deve perder tão cedo");
+        }
+        try (Bot parallel = new Bot(Heuristic.DEFAULT, 4, 1 << 12)) {
+            assertEquals(expected, play(parallel, 31), "quatro trabalhadores");
+            // Segunda partida com a tabela cheia da primeira: só muda o trabalho, não as jogadas
+            long hitsBefore = parallel.getTable().getHits();
+            assertEquals(expected, play(parallel, 31), "tabela já preenchida");
+            assertTrue(parallel.getTable().getHits() > hitsBefore, "a segunda partida tem de acertar na tabela");
+        }
+    }
+
+    /** @return O hash do tabuleiro e a pontuação a cada peça fixada, nas primeiras {@link #PIECES} peças. */
+    private static List<Long> play(Bot bot, long seed) {
+        GameCore core = new GameCore();
+        BotPlayer player = new BotPlayer(bot, 0);
+        core.addTickListener(player);
+        List<Long> placements = new ArrayList<>();
+        core.addTickListener(result -> {
+            if (result.has(TickResult.LOCK)) {
+                placements.add(core.getBoard().getHash() * 31 + core.getScore());
+            }
+        });
+        core.start(seed);
+        while (core.getState() == GameState.PLAYING && placements.size() < PIECES) {
+            player.step(core);
+        }
+        return placements;
+    }
+}
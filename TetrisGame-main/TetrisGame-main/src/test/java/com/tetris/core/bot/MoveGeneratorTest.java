@@ -0,0 +1,198 @@
+package com.tetris.core.bot;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.nio.ByteBuffer;
+import java.util.ArrayDeque;
+import java.util.HashSet;
+import java.util.Random;
+import java.util.Set;
+
+import org.junit.jupiter.api.Test;
+
+import com.tetris.core.Board;
+import com.tetris.core.GameCore;
+import com.tetris.core.GameState;
+import com.tetris.core.Input;
+import com.tetris.core.tetromino.Orientation;
+import com.tetris.core.tetromino.PieceType;
+
+/**
+ * Posições de fixação do {@link MoveGenerator}, comparadas com uma pesquisa em largura simples
+ * sobre (rotação, x, y), e os caminhos devolvidos, executados comando a comando no
+ * {@link GameCore}, que têm de deixar a peça exatamente na posição anunciada.
+ */
+class MoveGeneratorTest {
+
+    @Test
+    void findsEveryPlacementAndAPathTheCoreCanFollow() {
+        Random random = new Random(21);
+        GameCore core = new GameCore();
+        Board board = core.getBoard();
+        int width = board.getWidth();
+        int height = board.getHeight();
+        byte[] cells = new byte[width * height];
+        MoveGenerator generator = new MoveGenerator();
+        byte[] path = new byte[4096];
+        int placements = 0;
+        int tucks = 0;
+        for (int scenario = 0; scenario < 400; scenario++) {
+            core.start(random.nextLong());
+            randomStack(cells, width, height, random);
+            board.loadCells(cells);
+            // Metade das vezes a peça já se mexeu: as jogadas partem de onde ela está
+            if (scenario % 2 == 1) {
+                for (int move = 0; move < 8; move++) {
+                    core.applyInput(1 << random.nextInt(4));
+                }
+            }
+            if (core.getState() != GameState.PLAYING) {
+                continue;
+            }
+            // Para recomeçar cada caminho da mesma posição
+            ByteBuffer saved = ByteBuffer.allocate(core.getStateSize());
+            core.saveState(saved);
+            PieceType type = core.getPieceType();
+            int rotation = core.getRotation();
+            int x = core.getPieceX();
+            int y = core.getPieceY();
+
+            int count = scenario % 2 == 0
+                    ? generator.generate(board, type)
+                    : generator.generate(board, type, rotation, x, y);
+            Set<Set<Integer>> found = new HashSet<>();
+            for (int i = 0; i < count; i++) {
+                String where = "cenário " + scenario + ", " + type + " posição " + i;
+                assertTrue(found.add(blocks(type.getOrientation(generator.getRotation(i)), generator.getX(i), generator.getY(i))),
+                        where + ": repetida");
+
+                core.loadState(saved.flip());
+                int length = generator.getPath(i, path);
+                assertEquals(generator.getPathLength(i), length);
+                // Um encaixe desce antes do último movimento; a descida final fica para a queda rápida
+                boolean tuck = false;
+                int last = length;
+                while (last > 0 && path[last - 1] == MoveGenerator.SOFT_DROP) {
+                    last--;
+                }
+                for (int k = 0; k < length; k++) {
+                    tuck |= path[k] == MoveGenerator.SOFT_DROP && k < last;
+                    int before = core.getRotation() * 1_000_000 + core.getPieceY() * 1000 + core.getPieceX();
+                    follow(core, path[k]);
+                    // Cada comando do caminho é um comando do núcleo que mexe a peça
+                    assertTrue(before != core.getRotation() * 1_000_000 + core.getPieceY() * 1000 + core.getPieceX(),
+                            where + ": comando " + k + " sem efeito");
+                }
+                assertEquals(generator.getRotation(i), core.getRotation(), where);
+                assertEquals(generator.getX(i), core.getPieceX(), where);
+                assertEquals(generator.getY(i), core.getPieceY(), where);
+                assertEquals(core.getGhostY(), core.getPieceY(), where + ": a peça tem de estar pousada");
+                if (tuck) {
+                    tucks++;
+                }
+            }
+            assertEquals(naivePlacements(board, type, rotation, x, y), found, "cenário " + scenario + ", " + type);
+            placements += count;
+        }
+        assertTrue(placements > 5000, "poucas posições: " + placements);
+        assertTrue(tucks > 50, "poucos encaixes por baixo de saliências: " + tucks);
+    }
+
+    /** Pilha ao acaso abaixo da linha 6, com algumas saliências por cima para encaixes e spins. */
+    private static void randomStack(byte[] cells, int width, int height, Random random) {
+        int top = 6 + random.nextInt(height - 6);
+        double density = 0.3 + random.nextDouble() * 0.5;
+        for (int i = 0; i < cells.length; i++) {
+            cells[i] = (byte) (i / width >= top && random.nextDouble() < density ? 1 + random.nextInt(7) : 0);
+        }
+        for (int ledge = 0; ledge < 3; ledge++) {
+            int y = top - 1 - random.nextInt(3);
+            int x = random.nextInt(width - 3);
+            if (y >= 4) {
+                for (int column = x; column < x + 3; column++) {
+                    cells[y * width + column] = 1;
+                }
+            }
+        }
+    }
+
+    private static void follow(GameCore core, byte move) {
+        switch (move) {
+            case MoveGenerator.LEFT:
+                core.applyInput(Input.LEFT);
+                break;
+            case MoveGenerator.RIGHT:
+                core.applyInput(Input.RIGHT);
+                break;
+            case MoveGenerator.ROTATE_CW:
+                core.applyInput(Input.ROTATE);
+                break;
+            case MoveGenerator.ROTATE_CCW:
+                core.applyInput(Input.ROTATE_CCW);
+                break;
+            case MoveGenerator.SOFT_DROP:
+                core.applyInput(Input.SOFT_DROP);
+                break;
+            default:
+                throw new AssertionError("comando desconhecido " + move);
+        }
+    }
+
+    /**
+     * Pesquisa em largura sobre todos os estados (rotação, x, y) alcançáveis com os movimentos
+     * do núcleo, célula a célula com {@link Board#isValidPosition}.
+     * @return Os blocos de cada posição de repouso (onde a peça já não desce).
+     */
+    private static Set<Set<Integer>> naivePlacements(Board board, PieceType type, int rotation, int x, int y) {
+        Set<Set<Integer>> placements = new HashSet<>();
+        Set<Integer> seen = new HashSet<>();
+        ArrayDeque<int[]> queue = new ArrayDeque<>();
+        if (board.isValidPosition(type.getOrientation(rotation), x, y)) {
+            queue.add(new int[]{rotation, x, y});
+            seen.add(state(rotation, x, y));
+        }
+        while (!queue.isEmpty()) {
+            int[] current = queue.poll();
+            Orientation shape = type.getOrientation(current[0]);
+            if (!board.isValidPosition(shape, current[1], current[2] + 1)) {
+                placements.add(blocks(shape, current[1], current[2]));
+            }
+            int[][] next = new int[5][];
+            next[0] = new int[]{current[0], current[1] - 1, current[2]};
+            next[1] = new int[]{current[0], current[1] + 1, current[2]};
+            next[2] = new int[]{current[0], current[1], current[2] + 1};
+            for (int direction = 0; direction < 2; direction++) {
+                boolean clockwise = direction == 0;
+                int to = clockwise ? type.rotateClockwise(current[0]) : type.rotateCounterClockwise(current[0]);
+                for (int test = 0; test < PieceType.KICK_TESTS; test++) {
+                    int kx = current[1] + type.getKickX(current[0], clockwise, test);
+                    int ky = current[2] + type.getKickY(current[0], clockwise, test);
+                    if (board.isValidPosition(type.getOrientation(to), kx, ky)) {
+                        next[3 + direction] = new int[]{to, kx, ky};
+                        break;
+                    }
+                }
+            }
+            for (int[] candidate : next) {
+                if (candidate != null && board.isValidPosition(type.getOrientation(candidate[0]), candidate[1], candidate[2])
+                        && seen.add(state(candidate[0], candidate[1], candidate[2]))) {
+                    queue.add(candidate);
+                }
+            }
+        }
+        return placements;
+    }
+
+    private static int state(int rotation, int x, int y) {
+        return (rotation * 256 + y + 16) * 256 + x + 16;
+    }
+
+    private static Set<Integer> blocks(Orientation shape, int x, int y) {
+        Set<Integer> blocks = new HashSet<>();
+        for (int i = 0; i < shape.getCellCount(); i++) {
+            blocks.add((y + shape.getCellY(i)) * 256 + x + shape.getCellX(i));
+        }
+        return blocks;
+    }
+}
@@ -0,0 +1,48 @@
+package com.tetris.core.bot;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertSame;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.util.HashMap;
+import java.util.Map;
+
+import org.junit.jupiter.api.Test;
+
+import com.tetris.core.random.RandomizerType;
+
+/**
+ * {@link Tournament}: cada partida é entregue uma vez, na thread que chamou, e dá o mesmo
+ * resultado com um ou vários trabalhadores.
+ */
+class TournamentTest {
+
+    private static final long FIRST_SEED = 500;
+    private static final int GAMES = 4;
+
+    @Test
+    void sameResultsPerSeedWithAnyNumberOfThreads() throws InterruptedException {
+        // Tabuleiro pequeno e poucas peças, para o teste ser rápido
+        Tournament tournament = new Tournament(Heuristic.DEFAULT, RandomizerType.BAG_7, 6, 12, 80, 1 << 10);
+        Map<Long, String> single = run(tournament, 1);
+        Map<Long, String> parallel = run(tournament, 2);
+        assertEquals(GAMES, single.size());
+        assertEquals(single, parallel);
+    }
+
+    /** @return O resultado de cada partida, sem o tempo, pelo número da partida. */
+    private static Map<Long, String> run(Tournament tournament, int threads) throws InterruptedException {
+        Map<Long, String> results = new HashMap<>();
+        Thread caller = Thread.currentThread();
+        tournament.run(FIRST_SEED, GAMES, threads, result -> {
+            assertSame(caller, Thread.currentThread(), "resultados entregues na thread que chamou");
+            assertEquals(FIRST_SEED + result.getGame(), result.getSeed());
+            assertTrue(result.getPieces() > 0);
+            String summary = result.getScore() + "," + result.getLines() + "," + result.getPieces() + ","
+                    + result.getTicks() + "," + result.isGameOver();
+            assertNull(results.put(result.getGame(), summary), "partida " + result.getGame() + " entregue duas vezes");
+        });
+        return results;
+    }
+}
@@ -0,0 +1,52 @@
+package com.tetris.core.bot;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import org.junit.jupiter.api.Test;
+
+/**
+ * {@link TranspositionTable}: valores separados por tabuleiro e por peça, uma escrita na mesma
+ * posição substitui a anterior sem a devolver com o valor errado, e os contadores de consultas.
+ */
+class TranspositionTableTest {
+
+    @Test
+    void storesValuesPerBoardAndPiece() {
+        TranspositionTable table = new TranspositionTable(1000);
+        assertEquals(1024, table.getCapacity());
+        assertEquals(1024 * 16, table.getMemoryBytes());
+        assertTrue(Double.isNaN(table.get(0, 0)), "tabela vazia");
+
+        // A chave 0 também se guarda
+        table.put(0, 0, -1.5);
+        table.put(0x1234_5678_9ABC_DEF0L, 3, 42.25);
+        table.put(0x1234_5678_9ABC_DEF0L, 4, Double.NEGATIVE_INFINITY);
+        assertEquals(-1.5, table.get(0, 0));
+        assertEquals(42.25, table.get(0x1234_5678_9ABC_DEF0L, 3));
+        assertEquals(Double.NEGATIVE_INFINITY, table.get(0x1234_5678_9ABC_DEF0L, 4));
+        assertTrue(Double.isNaN(table.get(0x1234_5678_9ABC_DEF0L, 5)), "outra peça");
+        assertTrue(Double.isNaN(table.get(0x1234_5678_9ABC_DEF1L, 3)), "outro tabuleiro");
+        assertEquals(6, table.getProbes());
+        assertEquals(3, table.getHits());
+
+        table.clear();
+        assertTrue(Double.isNaN(table.get(0x1234_5678_9ABC_DEF0L, 3)));
+        assertEquals(1, table.getProbes());
+        assertEquals(0, table.getHits());
+    }
+
+    @Test
+    void aNewValueReplacesTheOneInTheSameSlot() {
+        TranspositionTable table = new TranspositionTable(16);
+        // Os bits altos escolhem a posição: estes dois tabuleiros partilham-na
+        long first = 5L << 32 | 1;
+        long second = 5L << 32 | 2;
+        table.put(first, 2, 10);
+        table.put(second, 2, 20);
+        assertTrue(Double.isNaN(table.get(first, 2)), "a entrada substituída falha, não devolve o valor da outra");
+        assertEquals(20, table.get(second, 2));
+        table.put(second, 2, 30);
+        assertEquals(30, table.get(second, 2));
+    }
+}
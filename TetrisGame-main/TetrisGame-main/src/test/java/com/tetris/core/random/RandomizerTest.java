@@ -0,0 +1,84 @@
+package com.tetris.core.random;
+
+import static org.junit.jupiter.api.Assertions.assertArrayEquals;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNotEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.nio.ByteBuffer;
+import java.util.Arrays;
+
+import org.junit.jupiter.api.Test;
+
+/**
+ * Os sorteadores de {@link RandomizerType}: a garantia dos sacos (cada peça uma vez em cada sete
+ * do 7-bag, duas em cada catorze do 14-bag), a mesma sequência para a mesma semente, e a
+ * retoma da sequência exatamente do ponto em que o estado foi guardado.
+ */
+class RandomizerTest {
+
+    @Test
+    void bagsDealEveryPieceOncePerCopy() {
+        for (long seed = 0; seed < 50; seed++) {
+            assertBags(RandomizerType.BAG_7.create(seed), 1);
+            assertBags(RandomizerType.BAG_14.create(seed), 2);
+        }
+    }
+
+    @Test
+    void sameSeedGivesTheSameSequence() {
+        for (RandomizerType type : RandomizerType.values()) {
+            int[] first = sequence(type.create(42), 500);
+            assertArrayEquals(first, sequence(type.create(42), 500), type.name());
+            assertNotEquals(Arrays.toString(first), Arrays.toString(sequence(type.create(43), 500)), type.name());
+            for (int piece : first) {
+                assertTrue(piece >= 0 && piece < Randomizer.PIECE_COUNT, type + ": peça " + piece);
+            }
+        }
+    }
+
+    @Test
+    void resumesTheSequenceFromASavedState() {
+        for (RandomizerType type : RandomizerType.values()) {
+            // Guardado a meio de um saco, no fim de um saco e logo no início
+            for (int drawn : new int[] {0, 3, 7, 14, 25, 100}) {
+                Randomizer original = type.create(7);
+                sequence(original, drawn);
+                ByteBuffer state = ByteBuffer.allocate(original.getStateSize());
+                original.saveState(state);
+                assertEquals(0, state.remaining(), type + ": tamanho do estado");
+                int[] expected = sequence(original, 60);
+
+                // Um sorteador do mesmo tipo, com outra semente e noutro ponto da sua sequência
+                Randomizer resumed = type.create(99);
+                sequence(resumed, 5);
+                state.flip();
+                resumed.loadState(state);
+                assertEquals(0, state.remaining(), type + ": estado lido por inteiro");
+                assertArrayEquals(expected, sequence(resumed, 60), type + " depois de " + drawn + " peças");
+            }
+        }
+    }
+
+    /** Confere que cada saco de {@code copies} * 7 peças seguidas tem cada peça {@code copies} vezes. */
+    private static void assertBags(Randomizer randomizer, int copies) {
+        int size = copies * Randomizer.PIECE_COUNT;
+        for (int bag = 0; bag < 20; bag++) {
+            int[] counts = new int[Randomizer.PIECE_COUNT];
+            for (int piece : sequence(randomizer, size)) {
+                counts[piece]++;
+            }
+            int[] expected = new int[Randomizer.PIECE_COUNT];
+            Arrays.fill(expected, copies);
+            assertArrayEquals(expected, counts, "saco " + bag + " de " + size);
+        }
+    }
+
+    private static int[] sequence(Randomizer randomizer, int length) {
+        int[] pieces = new int[length];
+        for (int i = 0; i < length; i++) {
+            pieces[i] = randomizer.next();
+        }
+        return pieces;
+    }
+}
@@ -0,0 +1,133 @@
+package com.tetris.core.replay;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertSame;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Random;
+
+import org.junit.jupiter.api.Test;
+
+import com.tetris.core.GameCore;
+import com.tetris.core.random.RandomizerType;
+
+/**
+ * {@link ChallengeVerifier} com partidas do desafio e partidas normais jogadas com comandos ao
+ * acaso: as gravações verdadeiras são aceites, e as pontuações forjadas, as gravações cortadas e
+ * as regras erradas são recusadas.
+ */
+class ChallengeVerifierTest {
+
+    private static final LocalDate DAY = LocalDate.of(2026, 10, 18);
+
+    @Test
+    void acceptsTheReplaysOfTheDayInABatch() {
+        Random random = new Random(21);
+        List<ChallengeSubmission> submissions = new ArrayList<>();
+        for (int game = 0; game < 12; game++) {
+            GameCore core = new GameCore();
+            Replay replay = challenge(core, DAY, random);
+            submissions.add(new ChallengeSubmission("jogador" + game, DAY, core.getScore(), replay));
+        }
+        try (ChallengeVerifier verifier = new ChallengeVerifier(4)) {
+            List<ChallengeResult> results = verifier.verifyAll(submissions);
+            assertEquals(submissions.size(), results.size());
+            for (int i = 0; i < results.size(); i++) {
+                ChallengeResult result = results.get(i);
+                assertSame(submissions.get(i), result.getSubmission(), "resultados pela ordem dos envios");
+                assertEquals(ChallengeResult.Status.ACCEPTED, result.getStatus(), result.toString());
+                assertEquals(submissions.get(i).getClaimedScore(), result.getSimulatedScore());
+                assertEquals(submissions.get(i).getReplay().getEndTick(), result.getTicks());
+            }
+        }
+    }
+
+    @Test
+    void rejectsAForgedScore() {
+        GameCore core = new GameCore();
+        Replay replay = challenge(core, DAY, new Random(22));
+        try (ChallengeVerifier verifier = new ChallengeVerifier(1)) {
+            ChallengeResult result = verifier.verify(new ChallengeSubmission("Ana", DAY, core.getScore() + 100, replay));
+            assertEquals(ChallengeResult.Status.SCORE_MISMATCH, result.getStatus());
+            assertEquals(core.getScore(), result.getSimulatedScore());
+            // O cabeçalho da gravação também não conta: só a simulação
+            Replay forged = new Replay(replay.getBoardWidth(), replay.getBoardHeight(), replay.getRandomizerType(),
+                    replay.getSeed(), replay.getEndTick(), core.getScore() + 100, replay.getFinalLines(),
+                    replay.getInputCount(), replay.inputs(), new long[0], new int[0], ByteBuffer.allocate(0));
+            result = verifier.verify(new ChallengeSubmission("Ana", DAY, core.getScore() + 100, forged));
+            assertEquals(ChallengeResult.Status.SCORE_MISMATCH, result.getStatus());
+        }
+    }
+
+    @Test
+    void rejectsATruncatedReplay() throws IOException {
+        Random random = new Random(23);
+        try (ChallengeVerifier verifier = new ChallengeVerifier(1)) {
+            for (int game = 0; game < 10; game++) {
+                GameCore core = new GameCore();
+                Replay replay = challenge(core, DAY, random);
+                // Só metade dos comandos, com o mesmo fim declarado
+                ByteBuffer inputs = replay.inputs().duplicate();
+                inputs.limit(inputs.limit() / 2);
+                Replay truncated = new Replay(replay.getBoardWidth(), replay.getBoardHeight(),
+                        replay.getRandomizerType(), replay.getSeed(), replay.getEndTick(), replay.getFinalScore(),
+                        replay.getFinalLines(), replay.getInputCount() / 2, inputs.slice(), new long[0], new int[0],
+                        ByteBuffer.allocate(0));
+                ChallengeResult result = verifier.verify(new ChallengeSubmission("Ana", DAY, core.getScore(), truncated));
+                assertFalse(result.isAccepted(), "partida " + game + ": " + result);
+            }
+        }
+        // Um ficheiro cortado nem chega a ser lido
+        byte[] file = ReplayTest.bytes(challenge(new GameCore(), DAY, random));
+        assertThrows(IOException.class, () -> Replay.read(ByteBuffer.wrap(Arrays.copyOf(file, file.length - 5))));
+    }
+
+    @Test
+    void checksTheRulesOfTheDayAndOfNormalGames() {
+        Random random = new Random(24);
+        try (ChallengeVerifier verifier = new ChallengeVerifier(1)) {
+            GameCore core = new GameCore();
+            Replay replay = challenge(core, DAY, random);
+            ChallengeResult result = verifier.verify(new ChallengeSubmission("Ana", DAY.plusDays(1), core.getScore(), replay));
+            assertEquals(ChallengeResult.Status.WRONG_RULES, result.getStatus(), "gravação de outro dia");
+
+            // Partida normal: qualquer semente e sorteio, mas no tabuleiro padrão
+            core = new GameCore();
+            core.setRandomizerType(RandomizerType.CLASSIC);
+            ReplayRecorder recorder = new ReplayRecorder(core);
+            core.addTickListener(recorder);
+            core.start(random.nextLong());
+            ReplayTest.play(core, random);
+            result = verifier.verify(new ChallengeSubmission("Ana", null, core.getScore(), recorder.toReplay()));
+            assertEquals(ChallengeResult.Status.ACCEPTED, result.getStatus(), result.toString());
+
+            core = new GameCore(12, 20);
+            recorder = new ReplayRecorder(core);
+            core.addTickListener(recorder);
+            core.start(random.nextLong());
+            ReplayTest.play(core, random);
+            result = verifier.verify(new ChallengeSubmission("Ana", null, core.getScore(), recorder.toReplay()));
+            assertEquals(ChallengeResult.Status.WRONG_RULES, result.getStatus(), "tabuleiro 12x20");
+        }
+    }
+
+    /** Joga o desafio de {@code day} até ao fim de jogo e devolve a gravação. */
+    private static Replay challenge(GameCore core, LocalDate day, Random random) {
+        ReplayRecorder recorder = new ReplayRecorder(core);
+        core.addTickListener(recorder);
+        core.setRandomizerType(DailyChallenge.RANDOMIZER);
+        core.start(DailyChallenge.seedFor(day));
+        ReplayTest.play(core, random);
+        Replay replay = recorder.toReplay();
+        assertTrue(DailyChallenge.matchesRules(replay, day));
+        return replay;
+    }
+}
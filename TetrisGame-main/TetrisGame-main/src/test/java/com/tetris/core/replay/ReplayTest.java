@@ -0,0 +1,132 @@
+package com.tetris.core.replay;
+
+import static org.junit.jupiter.api.Assertions.assertArrayEquals;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+
+import org.junit.jupiter.api.Test;
+
+import com.tetris.core.GameCore;
+import com.tetris.core.GameState;
+import com.tetris.core.Input;
+import com.tetris.core.random.RandomizerType;
+
+/**
+ * Gravação e leitura de um {@link Replay}, e reprodução e saltos com o {@link ReplayPlayer},
+ * comparados com a partida original jogada com comandos ao acaso.
+ */
+class ReplayTest {
+
+    @Test
+    void writesAndReadsBackTheSameReplay() throws IOException {
+        Random random = new Random(13);
+        for (int game = 0; game < 30; game++) {
+            GameCore core = new GameCore(game % 3 == 0 ? 12 : 10, 20);
+            core.setRandomizerType(RandomizerType.values()[game % RandomizerType.values().length]);
+            ReplayRecorder recorder = new ReplayRecorder(core);
+            core.addTickListener(recorder);
+            long seed = random.nextLong();
+            core.start(seed);
+            play(core, random);
+
+            byte[] file = bytes(recorder.toReplay());
+            Replay replay = Replay.read(new ByteArrayInputStream(file));
+            assertEquals(core.getBoard().getWidth(), replay.getBoardWidth());
+            assertEquals(core.getBoard().getHeight(), replay.getBoardHeight());
+            assertEquals(core.getRandomizerType(), replay.getRandomizerType());
+            assertEquals(seed, replay.getSeed());
+            assertEquals(core.getTick(), replay.getEndTick());
+            assertEquals(core.getScore(), replay.getFinalScore());
+            assertEquals(core.getLinesCleared(), replay.getFinalLines());
+            assertArrayEquals(file, bytes(replay), "partida " + game + ": gravar de novo o que foi lido");
+
+            GameCore copy = new GameCore(replay.getBoardWidth(), replay.getBoardHeight());
+            ReplayPlayer player = new ReplayPlayer(replay);
+            player.start(copy);
+            player.playToEnd(copy);
+            assertTrue(player.matches(copy), "partida " + game + ": pontuação e linhas da reprodução");
+            assertEquals(GameState.GAME_OVER, copy.getState());
+            assertArrayEquals(cells(core), cells(copy), "partida " + game + ": tabuleiro final");
+        }
+    }
+
+    @Test
+    void seeksToTheSameStateAsPlayingFromTheStart() throws IOException {
+        Random random = new Random(14);
+        int keyframes = 0;
+        for (int game = 0; game < 30; game++) {
+            GameCore core = new GameCore(game % 4 == 0 ? 13 : 10, game % 5 == 0 ? 24 : 20);
+            core.setRandomizerType(RandomizerType.values()[game % RandomizerType.values().length]);
+            // Intervalos curtos também, para haver muitas keyframes e saltos entre elas
+            int interval = game % 2 == 0 ? ReplayRecorder.DEFAULT_KEYFRAME_INTERVAL : 1 + random.nextInt(500);
+            ReplayRecorder recorder = new ReplayRecorder(core, interval);
+            core.addTickListener(recorder);
+            core.start(random.nextLong());
+            // O estado de cada passo, depois dos comandos fora dos passos
+            List<byte[]> states = new ArrayList<>();
+            states.add(state(core));
+            while (core.getState() == GameState.PLAYING) {
+                core.step(random.nextInt(25) == 0 ? 1 << random.nextInt(5) : Input.NONE);
+                if (random.nextInt(300) == 0) {
+                    core.applyInput(1 << random.nextInt(4));
+                }
+                states.add(state(core));
+            }
+
+            Replay replay = Replay.read(new ByteArrayInputStream(bytes(recorder.toReplay())));
+            keyframes += replay.getKeyframeCount();
+            GameCore copy = new GameCore(replay.getBoardWidth(), replay.getBoardHeight());
+            ReplayPlayer player = new ReplayPlayer(replay);
+            player.start(copy);
+            for (int seek = 0; seek < 100; seek++) {
+                // Para a frente e para trás, e às vezes exatamente numa keyframe
+                long target = replay.getKeyframeCount() > 0 && random.nextInt(4) == 0
+                        ? replay.getKeyframeTick(random.nextInt(replay.getKeyframeCount()))
+                        : random.nextInt((int) replay.getEndTick() + 1);
+                player.seek(copy, target);
+                assertEquals(target, copy.getTick());
+                assertArrayEquals(states.get((int) target), state(copy), "partida " + game + ": passo " + target);
+            }
+            player.seek(copy, replay.getEndTick());
+            assertTrue(player.matches(copy), "partida " + game + ": fim da gravação");
+        }
+        assertTrue(keyframes > 100, "poucas keyframes: " + keyframes);
+    }
+
+    /** Joga até ao fim de jogo, com comandos em passos ao acaso e alguns fora dos passos. */
+    static void play(GameCore core, Random random) {
+        while (core.getState() == GameState.PLAYING) {
+            int input = random.nextInt(20) == 0 ? 1 << random.nextInt(5) : Input.NONE;
+            core.step(input);
+            if (random.nextInt(200) == 0) {
+                core.applyInput(1 << random.nextInt(4));
+            }
+        }
+    }
+
+    static byte[] bytes(Replay replay) throws IOException {
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+        replay.write(out);
+        return out.toByteArray();
+    }
+
+    private static byte[] state(GameCore core) {
+        ByteBuffer state = ByteBuffer.allocate(core.getStateSize());
+        core.saveState(state);
+        return state.array();
+    }
+
+    private static byte[] cells(GameCore core) {
+        byte[] cells = new byte[core.getBoard().getWidth() * core.getBoard().getHeight()];
+        core.getBoard().copyCells(cells);
+        return cells;
+    }
+}
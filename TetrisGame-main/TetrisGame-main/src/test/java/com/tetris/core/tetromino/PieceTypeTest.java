@@ -0,0 +1,217 @@
+package com.tetris.core.tetromino;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.util.HashSet;
+import java.util.Random;
+import java.util.Set;
+
+import org.junit.jupiter.api.Test;
+
+import com.tetris.core.Board;
+import com.tetris.core.GameCore;
+import com.tetris.core.GameState;
+import com.tetris.core.Input;
+
+/**
+ * Formas e tabelas de chutes do SRS de cada {@link PieceType}, conferidas com as tabelas
+ * publicadas do Super Rotation System (escritas aqui de novo, com y para cima), e a rotação do
+ * {@link GameCore}, que deve ficar no primeiro chute da tabela em que a peça cabe.
+ */
+class PieceTypeTest {
+
+    // Chutes publicados de cada rotação "de>para" (0, 1 = R, 2, 3 = L): pares (x, y), y para cima
+    private static final int[][][] JLSTZ_KICKS = new int[4][4][];
+    private static final int[][][] I_KICKS = new int[4][4][];
+
+    static {
+        JLSTZ_KICKS[0][1] = new int[]{0, 0, -1, 0, -1, 1, 0, -2, -1, -2};
+        JLSTZ_KICKS[1][0] = new int[]{0, 0, 1, 0, 1, -1, 0, 2, 1, 2};
+        JLSTZ_KICKS[1][2] = new int[]{0, 0, 1, 0, 1, -1, 0, 2, 1, 2};
+        JLSTZ_KICKS[2][1] = new int[]{0, 0, -1, 0, -1, 1, 0, -2, -1, -2};
+        JLSTZ_KICKS[2][3] = new int[]{0, 0, 1, 0, 1, 1, 0, -2, 1, -2};
+        JLSTZ_KICKS[3][2] = new int[]{0, 0, -1, 0, -1, -1, 0, 2, -1, 2};
+        JLSTZ_KICKS[3][0] = new int[]{0, 0, -1, 0, -1, -1, 0, 2, -1, 2};
+        JLSTZ_KICKS[0][3] = new int[]{0, 0, 1, 0, 1, 1, 0, -2, 1, -2};
+        I_KICKS[0][1] = new int[]{0, 0, -2, 0, 1, 0, -2, -1, 1, 2};
+        I_KICKS[1][0] = new int[]{0, 0, 2, 0, -1, 0, 2, 1, -1, -2};
+        I_KICKS[1][2] = new int[]{0, 0, -1, 0, 2, 0, -1, 2, 2, -1};
+        I_KICKS[2][1] = new int[]{0, 0, 1, 0, -2, 0, 1, -2, -2, 1};
+        I_KICKS[2][3] = new int[]{0, 0, 2, 0, -1, 0, 2, 1, -1, -2};
+        I_KICKS[3][2] = new int[]{0, 0, -2, 0, 1, 0, -2, -1, 1, 2};
+        I_KICKS[3][0] = new int[]{0, 0, 1, 0, -2, 0, 1, -2, -2, 1};
+        I_KICKS[0][3] = new int[]{0, 0, -1, 0, 2, 0, -1, 2, 2, -1};
+    }
+
+    // Formas de entrada do SRS, pela ordem das constantes (I, J, L, O, S, T, Z)
+    private static final int[][][] SPAWN_SHAPES = {
+            {{0, 0, 0, 0}, {1, 1, 1, 1}, {0, 0, 0, 0}, {0, 0, 0, 0}},
+            {{1, 0, 0}, {1, 1, 1}, {0, 0, 0}},
+            {{0, 0, 1}, {1, 1, 1}, {0, 0, 0}},
+            {{1, 1}, {1, 1}},
+            {{0, 1, 1}, {1, 1, 0}, {0, 0, 0}},
+            {{0, 1, 0}, {1, 1, 1}, {0, 0, 0}},
+            {{1, 1, 0}, {0, 1, 1}, {0, 0, 0}}
+    };
+
+    @Test
+    void kickTablesMatchTheSrsTables() {
+        for (PieceType type : PieceType.values()) {
+            for (int from = 0; from < 4; from++) {
+                for (boolean clockwise : new boolean[]{true, false}) {
+                    int[] expected = publishedKicks(type, from, clockwise);
+                    for (int test = 0; test < PieceType.KICK_TESTS; test++) {
+                        String where = type + " " + from + (clockwise ? " horário" : " anti-horário") + " teste " + test;
+                        assertEquals(expected[test * 2], type.getKickX(from, clockwise, test), where);
+                        // As tabelas publicadas têm y para cima; o tabuleiro, para baixo
+                        assertEquals(-expected[test * 2 + 1], type.getKickY(from, clockwise, test), where);
+                    }
+                }
+            }
+        }
+    }
+
+    @Test
+    void orientationsRotateAboutTheCenterOfTheirBox() {
+        for (PieceType type : PieceType.values()) {
+            int[][] shape = SPAWN_SHAPES[type.ordinal()];
+            for (int rotation = 0; rotation < 4; rotation++) {
+                // O O não gira: as quatro orientações são a de entrada
+                int[][] expected = type == PieceType.O ? shape : rotate(shape, rotation);
+                assertEquals(cells(expected), cells(type.getOrientation(rotation)), type + " rotação " + rotation);
+            }
+        }
+    }
+
+    @Test
+    void spawnsCenteredOnTheTopRow() {
+        assertEquals(3, PieceType.I.spawnX(Board.DEFAULT_WIDTH));
+        assertEquals(4, PieceType.O.spawnX(Board.DEFAULT_WIDTH));
+        assertEquals(3, PieceType.T.spawnX(Board.DEFAULT_WIDTH));
+        assertEquals(-1, PieceType.I.spawnY());
+        assertEquals(0, PieceType.T.spawnY());
+    }
+
+    @Test
+    void coreRotatesToTheFirstKickThatFits() {
+        Random random = new Random(19);
+        GameCore core = new GameCore();
+        Board board = core.getBoard();
+        int width = board.getWidth();
+        int height = board.getHeight();
+        byte[] cells = new byte[width * height];
+        int kicked = 0;
+        for (int scenario = 0; scenario < 300; scenario++) {
+            core.start(random.nextLong());
+            // Pilha ao acaso abaixo da linha de entrada, cheia de buracos onde a peça pode encaixar
+            int top = 4 + random.nextInt(height - 4);
+            double density = 0.2 + random.nextDouble() * 0.5;
+            for (int i = 0; i < cells.length; i++) {
+                cells[i] = (byte) (i / width >= top && random.nextDouble() < density ? 1 : 0);
+            }
+            board.loadCells(cells);
+            for (int move = 0; move < 200 && core.getState() == GameState.PLAYING; move++) {
+                int choice = random.nextInt(6);
+                if (choice < 2) {
+                    boolean clockwise = choice == 0;
+                    PieceType type = core.getPieceType();
+                    int from = core.getRotation();
+                    int[] expected = expectedRotation(board, type, from, core.getPieceX(), core.getPieceY(), clockwise);
+                    core.applyInput(clockwise ? Input.ROTATE : Input.ROTATE_CCW);
+                    String where = type + " " + from + (clockwise ? " horário" : " anti-horário");
+                    assertEquals(expected[0], core.getRotation(), where);
+                    assertEquals(expected[1], core.getPieceX(), where);
+                    assertEquals(expected[2], core.getPieceY(), where);
+                    if (expected[3] > 0) {
+                        kicked++;
+                    }
+                } else {
+                    core.applyInput(choice == 2 ? Input.LEFT : choice == 3 ? Input.RIGHT : Input.SOFT_DROP);
+                }
+            }
+        }
+        assertTrue(kicked > 100, "poucas rotações com chute: " + kicked);
+    }
+
+    private static int[] publishedKicks(PieceType type, int from, boolean clockwise) {
+        if (type == PieceType.O) {
+            return new int[2 * PieceType.KICK_TESTS];
+        }
+        int to = clockwise ? (from + 1) & 3 : (from + 3) & 3;
+        return (type == PieceType.I ? I_KICKS : JLSTZ_KICKS)[from][to];
+    }
+
+    /**
+     * @return Rotação, x e y da peça depois de rodar a partir de (x, y), com a tabela publicada
+     *         e as células do tabuleiro, e o número do chute usado (-1 se não rodou).
+     */
+    private static int[] expectedRotation(Board board, PieceType type, int from, int x, int y, boolean clockwise) {
+        if (type == PieceType.O) {
+            return new int[]{from, x, y, -1};
+        }
+        int to = clockwise ? (from + 1) & 3 : (from + 3) & 3;
+        int[] kicks = publishedKicks(type, from, clockwise);
+        int[][] shape = rotate(SPAWN_SHAPES[type.ordinal()], to);
+        for (int test = 0; test < PieceType.KICK_TESTS; test++) {
+            int kx = x + kicks[test * 2];
+            int ky = y - kicks[test * 2 + 1];
+            if (fits(board, shape, kx, ky)) {
+                return new int[]{to, kx, ky, test};
+            }
+        }
+        return new int[]{from, x, y, -1};
+    }
+
+    private static boolean fits(Board board, int[][] shape, int x, int y) {
+        for (int row = 0; row < shape.length; row++) {
+            for (int column = 0; column < shape[row].length; column++) {
+                if (shape[row][column] == 0) {
+                    continue;
+                }
+                int bx = x + column;
+                int by = y + row;
+                if (bx < 0 || bx >= board.getWidth() || by >= board.getHeight() || (by >= 0 && board.isOccupied(bx, by))) {
+                    return false;
+                }
+            }
+        }
+        return true;
+    }
+
+    /** Roda a matriz {@code times} vezes no sentido horário, sobre o centro da caixa. */
+    private static int[][] rotate(int[][] shape, int times) {
+        int[][] current = shape;
+        for (int i = 0; i < times; i++) {
+            int size = current.length;
+            int[][] rotated = new int[size][size];
+            for (int row = 0; row < size; row++) {
+                for (int column = 0; column < size; column++) {
+                    rotated[column][size - 1 - row] = current[row][column];
+                }
+            }
+            current = rotated;
+        }
+        return current;
+    }
+
+    private static Set<Integer> cells(int[][] shape) {
+        Set<Integer> cells = new HashSet<>();
+        for (int row = 0; row < shape.length; row++) {
+            for (int column = 0; column < shape[row].length; column++) {
+                if (shape[row][column] != 0) {
+                    cells.add(row * 8 + column);
+                }
+            }
+        }
+        return cells;
+    }
+
+    private static Set<Integer> cells(Orientation orientation) {
+        Set<Integer> cells = new HashSet<>();
+        for (int i = 0; i < orientation.getCellCount(); i++) {
+            cells.add(orientation.getCellY(i) * 8 + orientation.getCellX(i));
+        }
+        return cells;
+    }
+}
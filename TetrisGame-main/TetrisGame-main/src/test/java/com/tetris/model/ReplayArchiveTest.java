@@ -0,0 +1,222 @@
+package com.tetris.model;
+
+import static org.junit.jupiter.api.Assertions.assertArrayEquals;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Random;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import com.tetris.core.GameCore;
+import com.tetris.core.GameState;
+import com.tetris.core.Input;
+import com.tetris.core.replay.Replay;
+import com.tetris.core.replay.ReplayRecorder;
+
+/**
+ * {@link ReplayArchive} com segmentos pequenos, comparado com a lista dos registos acrescentados:
+ * consultas, reabertura pelos índices dos segmentos ou sem eles, e recuperação de um fim de
+ * segmento danificado.
+ */
+class ReplayArchiveTest {
+
+    private static final String[] PLAYERS = {"Ana", "Bruno", "Carla", "Dário"};
+    // Poucos registos por segmento, para haver muitos segmentos
+    private static final int SEGMENT_SIZE = 4 << 10;
+
+    @TempDir
+    Path directory;
+
+    @Test
+    void answersQueriesAndReopensFromTheSegmentIndexes() throws IOException {
+        List<Replay> replays = replays(12, 1);
+        List<ArchivedReplay> written = new ArrayList<>();
+        List<byte[]> bytes = new ArrayList<>();
+        try (ReplayArchive archive = ReplayArchive.open(directory, SEGMENT_SIZE)) {
+            Random random = new Random(2);
+            for (int i = 0; i < 200; i++) {
+                Replay replay = replays.get(i % replays.size());
+                written.add(archive.append(PLAYERS[random.nextInt(PLAYERS.length)], random.nextInt(5000),
+                        1_000_000L + random.nextInt(100_000), replay));
+                bytes.add(bytes(replay));
+            }
+            assertQueries(archive, written);
+            assertRecords(archive, written, bytes);
+        }
+        assertTrue(segments().size() > 3, "poucos segmentos: " + segments().size());
+
+        // Pelos índices dos segmentos
+        try (ReplayArchive archive = ReplayArchive.open(directory, SEGMENT_SIZE)) {
+            assertQueries(archive, written);
+            assertRecords(archive, written, bytes);
+        }
+        // Sem índices (arquivo de uma versão anterior, ou índices perdidos): são refeitos dos segmentos
+        for (Path segment : segments()) {
+            Files.delete(index(segment));
+        }
+        try (ReplayArchive archive = ReplayArchive.open(directory, SEGMENT_SIZE)) {
+            assertQueries(archive, written);
+            assertRecords(archive, written, bytes);
+        }
+        for (Path segment : segments()) {
+            assertTrue(Files.size(index(segment)) > 8, "índice refeito: " + index(segment));
+        }
+        // Índice com a última entrada cortada a meio: a entrada é lida de novo do segmento
+        Path lastIndex = index(segments().get(segments().size() - 1));
+        try (java.nio.channels.FileChannel channel = java.nio.channels.FileChannel.open(lastIndex, StandardOpenOption.WRITE)) {
+            channel.truncate(channel.size() - 3);
+        }
+        try (ReplayArchive archive = ReplayArchive.open(directory, SEGMENT_SIZE)) {
+            assertQueries(archive, written);
+            assertRecords(archive, written, bytes);
+        }
+    }
+
+    @Test
+    void dropsATornRecordAndZeroPaddingAtTheEndOfASegment() throws IOException {
+        List<Replay> replays = replays(3, 3);
+        List<ArchivedReplay> written = new ArrayList<>();
+        List<byte[]> bytes = new ArrayList<>();
+        try (ReplayArchive archive = ReplayArchive.open(directory, SEGMENT_SIZE)) {
+            for (int i = 0; i < 5; i++) {
+                written.add(archive.append(PLAYERS[i % PLAYERS.length], 100 * i, 2_000_000L + i, replays.get(i % 3)));
+                bytes.add(bytes(replays.get(i % 3)));
+            }
+        }
+        Path segment = segments().get(segments().size() - 1);
+        long size = Files.size(segment);
+
+        // Registo interrompido: o cabeçalho promete mais bytes do que há, e o índice não o tem
+        ByteBuffer torn = ByteBuffer.allocate(40);
+        torn.putInt(1000).putLong(3_000_000L).putInt(999).putShort((short) 3).put(new byte[] {'E', 'v', 'a'});
+        Files.write(segment, torn.array(), StandardOpenOption.APPEND);
+        try (ReplayArchive archive = ReplayArchive.open(directory, SEGMENT_SIZE)) {
+            assertEquals(size, Files.size(segment), "registo interrompido descartado");
+            assertQueries(archive, written);
+            assertRecords(archive, written, bytes);
+            // O próximo registo fica no lugar do interrompido
+            written.add(archive.append("Eva", 999, 3_000_000L, replays.get(0)));
+            bytes.add(bytes(replays.get(0)));
+        }
+
+        // Zeros no fim do ficheiro (como os que os mapeamentos além do fim deixavam)
+        size = Files.size(segment);
+        Files.write(segment, new byte[4096], StandardOpenOption.APPEND);
+        try (ReplayArchive archive = ReplayArchive.open(directory, SEGMENT_SIZE)) {
+            assertEquals(size, Files.size(segment), "zeros descartados");
+            assertQueries(archive, written);
+            assertRecords(archive, written, bytes);
+            // Ler não estende o ficheiro
+            archive.load(written.get(written.size() - 1).getOffset());
+            assertEquals(size, Files.size(segment), "leitura estendeu o segmento");
+            written.add(archive.append("Eva", 5, 3_000_001L, replays.get(1)));
+            bytes.add(bytes(replays.get(1)));
+            size = Files.size(segment);
+            archive.load(written.get(written.size() - 1).getOffset());
+            assertEquals(size, Files.size(segment), "leitura estendeu o segmento");
+        }
+        try (ReplayArchive archive = ReplayArchive.open(directory, SEGMENT_SIZE)) {
+            assertQueries(archive, written);
+            assertRecords(archive, written, bytes);
+        }
+    }
+
+    /** As consultas do arquivo comparadas com a lista ordenada dos registos. */
+    private static void assertQueries(ReplayArchive archive, List<ArchivedReplay> written) {
+        Comparator<ArchivedReplay> byScore = Comparator.comparingInt(ArchivedReplay::getScore).reversed()
+                .thenComparing(Comparator.comparingLong(ArchivedReplay::getTimestamp).reversed())
+                .thenComparingLong(ArchivedReplay::getOffset);
+        assertEquals(written.size(), archive.size());
+        for (String player : PLAYERS) {
+            List<ArchivedReplay> expected = new ArrayList<>();
+            for (ArchivedReplay entry : written) {
+                if (entry.getPlayer().equals(player)) {
+                    expected.add(entry);
+                }
+            }
+            expected.sort(byScore);
+            assertSameEntries(expected.subList(0, Math.min(10, expected.size())), archive.topByPlayer(player, 10));
+        }
+        List<ArchivedReplay> expected = new ArrayList<>(written);
+        expected.sort(byScore);
+        assertSameEntries(expected.subList(0, Math.min(25, expected.size())), archive.topScores(25));
+
+        expected.sort(Comparator.comparingLong(ArchivedReplay::getTimestamp).thenComparingLong(ArchivedReplay::getOffset));
+        long from = expected.get(expected.size() / 4).getTimestamp();
+        long to = expected.get(3 * expected.size() / 4).getTimestamp();
+        List<ArchivedReplay> between = new ArrayList<>();
+        for (ArchivedReplay entry : expected) {
+            if (entry.getTimestamp() >= from && entry.getTimestamp() < to) {
+                between.add(entry);
+            }
+        }
+        assertSameEntries(between, archive.between(from, to));
+        assertSameEntries(expected.subList(expected.size() - 1, expected.size()), List.of(archive.latest()));
+    }
+
+    private static void assertSameEntries(List<ArchivedReplay> expected, List<ArchivedReplay> actual) {
+        assertEquals(expected.size(), actual.size());
+        for (int i = 0; i < expected.size(); i++) {
+            assertEquals(expected.get(i).getOffset(), actual.get(i).getOffset(), "entrada " + i);
+            assertEquals(expected.get(i).getPlayer(), actual.get(i).getPlayer());
+            assertEquals(expected.get(i).getScore(), actual.get(i).getScore());
+            assertEquals(expected.get(i).getTimestamp(), actual.get(i).getTimestamp());
+            assertEquals(expected.get(i).getLength(), actual.get(i).getLength());
+        }
+    }
+
+    /** Cada registo lido de volta dá a mesma gravação. */
+    private static void assertRecords(ReplayArchive archive, List<ArchivedReplay> written, List<byte[]> bytes)
+            throws IOException {
+        for (int i = 0; i < written.size(); i++) {
+            assertEquals(bytes.get(i).length, archive.replayBytes(written.get(i).getOffset()).remaining());
+            assertArrayEquals(bytes.get(i), bytes(archive.load(written.get(i).getOffset())), "registo " + i);
+        }
+    }
+
+    private List<Path> segments() throws IOException {
+        List<Path> segments = new ArrayList<>();
+        try (java.util.stream.Stream<Path> files = Files.list(directory)) {
+            files.filter(file -> file.getFileName().toString().endsWith(".trpa")).sorted().forEach(segments::add);
+        }
+        return segments;
+    }
+
+    private static Path index(Path segment) {
+        return segment.resolveSibling(segment.getFileName().toString().replace(".trpa", ".trpi"));
+    }
+
+    /** Gravações de partidas curtas jogadas com comandos ao acaso. */
+    private static List<Replay> replays(int count, long seed) {
+        Random random = new Random(seed);
+        List<Replay> replays = new ArrayList<>();
+        for (int i = 0; i < count; i++) {
+            GameCore core = new GameCore();
+            ReplayRecorder recorder = new ReplayRecorder(core);
+            core.addTickListener(recorder);
+            core.start(random.nextLong());
+            while (core.getState() == GameState.PLAYING) {
+                core.step(random.nextInt(10) == 0 ? 1 << random.nextInt(5) : Input.NONE);
+            }
+            replays.add(recorder.toReplay());
+        }
+        return replays;
+    }
+
+    private static byte[] bytes(Replay replay) throws IOException {
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+        replay.write(out);
+        return out.toByteArray();
+    }
+}
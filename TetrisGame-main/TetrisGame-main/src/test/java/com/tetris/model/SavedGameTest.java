@@ -0,0 +1,107 @@
+package com.tetris.model;
+
+import static org.junit.jupiter.api.Assertions.assertArrayEquals;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.Arrays;
+import java.util.Random;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import com.tetris.core.GameCore;
+import com.tetris.core.GameState;
+import com.tetris.core.Input;
+
+/**
+ * {@link SavedGame} e a sua escrita em disco por {@link LocalStorageManager}: uma partida guardada
+ * e carregada continua exatamente como a original, e um ficheiro danificado é recusado.
+ */
+class SavedGameTest {
+
+    @TempDir
+    Path directory;
+
+    @Test
+    void restoresTheGameExactly() throws IOException {
+        Random random = new Random(17);
+        GameCore core = playing(random, 400);
+        SavedGame saved = SavedGame.fromBytes(SavedGame.capture("Joana Sá", core).toBytes());
+        assertEquals("Joana Sá", saved.getPlayer());
+
+        GameCore restored = new GameCore();
+        saved.restore(restored);
+        assertArrayEquals(state(core), state(restored));
+        // As duas partidas continuam iguais com os mesmos comandos
+        for (int tick = 0; tick < 2000 && core.getState() == GameState.PLAYING; tick++) {
+            int input = random.nextInt(8) == 0 ? 1 << random.nextInt(5) : Input.NONE;
+            core.step(input);
+            restored.step(input);
+        }
+        assertArrayEquals(state(core), state(restored));
+        assertEquals(core.getScore(), restored.getScore());
+    }
+
+    @Test
+    void rejectsDamagedBytes() throws IOException {
+        byte[] data = SavedGame.capture("Ana", playing(new Random(18), 300)).toBytes();
+        // Qualquer byte alterado, o CRC incluído
+        for (int i = 0; i < data.length; i++) {
+            byte[] damaged = data.clone();
+            damaged[i] ^= 0x10;
+            assertThrows(IOException.class, () -> SavedGame.fromBytes(damaged), "byte " + i);
+        }
+        for (int length : new int[] {0, 3, 5, data.length / 2, data.length - 1}) {
+            assertThrows(IOException.class, () -> SavedGame.fromBytes(Arrays.copyOf(data, length)), length + " bytes");
+        }
+        assertThrows(IOException.class, () -> SavedGame.fromBytes(Arrays.copyOf(data, data.length + 1)), "bytes a mais");
+    }
+
+    @Test
+    void savesAndLoadsTheFileOverThePreviousOne() throws IOException {
+        Path file = directory.resolve("partida.sav");
+        assertNull(LocalStorageManager.loadGame(file), "sem partida guardada");
+
+        Random random = new Random(19);
+        GameCore first = playing(random, 200);
+        LocalStorageManager.saveGame(file, SavedGame.capture("Ana", first));
+        GameCore second = playing(random, 500);
+        LocalStorageManager.saveGame(file, SavedGame.capture("Bruno", second));
+        assertFalse(Files.exists(directory.resolve("partida.sav.tmp")), "ficheiro temporário deixado para trás");
+
+        SavedGame loaded = LocalStorageManager.loadGame(file);
+        assertEquals("Bruno", loaded.getPlayer());
+        GameCore restored = new GameCore();
+        loaded.restore(restored);
+        assertArrayEquals(state(second), state(restored));
+
+        // Um ficheiro com o CRC errado é ignorado, como se não houvesse partida
+        byte[] data = Files.readAllBytes(file);
+        data[data.length - 1] ^= 1;
+        Files.write(file, data);
+        assertNull(LocalStorageManager.loadGame(file));
+    }
+
+    /** @return Uma partida com {@code ticks} passos de comandos ao acaso (ou até ao fim de jogo). */
+    private static GameCore playing(Random random, int ticks) {
+        GameCore core = new GameCore();
+        core.start(random.nextLong());
+        for (int tick = 0; tick < ticks && core.getState() == GameState.PLAYING; tick++) {
+            core.step(random.nextInt(8) == 0 ? 1 << random.nextInt(5) : Input.NONE);
+        }
+        return core;
+    }
+
+    private static byte[] state(GameCore core) {
+        ByteBuffer out = ByteBuffer.allocate(core.getStateSize());
+        core.saveState(out);
+        return out.array();
+    }
+}